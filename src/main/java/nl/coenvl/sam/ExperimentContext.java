@@ -0,0 +1,194 @@
+/**
+ * File ExperimentContext.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import nl.coenvl.sam.constraints.CompareCounter;
+import nl.coenvl.sam.solvers.SolverRunner;
+import nl.coenvl.sam.solvers.SolverRunner.OverflowPolicy;
+
+/**
+ * ExperimentContext
+ *
+ * Everything that is shared by the agents, solvers and constraints of a single experiment. Agents are created in a
+ * context, and hand it to their solvers and constraints, so that several experiments can run in the same JVM at the
+ * same time as long as each uses its own context.
+ *
+ * All randomness of an experiment is derived from the seed of its context. Every agent takes its own
+ * {@link SplittableRandom} stream from the context when it is created, so that agents do not contend on a shared
+ * generator, and an experiment with the same seed and the same agents, created in the same order, makes the same random
+ * choices.
+ *
+ * A context can be reused for a new run in two ways. {@link #rearm()} resets the agents but keeps them, together with
+ * their mailboxes and the threads of their solver runners, so that the same problem can be run again right away.
+ * {@link #reset()} also forgets the agents, and stops the threads of their runners.
+ *
+ * Code that does not pass a context explicitly uses the default context, which is also what the static {@link MailMan}
+ * and {@link CompareCounter} methods operate on.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class ExperimentContext {
+
+    private static final ExperimentContext defaultContext = new ExperimentContext();
+
+    private final MessageBus messageBus;
+    private final CompareCounter compareCounter;
+    private volatile Executor executor;
+    private volatile int queueCapacity;
+    private volatile OverflowPolicy overflowPolicy;
+    private SplittableRandom seeds;
+    private final Queue<SolverRunner> runners;
+
+    public ExperimentContext() {
+        this.messageBus = new MessageBus();
+        this.compareCounter = new CompareCounter();
+        this.executor = null;
+        this.queueCapacity = SolverRunner.UNBOUNDED;
+        this.overflowPolicy = OverflowPolicy.BLOCK;
+        this.seeds = new SplittableRandom();
+        this.runners = new ConcurrentLinkedQueue<>();
+    }
+
+    public static ExperimentContext getDefault() {
+        return ExperimentContext.defaultContext;
+    }
+
+    public MessageBus getMessageBus() {
+        return this.messageBus;
+    }
+
+    public CompareCounter getCompareCounter() {
+        return this.compareCounter;
+    }
+
+    /**
+     * @return The executor that the solver runners of multi threaded agents are scheduled on, or null if every runner
+     *         has a thread of its own
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Sets the executor on which the solver runners of multi threaded agents handle their messages, for instance
+     * {@link nl.coenvl.sam.solvers.SolverRunner#newWorkStealingPool()}. Only runners that are created afterwards use
+     * it, so set it before the solvers of the agents are set. The context does not shut the executor down.
+     *
+     * @param executor The executor to use, or null to give every runner a thread of its own
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * Bounds the queues of the solver runners that are created from now on, so that a solver that falls behind can not
+     * exhaust the heap. Like the executor, this must be set before the solvers of the agents are set. Setting a solver
+     * that requires every message then fails if the policy may drop or coalesce messages, see
+     * {@link nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()}.
+     *
+     * @param capacity The maximum number of messages in the queue of a runner, or {@link SolverRunner#UNBOUNDED}
+     * @param policy What a runner does with a message that arrives while its queue is full
+     */
+    public void setQueueBound(final int capacity, final OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a queue must be positive");
+        }
+        this.queueCapacity = capacity;
+        this.overflowPolicy = policy;
+    }
+
+    /**
+     * Seeds the random streams of the agents that are created in this context from now on. Without a seed, every
+     * context is seeded differently.
+     *
+     * @param seed The seed of the experiment
+     */
+    public synchronized void setSeed(final long seed) {
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns a new random stream, which is split off the stream of the experiment seed. The stream is not thread safe,
+     * so it should be used by a single agent or solver.
+     *
+     * @return A random stream that is independent from all streams that were handed out before
+     */
+    public synchronized SplittableRandom newRandom() {
+        return this.seeds.split();
+    }
+
+    /**
+     * Registers a solver runner that has a thread of its own, which is stopped when this context is reset.
+     */
+    public void addRunner(final SolverRunner runner) {
+        this.runners.add(runner);
+    }
+
+    /**
+     * Stops the threads of all solver runners in this context. All threads are interrupted before waiting for any of
+     * them, so that this takes about as long for many runners as for one.
+     */
+    public void stopRunners() {
+        for (final SolverRunner runner : this.runners) {
+            runner.interruptThread();
+        }
+
+        SolverRunner runner;
+        while ((runner = this.runners.poll()) != null) {
+            runner.stopThread();
+        }
+    }
+
+    /**
+     * Resets all agents in this context and clears all counters, but keeps the agents registered and the threads of
+     * their solver runners running, so that they can be initialized again for a new run. This should only be called
+     * when the agents are idle.
+     */
+    public void rearm() {
+        this.messageBus.rearm();
+        this.compareCounter.clear();
+    }
+
+    /**
+     * Resets all agents in this context, forgets about them, stops their threads, and clears all counters, after which
+     * the context can be used for a new experiment.
+     */
+    public void reset() {
+        this.messageBus.reset();
+        this.stopRunners();
+        this.compareCounter.clear();
+    }
+
+}
@@ -20,11 +20,24 @@
  */
 package nl.coenvl.sam;
 
-import nl.coenvl.sam.constraints.CompareCounter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import nl.coenvl.sam.engine.ExperimentRunner;
 
 /**
  * ExperimentControl
  *
+ * Controls the experiments that use the default context, and runs batches of experiments that each have a context of
+ * their own. A batch builds an isolated instance of the problem for every seed, using a {@link ProblemFactory}, and
+ * runs the instances concurrently on a pool with a bounded number of threads. The agents of every instance are run on
+ * the same pool, so the batch never uses more threads than the pool has.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 4 apr. 2014
@@ -33,12 +46,194 @@ import nl.coenvl.sam.constraints.CompareCounter;
 public class ExperimentControl {
 
     public static void ResetExperiment() {
-        MailMan.reset();
-        CompareCounter.reset();
+        ExperimentContext.getDefault().reset();
+    }
+
+    /**
+     * Resets the agents of the default context for a new run, but keeps them and their threads.
+     *
+     * @see ExperimentContext#rearm()
+     */
+    public static void RearmExperiment() {
+        ExperimentContext.getDefault().rearm();
     }
 
     public static int getNumberEvals() {
-        return CompareCounter.getComparisons();
+        return ExperimentContext.getDefault().getCompareCounter().getCount();
+    }
+
+    /**
+     * Builds the problem of a single run of a batch
+     */
+    @FunctionalInterface
+    public interface ProblemFactory {
+
+        /**
+         * Creates the agents and constraints of a run in the given context, which is already seeded, and returns the
+         * runner that runs them.
+         *
+         * @param context The context of the run, which is not shared with any other run
+         * @param pool The pool that runs the batch, on which the runner should run its agents as well
+         * @return The runner of the run, with its budget set
+         * @throws Exception If the problem could not be built
+         */
+        public ExperimentRunner create(ExperimentContext context, ForkJoinPool pool) throws Exception;
+
+    }
+
+    /**
+     * Runs an instance of the problem for every seed, on as many threads as there are processors.
+     *
+     * @see #runBatch(ProblemFactory, long[], int)
+     */
+    public static BatchResult runBatch(final ProblemFactory factory, final long[] seeds)
+            throws InterruptedException, ExecutionException {
+        return ExperimentControl.runBatch(factory, seeds, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs an instance of the problem for every seed, concurrently on a pool with the given number of threads.
+     *
+     * @param factory The factory that builds the instance of every run
+     * @param seeds The seed of the context of every run
+     * @param parallelism The maximum number of threads to use
+     * @return The statistics of the runs, in the order of the seeds
+     * @throws InterruptedException If the thread is interrupted while waiting for the runs
+     * @throws ExecutionException If a run failed, which then holds the cause
+     */
+    public static BatchResult runBatch(final ProblemFactory factory, final long[] seeds, final int parallelism)
+            throws InterruptedException, ExecutionException {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final List<ForkJoinTask<RunStatistics>> tasks = new ArrayList<>(seeds.length);
+            for (final long seed : seeds) {
+                tasks.add(pool.submit(() -> ExperimentControl.runOnce(factory, seed, pool)));
+            }
+
+            final List<RunStatistics> runs = new ArrayList<>(seeds.length);
+            for (final ForkJoinTask<RunStatistics> task : tasks) {
+                runs.add(task.get());
+            }
+            return new BatchResult(runs);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static RunStatistics runOnce(final ProblemFactory factory, final long seed, final ForkJoinPool pool)
+            throws Exception {
+        final ExperimentContext context = new ExperimentContext();
+        context.setSeed(seed);
+        final long start = System.nanoTime();
+        try {
+            final ExperimentRunner.Result result = factory.create(context, pool).run();
+            return new RunStatistics(seed, result, System.nanoTime() - start);
+        } finally {
+            context.reset();
+        }
+    }
+
+    /**
+     * RunStatistics
+     *
+     * The outcome of a single run of a batch.
+     */
+    public static final class RunStatistics {
+
+        private final long seed;
+        private final ExperimentRunner.Result result;
+        private final long time;
+
+        RunStatistics(final long seed, final ExperimentRunner.Result result, final long time) {
+            this.seed = seed;
+            this.result = result;
+            this.time = time;
+        }
+
+        public long getSeed() {
+            return this.seed;
+        }
+
+        /**
+         * @return All samples of the run
+         */
+        public ExperimentRunner.Result getResult() {
+            return this.result;
+        }
+
+        public double getFinalCost() {
+            return this.result.getFinalCost();
+        }
+
+        /**
+         * @return The number of iterations that the run took
+         */
+        public int getIterations() {
+            return this.result.size() == 0 ? 0 : this.result.getIterations()[this.result.size() - 1];
+        }
+
+        /**
+         * @return The number of messages that were delivered in the run
+         */
+        public long getMessages() {
+            return this.result.size() == 0 ? 0 : this.result.getMessages()[this.result.size() - 1];
+        }
+
+        /**
+         * @return The number of constraint evaluations in the run
+         */
+        public long getEvaluations() {
+            return this.result.size() == 0 ? 0 : this.result.getEvaluations()[this.result.size() - 1];
+        }
+
+        /**
+         * @return The wall clock time in nanoseconds that it took to build and run the problem
+         */
+        public long getTime() {
+            return this.time;
+        }
+
+    }
+
+    /**
+     * BatchResult
+     *
+     * The statistics of all runs of a batch, and their aggregates.
+     */
+    public static final class BatchResult {
+
+        private final List<RunStatistics> runs;
+
+        BatchResult(final List<RunStatistics> runs) {
+            this.runs = Collections.unmodifiableList(runs);
+        }
+
+        /**
+         * @return The statistics of every run, in the order of the seeds
+         */
+        public List<RunStatistics> getRuns() {
+            return this.runs;
+        }
+
+        public DoubleSummaryStatistics getFinalCosts() {
+            return this.runs.stream().mapToDouble(RunStatistics::getFinalCost).summaryStatistics();
+        }
+
+        public DoubleSummaryStatistics getMessages() {
+            return this.runs.stream().mapToDouble(RunStatistics::getMessages).summaryStatistics();
+        }
+
+        public DoubleSummaryStatistics getEvaluations() {
+            return this.runs.stream().mapToDouble(RunStatistics::getEvaluations).summaryStatistics();
+        }
+
+        /**
+         * @return The statistics of the wall clock time of the runs, in nanoseconds
+         */
+        public DoubleSummaryStatistics getTimes() {
+            return this.runs.stream().mapToDouble(RunStatistics::getTime).summaryStatistics();
+        }
+
     }
 
 }
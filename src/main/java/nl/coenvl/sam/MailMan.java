@@ -19,97 +19,109 @@
  */
 package nl.coenvl.sam;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import nl.coenvl.sam.agents.Agent;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.trace.MessageTraceRecorder;
 import nl.coenvl.sam.variables.Variable;
 
 /**
  * MailMan
  *
+ * Static access to the {@link MessageBus} of the default {@link ExperimentContext}. Agents that are created in a
+ * different context use the bus of that context instead.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 4 mrt. 2016
  */
 public final class MailMan {
 
-    private static final Map<UUID, Agent<?, ?>> ownerMap = new LinkedHashMap<>();
-    private static final Map<String, Integer> messageCounterMap = new HashMap<>();
-    private static int sentMessages = 0;
-
     private MailMan() {
         // Private constructor
     }
 
+    private static MessageBus bus() {
+        return ExperimentContext.getDefault().getMessageBus();
+    }
+
     public static void registerOwner(final Variable<?> var, final Agent<?, ?> agent) {
-        MailMan.register(var.getID(), agent);
+        MailMan.bus().registerOwner(var, agent);
     }
 
     public static void register(final UUID address, final Agent<?, ?> agent) {
-        MailMan.ownerMap.put(address, agent);
+        MailMan.bus().register(address, agent);
     }
 
     public static void sendMessage(final UUID id, final Message m) {
-        if (!MailMan.messageCounterMap.containsKey(m.getType())) {
-            MailMan.messageCounterMap.put(m.getType(), 1);
-        } else {
-            MailMan.messageCounterMap.put(m.getType(), MailMan.messageCounterMap.get(m.getType()) + 1);
-        }
-
-        final Agent<?, ?> owner = MailMan.ownerMap.get(id);
-
-        if (owner != null) {
-            MailMan.sentMessages++;
-            owner.push(m);
-        } else {
-            // Do nothing
-        }
+        MailMan.bus().sendMessage(id, m);
     }
 
     public static void broadCast(final Message msg) {
-        for (final UUID id : MailMan.ownerMap.keySet()) {
-            MailMan.sendMessage(id, msg);
-        }
+        MailMan.bus().broadCast(msg);
     }
 
     public static Map<String, Integer> getSentMessages() {
-        return MailMan.messageCounterMap;
+        return MailMan.bus().getSentMessages();
     }
 
     public static int getTotalSentMessages() {
-        return MailMan.sentMessages;
+        return MailMan.bus().getTotalSentMessages();
     }
 
-    public static void reset() {
-        for (final Agent<?, ?> a : MailMan.ownerMap.values()) {
-            a.reset();
-        }
+    public static MessageStatistics getStatistics() {
+        return MailMan.bus().getStatistics();
+    }
 
-        MailMan.ownerMap.clear();
-        MailMan.messageCounterMap.clear();
-        MailMan.sentMessages = 0;
+    /**
+     * @see MessageBus#setByteAccounting(boolean)
+     */
+    public static void setByteAccounting(final boolean enabled) {
+        MailMan.bus().setByteAccounting(enabled);
+    }
+
+    public static long getTotalSentBytes() {
+        return MailMan.bus().getTotalSentBytes();
+    }
+
+    /**
+     * @see MessageBus#setEnvelopeMode(boolean)
+     */
+    public static void setEnvelopeMode(final boolean enabled) {
+        MailMan.bus().setEnvelopeMode(enabled);
+    }
+
+    public static int flush() {
+        return MailMan.bus().flush();
+    }
+
+    /**
+     * @see MessageBus#awaitQuiescence(long, TimeUnit)
+     */
+    public static boolean awaitQuiescence(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return MailMan.bus().awaitQuiescence(timeout, unit);
+    }
+
+    /**
+     * @see MessageBus#setRecorder(MessageTraceRecorder)
+     */
+    public static void setRecorder(final MessageTraceRecorder recorder) {
+        MailMan.bus().setRecorder(recorder);
+    }
+
+    public static void reset() {
+        MailMan.bus().reset();
+        ExperimentContext.getDefault().stopRunners();
     }
 
     public static String stateString(final Variable<?> var1,
             final Object value1,
             final Variable<?> var2,
             final Object value2) {
-        String ret = "";
-        for (final Agent<?, ?> k : MailMan.ownerMap.values()) {
-            final Variable<?> v = k.getVariable();
-            if (v.equals(var1)) {
-                ret += value1 == null ? "-" : value1;
-            } else if (v.equals(var2)) {
-                ret += value2 == null ? "-" : value2;
-            } else {
-                ret += v.isSet() ? v.getValue() : "-";
-            }
-        }
-        return ret;
+        return MailMan.bus().stateString(var1, value1, var2, value2);
     }
 
 }
@@ -0,0 +1,110 @@
+/**
+ * File Mailbox.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.Message;
+
+/**
+ * Mailbox
+ *
+ * Resolved handle of an address on a {@link MessageBus}. Agents obtain the mailboxes of their neighbors once, and send
+ * to them directly, so the UUID of the address is only needed to look the mailbox up. There is exactly one mailbox per
+ * address on a bus, which may be handed out before its owner registers; the owner is bound to it on registration.
+ *
+ * Every mailbox also has an index, which the bus hands out densely from zero in the order in which the mailboxes are
+ * created. Code that keeps state per address can use it to store that state in an array instead of a map keyed by UUID.
+ *
+ * In envelope mode the bus collects the messages for the owner in the mailbox, until they are flushed.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class Mailbox {
+
+    private final UUID address;
+    private final int index;
+    private volatile Agent<?, ?> owner;
+    private List<Message> pending;
+
+    Mailbox(final UUID address, final int index) {
+        this.address = address;
+        this.index = index;
+        this.owner = null;
+        this.pending = null;
+    }
+
+    public UUID getAddress() {
+        return this.address;
+    }
+
+    /**
+     * @return The index of this mailbox on its bus, in the order in which the mailboxes were created from zero
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return The agent that receives the messages of this mailbox, or null if no agent registered for it (yet)
+     */
+    public Agent<?, ?> getOwner() {
+        return this.owner;
+    }
+
+    void setOwner(final Agent<?, ?> agent) {
+        this.owner = agent;
+    }
+
+    /**
+     * Adds a message to be delivered on the next flush.
+     *
+     * @return true if this is the first pending message, in which case the bus must remember to flush this mailbox
+     */
+    synchronized boolean hold(final Message m) {
+        if (this.pending == null) {
+            this.pending = new ArrayList<>();
+        }
+        this.pending.add(m);
+        return this.pending.size() == 1;
+    }
+
+    /**
+     * Takes all pending messages out of the mailbox.
+     *
+     * @return The pending messages in the order they were added, or null if there are none
+     */
+    synchronized List<Message> release() {
+        final List<Message> messages = this.pending;
+        this.pending = null;
+        return messages;
+    }
+
+    @Override
+    public String toString() {
+        return "Mailbox " + this.address + (this.owner == null ? " (unowned)" : " of " + this.owner.getName());
+    }
+
+}
@@ -0,0 +1,407 @@
+/**
+ * File MessageBus.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.Envelope;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.trace.MessageTraceRecorder;
+import nl.coenvl.sam.transport.LocalTransport;
+import nl.coenvl.sam.transport.Transport;
+import nl.coenvl.sam.variables.Variable;
+
+/**
+ * MessageBus
+ *
+ * Delivers messages between the agents of a single experiment, and keeps track of the number of messages that were
+ * sent. Every {@link ExperimentContext} has its own bus, so that independent experiments can run side by side.
+ *
+ * Every address has a single {@link Mailbox}, which agents resolve once for their neighbors so that sending does not
+ * need to look up the receiver. Sending by UUID is still possible for addresses that are only known from a message.
+ * The mailboxes are also numbered densely in the order in which they are created, see {@link Mailbox#getIndex()},
+ * which the {@link MessageStatistics} use to keep the counts per receiver in an array, and which gives a receiver a
+ * deterministic order of its senders.
+ *
+ * Sending the same message to several receivers is done with {@link #multicast(Mailbox[], Message)}, which freezes the
+ * message so that all receivers can share the one instance.
+ *
+ * Round based solvers can let the bus run in envelope mode, see {@link #setEnvelopeMode(boolean)}. The bus then holds
+ * on to all messages for a receiver until {@link #flush()} is called at the end of the tick or phase, and delivers them
+ * as a single {@link Envelope}, so that the receiver only takes one entry from its queue instead of one per message.
+ *
+ * The actual hand-over of a message to its receiver is done by a {@link Transport}. By default this is the
+ * {@link LocalTransport}, which pushes the message to the agent that owns the mailbox in this JVM.
+ *
+ * Every message that is handed over is counted by a {@link TerminationDetector} until it is processed, so that
+ * {@link #awaitQuiescence(long, TimeUnit)} returns exactly when the agents on this bus have become idle.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class MessageBus {
+
+    private final ConcurrentMap<UUID, Mailbox> mailboxes;
+    private final List<Mailbox> registered;
+    private int mailboxCount;
+    private final MessageStatistics statistics;
+    private final Queue<Mailbox> held;
+    private final TerminationDetector termination;
+    private volatile boolean countBytes;
+    private volatile boolean envelopes;
+    private volatile Transport transport;
+    private volatile MessageTraceRecorder recorder;
+    private volatile Comparator<? super Message> deliveryOrder;
+
+    public MessageBus() {
+        this.mailboxes = new ConcurrentHashMap<>();
+        this.registered = new ArrayList<>();
+        this.mailboxCount = 0;
+        this.statistics = new MessageStatistics();
+        this.held = new ConcurrentLinkedQueue<>();
+        this.termination = new TerminationDetector();
+        this.countBytes = false;
+        this.envelopes = false;
+        this.transport = new LocalTransport();
+        this.recorder = null;
+        this.deliveryOrder = null;
+    }
+
+    public void registerOwner(final Variable<?> var, final Agent<?, ?> agent) {
+        this.register(var.getID(), agent);
+    }
+
+    public synchronized void register(final UUID address, final Agent<?, ?> agent) {
+        final Mailbox box = this.mailbox(address);
+        if (box.getOwner() == null) {
+            this.registered.add(box);
+        }
+        box.setOwner(agent);
+    }
+
+    /**
+     * Returns the mailbox of the given address, which is created if it does not exist yet. The mailbox remains valid
+     * when its owner registers later on.
+     *
+     * @param address The address to get the mailbox for
+     * @return The one mailbox of this address on this bus
+     */
+    public Mailbox mailbox(final UUID address) {
+        final Mailbox box = this.mailboxes.get(address);
+        if (box != null) {
+            return box;
+        }
+        return this.createMailbox(address);
+    }
+
+    private synchronized Mailbox createMailbox(final UUID address) {
+        Mailbox box = this.mailboxes.get(address);
+        if (box == null) {
+            box = new Mailbox(address, this.mailboxCount++);
+            this.mailboxes.put(address, box);
+        }
+        return box;
+    }
+
+    public void sendMessage(final UUID id, final Message m) {
+        final Mailbox box = this.mailboxes.get(id);
+
+        if (box != null) {
+            this.send(box, m);
+        } else {
+            this.statistics.recordSent(m.getType(), m.getSource());
+        }
+    }
+
+    public void send(final Mailbox target, final Message m) {
+        this.statistics.recordSent(m.getType(), m.getSource());
+
+        final long size = this.countBytes ? m.messageSize() : 0;
+        if (this.deliver(target, m)) {
+            this.statistics.recordDelivered(target, size);
+        } else {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Delivers the same message to all targets. The message is frozen first, and is then shared by all receivers
+     * without being copied. It is counted as one logical send with a fan-out of the number of targets, and its size is
+     * computed only once.
+     *
+     * @param targets The mailboxes to deliver the message to
+     * @param m The message, which can no longer be modified after this call
+     */
+    public void multicast(final Mailbox[] targets, final Message m) {
+        m.freeze();
+        if (targets.length == 0) {
+            return;
+        }
+
+        this.statistics.recordMulticast(m.getType(), m.getSource(), targets.length);
+        final long size = this.countBytes ? m.messageSize() : 0;
+
+        for (final Mailbox target : targets) {
+            if (this.deliver(target, m)) {
+                this.statistics.recordDelivered(target, size);
+            }
+        }
+    }
+
+    public void broadCast(final Message msg) {
+        final Mailbox[] targets;
+        synchronized (this) {
+            targets = this.registered.toArray(new Mailbox[0]);
+        }
+        this.multicast(targets, msg);
+    }
+
+    /**
+     * Hands the message over to the transport, or holds it in the mailbox of a local receiver in envelope mode.
+     *
+     * @return true if the message was accepted for delivery
+     */
+    private boolean deliver(final Mailbox target, final Message m) {
+        final MessageTraceRecorder trace = this.recorder;
+        if (trace != null) {
+            trace.record(target, m);
+        }
+
+        if (this.envelopes && (target.getOwner() != null)) {
+            if (target.hold(m)) {
+                this.held.add(target);
+            }
+            return true;
+        }
+
+        // Counted until the receiver is done with it
+        this.termination.begin();
+        try {
+            return this.transport.deliver(target, m);
+        } finally {
+            this.termination.end();
+        }
+    }
+
+    /**
+     * Replaces the transport that delivers the messages of this bus. The transport that was used before is not closed.
+     */
+    public void setTransport(final Transport transport) {
+        this.transport = transport;
+    }
+
+    public Transport getTransport() {
+        return this.transport;
+    }
+
+    /**
+     * Starts recording every message that is sent on this bus, or stops recording if the recorder is null. The
+     * recorder is not closed when it is replaced.
+     *
+     * @see MessageTraceRecorder
+     */
+    public void setRecorder(final MessageTraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Enables or disables envelope mode. In envelope mode messages are only delivered by {@link #flush()}, which must
+     * therefore be called after every tick or phase of the solvers. Messages that are held when the mode is disabled
+     * are delivered on the next flush.
+     */
+    public void setEnvelopeMode(final boolean enabled) {
+        this.envelopes = enabled;
+    }
+
+    public boolean isEnvelopeMode() {
+        return this.envelopes;
+    }
+
+    /**
+     * Sets the order in which the messages that are held for a receiver are delivered on a flush. Messages that are
+     * equal in this order keep the order in which they were sent. By default, or if the order is null, all messages are
+     * delivered in the order in which they were sent, which depends on the scheduling of the sending threads.
+     */
+    public void setDeliveryOrder(final Comparator<? super Message> order) {
+        this.deliveryOrder = order;
+    }
+
+    /**
+     * Delivers the messages that are held for every receiver, as a single {@link Envelope} per receiver if there is more
+     * than one. Only the messages that were held when the flush started are delivered, any message that is sent by a
+     * receiver while handling its envelope is held until the next flush.
+     *
+     * @return The number of envelopes that were delivered
+     */
+    public int flush() {
+        int delivered = 0;
+        for (int n = this.held.size(); n > 0; n--) {
+            final Mailbox box = this.held.poll();
+            if (box == null) {
+                break;
+            }
+
+            final List<Message> messages = box.release();
+            if (messages == null) {
+                continue;
+            }
+
+            final Comparator<? super Message> order = this.deliveryOrder;
+            if (order != null) {
+                messages.sort(order);
+            }
+
+            this.termination.begin();
+            try {
+                if (messages.size() == 1) {
+                    this.transport.deliver(box, messages.get(0));
+                } else if (this.transport.deliver(box, new Envelope(messages))) {
+                    this.statistics.recordEnvelope();
+                    delivered++;
+                }
+            } finally {
+                this.termination.end();
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * @return true if there are messages that will be delivered on the next {@link #flush()}
+     */
+    public boolean hasHeldMessages() {
+        return !this.held.isEmpty();
+    }
+
+    /**
+     * Returns the number of messages sent per message type. The map is a copy, use {@link #getStatistics()} for the
+     * other counters.
+     */
+    public Map<String, Integer> getSentMessages() {
+        final Map<String, Integer> counts = new HashMap<>();
+        for (final Map.Entry<String, Long> e : this.statistics.snapshot().getSentPerType().entrySet()) {
+            counts.put(e.getKey(), e.getValue().intValue());
+        }
+        return counts;
+    }
+
+    public int getTotalSentMessages() {
+        return (int) this.statistics.getTotalDelivered();
+    }
+
+    public MessageStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    public TerminationDetector getTerminationDetector() {
+        return this.termination;
+    }
+
+    /**
+     * Blocks until no message on this bus is being delivered, queued or handled, or until the timeout expires.
+     *
+     * @see TerminationDetector#awaitQuiescence(long, TimeUnit)
+     */
+    public boolean awaitQuiescence(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.termination.awaitQuiescence(timeout, unit);
+    }
+
+    /**
+     * Enables or disables counting the encoded size of every delivered message. Sizing a message means encoding it,
+     * so this is off by default.
+     *
+     * @see Message#messageSize()
+     */
+    public void setByteAccounting(final boolean enabled) {
+        this.countBytes = enabled;
+    }
+
+    public long getTotalSentBytes() {
+        return this.statistics.getTotalBytes();
+    }
+
+    /**
+     * Resets all registered agents, and clears the held messages and the message counters. The agents stay registered,
+     * so they can be initialized again for a new run.
+     */
+    public synchronized void rearm() {
+        for (final Mailbox box : this.registered) {
+            box.getOwner().reset();
+        }
+
+        this.clearCounters();
+    }
+
+    /**
+     * Resets all registered agents and forgets about them, and clears the message counters.
+     */
+    public synchronized void reset() {
+        for (final Mailbox box : this.registered) {
+            box.getOwner().reset();
+            box.setOwner(null);
+        }
+
+        this.clearCounters();
+        this.registered.clear();
+        this.mailboxes.clear();
+        this.mailboxCount = 0;
+    }
+
+    private void clearCounters() {
+        for (final Mailbox box : this.held) {
+            box.release();
+        }
+
+        this.held.clear();
+        this.statistics.reset();
+        this.termination.reset();
+    }
+
+    public synchronized String stateString(final Variable<?> var1,
+            final Object value1,
+            final Variable<?> var2,
+            final Object value2) {
+        String ret = "";
+        for (final Mailbox box : this.registered) {
+            final Variable<?> v = box.getOwner().getVariable();
+            if (v.equals(var1)) {
+                ret += value1 == null ? "-" : value1;
+            } else if (v.equals(var2)) {
+                ret += value2 == null ? "-" : value2;
+            } else {
+                ret += v.isSet() ? v.getValue() : "-";
+            }
+        }
+        return ret;
+    }
+
+}
@@ -0,0 +1,301 @@
+/**
+ * File MessageStatistics.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MessageStatistics
+ *
+ * Message counters of a {@link MessageBus}. Every counter is a {@link LongAdder}, so that the solver threads that send
+ * concurrently do not contend on a single field, and no count is lost. A consistent view on the counters is obtained
+ * through {@link #snapshot()}.
+ *
+ * Messages are counted per type and per sender when they are sent, and per receiver and in the total when they are
+ * delivered, i.e. when the receiver is known to the bus. A multicast to N receivers is one logical send, which is
+ * counted as such, but it adds N to the counts per type and per sender so that these remain comparable to sending the
+ * message N times. Envelopes do not change the message counts either, they are counted separately.
+ *
+ * The receiver of a delivered message is always a {@link Mailbox}, so the counters per receiver are kept in an array
+ * indexed by {@link Mailbox#getIndex()}, and counting a delivery does not need to hash the address of the receiver.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class MessageStatistics {
+
+    private final ConcurrentMap<String, LongAdder> perType;
+    private final ConcurrentMap<UUID, LongAdder> perSender;
+    private volatile ReceiverCounter[] perReceiver;
+    private final LongAdder delivered;
+    private final LongAdder bytes;
+    private final LongAdder multicasts;
+    private final LongAdder multicastFanOut;
+    private final LongAdder envelopes;
+
+    public MessageStatistics() {
+        this.perType = new ConcurrentHashMap<>();
+        this.perSender = new ConcurrentHashMap<>();
+        this.perReceiver = new ReceiverCounter[0];
+        this.delivered = new LongAdder();
+        this.bytes = new LongAdder();
+        this.multicasts = new LongAdder();
+        this.multicastFanOut = new LongAdder();
+        this.envelopes = new LongAdder();
+    }
+
+    /**
+     * Records that a message of the given type was sent by the given source.
+     */
+    public void recordSent(final String type, final UUID source) {
+        MessageStatistics.counter(this.perType, type).increment();
+        if (source != null) {
+            MessageStatistics.counter(this.perSender, source).increment();
+        }
+    }
+
+    /**
+     * Records that a single message of the given type was sent by the given source to fanOut receivers at once.
+     */
+    public void recordMulticast(final String type, final UUID source, final int fanOut) {
+        MessageStatistics.counter(this.perType, type).add(fanOut);
+        if (source != null) {
+            MessageStatistics.counter(this.perSender, source).add(fanOut);
+        }
+        this.multicasts.increment();
+        this.multicastFanOut.add(fanOut);
+    }
+
+    /**
+     * Records that several messages for the same receiver were delivered together in one envelope.
+     */
+    public void recordEnvelope() {
+        this.envelopes.increment();
+    }
+
+    /**
+     * Records that a message of the given size was delivered to the receiver.
+     */
+    public void recordDelivered(final Mailbox receiver, final long size) {
+        final int index = receiver.getIndex();
+        final ReceiverCounter[] counters = this.perReceiver;
+        ReceiverCounter counter = index < counters.length ? counters[index] : null;
+        if (counter == null) {
+            counter = this.createReceiverCounter(receiver);
+        }
+        counter.increment();
+        this.delivered.increment();
+        if (size > 0) {
+            this.bytes.add(size);
+        }
+    }
+
+    public long getTotalDelivered() {
+        return this.delivered.sum();
+    }
+
+    public long getTotalBytes() {
+        return this.bytes.sum();
+    }
+
+    public long getTotalMulticasts() {
+        return this.multicasts.sum();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(MessageStatistics.sums(this.perType),
+                MessageStatistics.sums(this.perSender),
+                this.receiverSums(),
+                this.delivered.sum(),
+                this.bytes.sum(),
+                this.multicasts.sum(),
+                this.multicastFanOut.sum(),
+                this.envelopes.sum());
+    }
+
+    public void reset() {
+        this.perType.clear();
+        this.perSender.clear();
+        synchronized (this) {
+            this.perReceiver = new ReceiverCounter[0];
+        }
+        this.delivered.reset();
+        this.bytes.reset();
+        this.multicasts.reset();
+        this.multicastFanOut.reset();
+        this.envelopes.reset();
+    }
+
+    private static <K> LongAdder counter(final ConcurrentMap<K, LongAdder> map, final K key) {
+        // Plain get first, computeIfAbsent may lock the bin even if the key is present
+        final LongAdder counter = map.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        return map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private synchronized ReceiverCounter createReceiverCounter(final Mailbox receiver) {
+        final int index = receiver.getIndex();
+        ReceiverCounter[] counters = this.perReceiver;
+        if (index >= counters.length) {
+            counters = Arrays.copyOf(counters, Math.max(2 * counters.length, index + 1));
+        }
+        if (counters[index] == null) {
+            counters[index] = new ReceiverCounter(receiver.getAddress());
+        }
+        // Publishes the new counter, also if it was stored in the array that is already in use
+        this.perReceiver = counters;
+        return counters[index];
+    }
+
+    private Map<UUID, Long> receiverSums() {
+        final Map<UUID, Long> sums = new HashMap<>();
+        for (final ReceiverCounter counter : this.perReceiver) {
+            if (counter != null) {
+                sums.put(counter.address, counter.sum());
+            }
+        }
+        return Collections.unmodifiableMap(sums);
+    }
+
+    private static <K> Map<K, Long> sums(final ConcurrentMap<K, LongAdder> map) {
+        final Map<K, Long> sums = new HashMap<>();
+        for (final Map.Entry<K, LongAdder> e : map.entrySet()) {
+            sums.put(e.getKey(), e.getValue().sum());
+        }
+        return Collections.unmodifiableMap(sums);
+    }
+
+    /**
+     * The number of messages delivered to a single receiver, which remembers the address of the receiver for the
+     * snapshots
+     */
+    private static final class ReceiverCounter extends LongAdder {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID address;
+
+        ReceiverCounter(final UUID address) {
+            this.address = address;
+        }
+    }
+
+    /**
+     * Snapshot
+     *
+     * Immutable copy of the counters at the time the snapshot was taken.
+     *
+     * @author leeuwencjv
+     * @version 0.1
+     * @since 18 okt. 2026
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Long> perType;
+        private final Map<UUID, Long> perSender;
+        private final Map<UUID, Long> perReceiver;
+        private final long totalDelivered;
+        private final long totalBytes;
+        private final long totalMulticasts;
+        private final long totalFanOut;
+        private final long totalEnvelopes;
+
+        Snapshot(final Map<String, Long> perType,
+                final Map<UUID, Long> perSender,
+                final Map<UUID, Long> perReceiver,
+                final long totalDelivered,
+                final long totalBytes,
+                final long totalMulticasts,
+                final long totalFanOut,
+                final long totalEnvelopes) {
+            this.perType = perType;
+            this.perSender = perSender;
+            this.perReceiver = perReceiver;
+            this.totalDelivered = totalDelivered;
+            this.totalBytes = totalBytes;
+            this.totalMulticasts = totalMulticasts;
+            this.totalFanOut = totalFanOut;
+            this.totalEnvelopes = totalEnvelopes;
+        }
+
+        public Map<String, Long> getSentPerType() {
+            return this.perType;
+        }
+
+        public Map<UUID, Long> getSentPerSender() {
+            return this.perSender;
+        }
+
+        public Map<UUID, Long> getDeliveredPerReceiver() {
+            return this.perReceiver;
+        }
+
+        public long getTotalDelivered() {
+            return this.totalDelivered;
+        }
+
+        public long getTotalBytes() {
+            return this.totalBytes;
+        }
+
+        /**
+         * @return The number of logical multicast sends, each of which is also counted once per receiver in the counts
+         *         per type
+         */
+        public long getTotalMulticasts() {
+            return this.totalMulticasts;
+        }
+
+        /**
+         * @return The summed number of receivers over all multicasts
+         */
+        public long getTotalMulticastFanOut() {
+            return this.totalFanOut;
+        }
+
+        /**
+         * @return The average number of receivers of a multicast, or 0 if nothing was multicast
+         */
+        public double getAverageFanOut() {
+            return this.totalMulticasts == 0 ? 0 : (double) this.totalFanOut / this.totalMulticasts;
+        }
+
+        public long getTotalEnvelopes() {
+            return this.totalEnvelopes;
+        }
+
+        @Override
+        public String toString() {
+            return "MessageStatistics.Snapshot " + this.perType + " (" + this.totalDelivered + " delivered, "
+                    + this.totalBytes + " bytes, " + this.totalMulticasts + " multicasts)";
+        }
+    }
+
+}
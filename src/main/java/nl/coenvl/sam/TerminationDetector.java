@@ -0,0 +1,122 @@
+/**
+ * File TerminationDetector.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TerminationDetector
+ *
+ * Counts the messages of a {@link MessageBus} that were sent but are not fully processed yet. Every party that takes a
+ * message over calls {@link #begin()} before it hands the message on, and {@link #end()} when it is done with it. The
+ * bus does so around the delivery to the receiving agent, and a {@link nl.coenvl.sam.solvers.SolverRunner} does so
+ * from the moment the message enters its queue until the solver has handled it. A message that is sent while handling
+ * another one is therefore counted before the count of the other one is released, so the count only drops to zero
+ * when no message is being delivered, queued or handled, i.e. when the agents are idle.
+ *
+ * Messages that are held by the bus in envelope mode are not counted until they are flushed, since nothing happens to
+ * them before that. A bus with only held messages is therefore quiescent, and a round based caller can flush and then
+ * await quiescence to know that the round is complete.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class TerminationDetector {
+
+    private final AtomicLong outstanding;
+    private final Object lock;
+
+    public TerminationDetector() {
+        this.outstanding = new AtomicLong();
+        this.lock = new Object();
+    }
+
+    /**
+     * Records that a message was taken over, and will be processed.
+     */
+    public void begin() {
+        this.outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records that a message that was taken over is processed.
+     */
+    public void end() {
+        this.end(1);
+    }
+
+    /**
+     * Records that a number of messages that were taken over are processed, or dropped.
+     */
+    public void end(final int count) {
+        if ((count > 0) && (this.outstanding.addAndGet(-count) <= 0)) {
+            synchronized (this.lock) {
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return The number of messages that are still being delivered, queued or handled
+     */
+    public long getOutstanding() {
+        return this.outstanding.get();
+    }
+
+    public boolean isQuiescent() {
+        return this.outstanding.get() <= 0;
+    }
+
+    /**
+     * Blocks until there are no outstanding messages, or until the timeout expires. Returns immediately if no message
+     * was sent at all, so call this after the agents have been initialized.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return true if the system is quiescent, false if the timeout expired first
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean awaitQuiescence(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this.lock) {
+            while (!this.isQuiescent()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forgets about all outstanding messages, and wakes up the threads that are waiting for quiescence.
+     */
+    public void reset() {
+        this.outstanding.set(0);
+        synchronized (this.lock) {
+            this.lock.notifyAll();
+        }
+    }
+
+}
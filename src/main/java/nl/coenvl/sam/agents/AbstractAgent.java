@@ -20,14 +20,23 @@
  */
 package nl.coenvl.sam.agents;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
 import nl.coenvl.sam.constraints.Constraint;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -44,8 +53,60 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
     private final Set<Constraint<T, V>> constraints;
     private final String name;
     private final T variable;
+    private final ExperimentContext context;
+    private final SplittableRandom random;
 
-    protected AbstractAgent(final T var, final String name) {
+    // The neighborhood is derived from the constraints, and resolved again when they or their variables change
+    private volatile Neighborhood<T, V> neighborhood;
+
+    /**
+     * The constraints in a fixed order, with the ids of their variables to bind them to a {@link DenseAssignment}, and
+     * the ids and mailboxes of all variables the agent shares a constraint with. It remembers the versions of the
+     * constraints it was resolved from, to notice variables that are added to or removed from them later on.
+     */
+    private static final class Neighborhood<T extends Variable<V>, V> {
+
+        private final List<Constraint<T, V>> constraints;
+        private final UUID[][] variableIds;
+        private final Set<UUID> neighborIds;
+        private final Mailbox[] mailboxes;
+        private final long version;
+
+        Neighborhood(final Collection<Constraint<T, V>> constraints, final UUID self, final MessageBus bus) {
+            this.constraints = new ArrayList<>(constraints);
+            // Read before the variables, so that a concurrent change makes the neighborhood stale rather than lost
+            this.version = Neighborhood.versionOf(this.constraints);
+            this.variableIds = new UUID[this.constraints.size()][];
+            final Set<UUID> set = new HashSet<>();
+            for (int i = 0; i < this.variableIds.length; i++) {
+                this.variableIds[i] = this.constraints.get(i).getVariableIds().toArray(new UUID[0]);
+                set.addAll(Arrays.asList(this.variableIds[i]));
+            }
+            set.remove(self);
+
+            this.mailboxes = new Mailbox[set.size()];
+            int i = 0;
+            for (final UUID id : set) {
+                this.mailboxes[i++] = bus.mailbox(id);
+            }
+            this.neighborIds = Collections.unmodifiableSet(set);
+        }
+
+        boolean isCurrent() {
+            return this.version == Neighborhood.versionOf(this.constraints);
+        }
+
+        private static <T extends Variable<V>, V> long versionOf(final List<Constraint<T, V>> constraints) {
+            // Versions only increase, so the sum changes whenever any of them does
+            long version = 0;
+            for (int i = 0; i < constraints.size(); i++) {
+                version += constraints.get(i).getVersion();
+            }
+            return version;
+        }
+    }
+
+    protected AbstractAgent(final ExperimentContext context, final T var, final String name) {
         super();
         if (var == null) {
             throw new NullPointerException("Variable may not be null");
@@ -53,8 +114,15 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
 
         this.name = name;
         this.variable = var;
+        this.context = context;
+        this.random = context.newRandom();
         this.constraints = new HashSet<>();
-        MailMan.registerOwner(var, this);
+        this.neighborhood = new Neighborhood<>(this.constraints, var.getID(), context.getMessageBus());
+        context.getMessageBus().registerOwner(var, this);
+    }
+
+    protected AbstractAgent(final T var, final String name) {
+        this(ExperimentContext.getDefault(), var, name);
     }
 
     protected AbstractAgent(final T var) {
@@ -81,6 +149,26 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
         return this.variable;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getContext()
+     */
+    @Override
+    public final ExperimentContext getContext() {
+        return this.context;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getRandom()
+     */
+    @Override
+    public final SplittableRandom getRandom() {
+        return this.random;
+    }
+
     @Override
     public void reset() {
         this.variable.clear();
@@ -93,12 +181,38 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
                     "The variable of the agent " + this.name + " is not involved in the provided constraint");
         }
 
+        c.setCompareCounter(this.context.getCompareCounter());
         this.constraints.add(c);
+        this.updateNeighbors();
     }
 
     @Override
     public void removeConstraint(final Constraint<T, V> c) {
         this.constraints.remove(c);
+        this.updateNeighbors();
+    }
+
+    /**
+     * Resolves the ids and mailboxes of all variables this agent shares a constraint with.
+     */
+    private void updateNeighbors() {
+        this.neighborhood = new Neighborhood<>(this.constraints, this.variable.getID(), this.context.getMessageBus());
+    }
+
+    /**
+     * @return The current neighborhood, which is resolved again if variables were added to or removed from any of the
+     *         constraints since it was resolved
+     */
+    private Neighborhood<T, V> neighborhood() {
+        final Neighborhood<T, V> current = this.neighborhood;
+        if (current.isCurrent()) {
+            return current;
+        }
+        final Neighborhood<T, V> resolved = new Neighborhood<>(current.constraints,
+                this.variable.getID(),
+                this.context.getMessageBus());
+        this.neighborhood = resolved;
+        return resolved;
     }
 
     @Override
@@ -111,8 +225,18 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
     }
 
     @Override
-    public double getLocalCostIf(final AssignmentMap<V> valueMap) {
+    public double getLocalCostIf(final Assignment<V> valueMap) {
         double cost = 0;
+        if (valueMap instanceof DenseAssignment) {
+            // Every constraint is evaluated on a view in which the slots of its variables are already resolved
+            final Neighborhood<T, V> table = this.neighborhood();
+            final Assignment<V>[] views = ((DenseAssignment<V>) valueMap).bind(table.variableIds);
+            for (int i = 0; i < views.length; i++) {
+                cost += table.constraints.get(i).getCostIf(this.variable, views[i]);
+            }
+            return cost;
+        }
+
         for (final Constraint<T, V> c : this.constraints) {
             cost += c.getCostIf(this.variable, valueMap);
         }
@@ -121,14 +245,17 @@ public abstract class AbstractAgent<T extends Variable<V>, V> extends AbstractPr
 
     @Override
     public Set<UUID> getConstrainedVariableIds() {
-        final Set<UUID> set = new HashSet<>();
-
-        for (final Constraint<T, V> c : this.constraints) {
-            set.addAll(c.getVariableIds());
-        }
-        set.remove(this.variable.getID());
+        return this.neighborhood().neighborIds;
+    }
 
-        return set;
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getNeighborMailboxes()
+     */
+    @Override
+    public Mailbox[] getNeighborMailboxes() {
+        return this.neighborhood().mailboxes;
     }
 
     @Override
@@ -21,11 +21,14 @@
 package nl.coenvl.sam.agents;
 
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Mailbox;
 import nl.coenvl.sam.constraints.Constraint;
 import nl.coenvl.sam.solvers.Solver;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -42,18 +45,45 @@ public interface Agent<T extends Variable<V>, V> extends PropertyOwner, Solver,
 
     public T getVariable();
 
+    /**
+     * Returns the context of the experiment this agent takes part in, which its solvers use to send messages.
+     */
+    public ExperimentContext getContext();
+
+    /**
+     * Returns the random stream of this agent, which it got from its context when it was created. A solver splits off
+     * a stream of its own, since the stream is not thread safe.
+     */
+    public SplittableRandom getRandom();
+
     public void addConstraint(Constraint<T, V> c);
 
     public void removeConstraint(Constraint<T, V> c);
 
     public double getLocalCost();
 
-    public double getLocalCostIf(AssignmentMap<V> valueMap);
+    public double getLocalCostIf(Assignment<V> valueMap);
 
     public Set<UUID> getConstrainedVariableIds();
 
+    /**
+     * Returns the mailboxes of the variables returned by {@link #getConstrainedVariableIds()}. The array is shared
+     * with the agent and must not be modified.
+     */
+    public Mailbox[] getNeighborMailboxes();
+
     public boolean isFinished();
 
+    /**
+     * Returns the largest number of messages that waited in a queue of this agent at the same time, to see which agents
+     * fall behind. Agents that handle their messages synchronously have no queue.
+     *
+     * @see nl.coenvl.sam.solvers.SolverRunner#getHighWaterMark()
+     */
+    public default int getQueueHighWaterMark() {
+        return 0;
+    }
+
     public Constraint<T, V> getConstraintForAgent(UUID target);
 
 }
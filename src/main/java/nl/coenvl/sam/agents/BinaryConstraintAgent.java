@@ -20,9 +20,12 @@
 package nl.coenvl.sam.agents;
 
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Identifiers;
+import nl.coenvl.sam.Mailbox;
 import nl.coenvl.sam.constraints.BinaryConstraint;
 import nl.coenvl.sam.constraints.Constraint;
 import nl.coenvl.sam.exceptions.InvalidPropertyException;
@@ -33,7 +36,7 @@ import nl.coenvl.sam.exceptions.VariableNotSetException;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.solvers.IterativeSolver;
 import nl.coenvl.sam.solvers.SolverRunner;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -47,6 +50,9 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
         implements ConstraintAgent<T, V>, IterativeSolver {
 
     private final UUID address;
+    private final ExperimentContext context;
+    private final SplittableRandom random;
+    private final Mailbox[] neighborMailboxes;
     private final String name;
     private final BinaryConstraint<T, V> myConstraint;
     private final T var1;
@@ -62,13 +68,31 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
             final BinaryConstraint<T, V> constraint,
             final T var1,
             final T var2) {
+        this(ExperimentContext.getDefault(), name, constraint, var1, var2);
+    }
+
+    /**
+     * @param context
+     * @param name
+     * @param var
+     */
+    public BinaryConstraintAgent(final ExperimentContext context,
+            final String name,
+            final BinaryConstraint<T, V> constraint,
+            final T var1,
+            final T var2) {
         super();
         this.name = name;
         this.myConstraint = constraint;
         this.var1 = var1;
         this.var2 = var2;
-        this.address = UUID.randomUUID();
-        MailMan.register(this.address, this);
+        this.address = Identifiers.next();
+        this.context = context;
+        this.random = context.newRandom();
+        constraint.setCompareCounter(context.getCompareCounter());
+        context.getMessageBus().register(this.address, this);
+        this.neighborMailboxes = new Mailbox[] {context.getMessageBus().mailbox(var1.getID()),
+                context.getMessageBus().mailbox(var2.getID())};
     }
 
     /*
@@ -88,7 +112,7 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
      * @see nl.coenvl.sam.Agent#push(nl.coenvl.sam.Message)
      */
     @Override
-    public final synchronized void push(final Message m) {
+    public final void push(final Message m) {
         this.mySolver.push(m);
     }
 
@@ -113,7 +137,7 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
     }
 
     public final void setSolver(final IterativeSolver solver) {
-        this.mySolver = new SolverRunner(solver);
+        this.mySolver = new SolverRunner(solver, this.context);
     }
 
     // @Override
@@ -142,6 +166,26 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
         return this.name;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getContext()
+     */
+    @Override
+    public ExperimentContext getContext() {
+        return this.context;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getRandom()
+     */
+    @Override
+    public SplittableRandom getRandom() {
+        return this.random;
+    }
+
     /**
      * @return
      */
@@ -160,6 +204,16 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
         return this.myConstraint.getVariableIds();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getNeighborMailboxes()
+     */
+    @Override
+    public Mailbox[] getNeighborMailboxes() {
+        return this.neighborMailboxes;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -173,10 +227,10 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
     /*
      * (non-Javadoc)
      *
-     * @see nl.coenvl.sam.agents.Agent#getLocalCostIf(nl.coenvl.sam.variables.AssignmentMap)
+     * @see nl.coenvl.sam.agents.Agent#getLocalCostIf(nl.coenvl.sam.variables.Assignment)
      */
     @Override
-    public double getLocalCostIf(final AssignmentMap<V> valueMap) {
+    public double getLocalCostIf(final Assignment<V> valueMap) {
         return this.myConstraint.getCostIf(this.var1, valueMap) + this.myConstraint.getCostIf(this.var2, valueMap);
     }
 
@@ -215,6 +269,11 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
                 throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
             }
 
+            @Override
+            public V getRandomValue(final SplittableRandom random) {
+                throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
+            }
+
             @Override
             public V getUpperBound() {
                 throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
@@ -302,6 +361,16 @@ public class BinaryConstraintAgent<T extends Variable<V>, V> extends AbstractPro
         return this.mySolver.emptyQueue();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getQueueHighWaterMark()
+     */
+    @Override
+    public int getQueueHighWaterMark() {
+        return this.mySolver == null ? 0 : this.mySolver.getHighWaterMark();
+    }
+
     @Override
     public int compareTo(final Agent<T, V> o) {
         return this.getName().compareTo(o.getName());
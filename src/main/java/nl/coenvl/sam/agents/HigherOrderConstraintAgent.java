@@ -22,9 +22,12 @@ package nl.coenvl.sam.agents;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Identifiers;
+import nl.coenvl.sam.Mailbox;
 import nl.coenvl.sam.constraints.Constraint;
 import nl.coenvl.sam.constraints.HigherOrderConstraint;
 import nl.coenvl.sam.exceptions.InvalidPropertyException;
@@ -35,7 +38,7 @@ import nl.coenvl.sam.exceptions.VariableNotSetException;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.solvers.IterativeSolver;
 import nl.coenvl.sam.solvers.SolverRunner;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -49,21 +52,33 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
         implements ConstraintAgent<T, V>, IterativeSolver {
 
     private final UUID address;
+    private final ExperimentContext context;
+    private final SplittableRandom random;
     private final String name;
     private final HigherOrderConstraint<T, V> myConstraint;
     private final Set<T> variables;
 
     private SolverRunner mySolver;
 
-    public HigherOrderConstraintAgent(final String name,
+    public HigherOrderConstraintAgent(final ExperimentContext context,
+            final String name,
             final HigherOrderConstraint<T, V> constraint,
             final Set<T> vars) {
         super();
         this.name = name;
         this.myConstraint = constraint;
-        this.address = UUID.randomUUID();
+        this.address = Identifiers.next();
         this.variables = vars;
-        MailMan.register(this.address, this);
+        this.context = context;
+        this.random = context.newRandom();
+        constraint.setCompareCounter(context.getCompareCounter());
+        context.getMessageBus().register(this.address, this);
+    }
+
+    public HigherOrderConstraintAgent(final String name,
+            final HigherOrderConstraint<T, V> constraint,
+            final Set<T> vars) {
+        this(ExperimentContext.getDefault(), name, constraint, vars);
     }
 
     /**
@@ -99,7 +114,7 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
      * @see nl.coenvl.sam.Agent#push(nl.coenvl.sam.Message)
      */
     @Override
-    public final synchronized void push(final Message m) {
+    public final void push(final Message m) {
         this.mySolver.push(m);
     }
 
@@ -124,7 +139,7 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
     }
 
     public final void setSolver(final IterativeSolver solver) {
-        this.mySolver = new SolverRunner(solver);
+        this.mySolver = new SolverRunner(solver, this.context);
     }
 
     @Override
@@ -132,6 +147,16 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
         return this.mySolver.emptyQueue();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getQueueHighWaterMark()
+     */
+    @Override
+    public int getQueueHighWaterMark() {
+        return this.mySolver == null ? 0 : this.mySolver.getHighWaterMark();
+    }
+
     @Override
     public T getVariableWithID(final UUID id) {
         for (final T var : this.variables) {
@@ -152,6 +177,26 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
         return this.name;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getContext()
+     */
+    @Override
+    public ExperimentContext getContext() {
+        return this.context;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getRandom()
+     */
+    @Override
+    public SplittableRandom getRandom() {
+        return this.random;
+    }
+
     /**
      * @return
      */
@@ -170,6 +215,22 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
         return this.myConstraint.getVariableIds();
     }
 
+    /**
+     * Resolves the mailboxes on every call, since variables may still be added to the constraint.
+     *
+     * @see nl.coenvl.sam.agents.Agent#getNeighborMailboxes()
+     */
+    @Override
+    public Mailbox[] getNeighborMailboxes() {
+        final Set<UUID> ids = this.myConstraint.getVariableIds();
+        final Mailbox[] mailboxes = new Mailbox[ids.size()];
+        int i = 0;
+        for (final UUID id : ids) {
+            mailboxes[i++] = this.context.getMessageBus().mailbox(id);
+        }
+        return mailboxes;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -187,10 +248,10 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
     /*
      * (non-Javadoc)
      *
-     * @see nl.coenvl.sam.agents.Agent#getLocalCostIf(nl.coenvl.sam.variables.AssignmentMap)
+     * @see nl.coenvl.sam.agents.Agent#getLocalCostIf(nl.coenvl.sam.variables.Assignment)
      */
     @Override
-    public double getLocalCostIf(final AssignmentMap<V> valueMap) {
+    public double getLocalCostIf(final Assignment<V> valueMap) {
         double cost = 0;
         for (final T var : this.variables) {
             cost += this.myConstraint.getCostIf(var, valueMap);
@@ -233,6 +294,11 @@ public class HigherOrderConstraintAgent<T extends Variable<V>, V> extends Abstra
                 throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
             }
 
+            @Override
+            public V getRandomValue(final SplittableRandom random) {
+                throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
+            }
+
             @Override
             public V getUpperBound() {
                 throw new UnsupportedOperationException("Cannot use the variable of a constraint agent");
@@ -20,6 +20,7 @@
  */
 package nl.coenvl.sam.agents;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.solvers.IterativeSolver;
 import nl.coenvl.sam.solvers.RootedIterativeSolverWrapper;
@@ -58,6 +59,19 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
         super(var, name);
     }
 
+    /**
+     * @param context
+     * @param name
+     * @param var
+     */
+    public MultiSolverAgent(final ExperimentContext context,
+            final T var,
+            final String name,
+            final boolean synchronous,
+            final boolean activation) {
+        super(context, var, name, synchronous, activation);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -99,12 +113,23 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
      * @see nl.coenvl.sam.Agent#push(nl.coenvl.sam.Message)
      */
     @Override
-    public final synchronized void push(final Message m) {
+    public final void push(final Message m) {
+        if (this.singleThreaded) {
+            // Without a runner, messages may still arrive from other threads
+            synchronized (this) {
+                this.deliver(m);
+            }
+        } else {
+            this.deliver(m);
+        }
+    }
+
+    private void deliver(final Message m) {
         if (this.initSolver != null) {
-            this.initSolver.push(m);
+            SolverAgent.deliver(this.initSolver, m);
         }
         if (this.iterativeSolver != null) {
-            this.iterativeSolver.push(m);
+            SolverAgent.deliver(this.iterativeSolver, m);
         }
     }
 
@@ -115,10 +140,14 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
      */
     @Override
     public void tick() {
-        if (this.iterativeSolver != null) {
-            this.iterativeSolver.tick();
-        } else {
+        if (this.iterativeSolver == null) {
             // Do nothing
+        } else if (this.singleThreaded) {
+            synchronized (this) {
+                this.iterativeSolver.tick();
+            }
+        } else {
+            this.iterativeSolver.tick();
         }
     }
 
@@ -146,9 +175,9 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
         } else if (this.singleThreaded && this.rootedActivation) {
             this.initSolver = new RootedSolverWrapper<>(this, solver);
         } else if (!this.singleThreaded && !this.rootedActivation) {
-            this.initSolver = new SolverRunner(solver);
+            this.initSolver = new SolverRunner(solver, this.getContext());
         } else {
-            this.initSolver = new SolverRunner(new RootedSolverWrapper<>(this, solver));
+            this.initSolver = new SolverRunner(new RootedSolverWrapper<>(this, solver), this.getContext());
         }
     }
 
@@ -160,9 +189,9 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
         } else if (this.singleThreaded && this.rootedActivation) {
             this.iterativeSolver = new RootedIterativeSolverWrapper<>(this, solver);
         } else if (!this.singleThreaded && !this.rootedActivation) {
-            this.iterativeSolver = new SolverRunner(solver);
+            this.iterativeSolver = new SolverRunner(solver, this.getContext());
         } else {
-            this.iterativeSolver = new SolverRunner(new RootedIterativeSolverWrapper<>(this, solver));
+            this.iterativeSolver = new SolverRunner(new RootedIterativeSolverWrapper<>(this, solver), this.getContext());
         }
     }
 
@@ -175,6 +204,23 @@ public class MultiSolverAgent<T extends Variable<V>, V> extends SolverAgent<T, V
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getQueueHighWaterMark()
+     */
+    @Override
+    public int getQueueHighWaterMark() {
+        int mark = 0;
+        if (this.initSolver instanceof SolverRunner) {
+            mark = ((SolverRunner) this.initSolver).getHighWaterMark();
+        }
+        if (this.iterativeSolver instanceof SolverRunner) {
+            mark = Math.max(mark, ((SolverRunner) this.iterativeSolver).getHighWaterMark());
+        }
+        return mark;
+    }
+
     @Override
     public boolean isFinished() {
         final boolean initSolverFinished = !(this.initSolver instanceof SolverRunner)
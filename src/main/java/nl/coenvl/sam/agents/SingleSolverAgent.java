@@ -20,6 +20,7 @@
  */
 package nl.coenvl.sam.agents;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.solvers.IterativeSolver;
 import nl.coenvl.sam.solvers.Solver;
@@ -47,6 +48,15 @@ public class SingleSolverAgent<T extends Variable<V>, V> extends SolverAgent<T,
         super(var, name);
     }
 
+    /**
+     * @param context
+     * @param name
+     * @param var
+     */
+    public SingleSolverAgent(final ExperimentContext context, final T var, final String name) {
+        super(context, var, name, SolverAgent.MULTI_THREADED, SolverAgent.SIMULTANEOUS_ACTIVATION);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -83,8 +93,15 @@ public class SingleSolverAgent<T extends Variable<V>, V> extends SolverAgent<T,
      * @see nl.coenvl.sam.Agent#push(nl.coenvl.sam.Message)
      */
     @Override
-    public final synchronized void push(final Message m) {
-        this.mySolver.push(m);
+    public final void push(final Message m) {
+        if (this.singleThreaded) {
+            // Without a runner, messages may still arrive from other threads
+            synchronized (this) {
+                SolverAgent.deliver(this.mySolver, m);
+            }
+        } else {
+            SolverAgent.deliver(this.mySolver, m);
+        }
     }
 
     /*
@@ -95,7 +112,13 @@ public class SingleSolverAgent<T extends Variable<V>, V> extends SolverAgent<T,
     @Override
     public void tick() {
         if (this.mySolver instanceof IterativeSolver) {
-            ((IterativeSolver) this.mySolver).tick();
+            if (this.singleThreaded) {
+                synchronized (this) {
+                    ((IterativeSolver) this.mySolver).tick();
+                }
+            } else {
+                ((IterativeSolver) this.mySolver).tick();
+            }
         }
     }
 
@@ -127,7 +150,21 @@ public class SingleSolverAgent<T extends Variable<V>, V> extends SolverAgent<T,
         } else if (this.singleThreaded) {
             this.mySolver = solver;
         } else {
-            this.mySolver = new SolverRunner(solver);
+            this.mySolver = new SolverRunner(solver, this.getContext());
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.agents.Agent#getQueueHighWaterMark()
+     */
+    @Override
+    public int getQueueHighWaterMark() {
+        if (this.mySolver instanceof SolverRunner) {
+            return ((SolverRunner) this.mySolver).getHighWaterMark();
+        } else {
+            return 0;
         }
     }
 
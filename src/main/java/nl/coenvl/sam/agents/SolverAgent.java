@@ -5,8 +5,12 @@
  */
 package nl.coenvl.sam.agents;
 
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.messages.Envelope;
+import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.solvers.IterativeSolver;
 import nl.coenvl.sam.solvers.Solver;
+import nl.coenvl.sam.solvers.SolverRunner;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -42,12 +46,24 @@ public abstract class SolverAgent<T extends Variable<V>, V> extends AbstractAgen
      * @param name
      * @param var
      */
-    protected SolverAgent(final T var, final String name, final boolean synchronous, final boolean activation) {
-        super(var, name);
+    protected SolverAgent(final ExperimentContext context,
+            final T var,
+            final String name,
+            final boolean synchronous,
+            final boolean activation) {
+        super(context, var, name);
         this.singleThreaded = synchronous;
         this.rootedActivation = activation;
     }
 
+    /**
+     * @param name
+     * @param var
+     */
+    protected SolverAgent(final T var, final String name, final boolean synchronous, final boolean activation) {
+        this(ExperimentContext.getDefault(), var, name, synchronous, activation);
+    }
+
     /**
      * @param name
      * @param var
@@ -58,4 +74,21 @@ public abstract class SolverAgent<T extends Variable<V>, V> extends AbstractAgen
 
     public abstract void setSolver(final Solver solver);
 
+    /**
+     * Pushes a message to one of the solvers of this agent. A {@link SolverRunner} keeps an {@link Envelope} as a single
+     * entry in its queue, any other solver receives the messages in it one by one.
+     *
+     * @param solver The solver to push the message to
+     * @param m The message, which may be an envelope
+     */
+    protected static void deliver(final Solver solver, final Message m) {
+        if ((m instanceof Envelope) && !(solver instanceof SolverRunner)) {
+            for (final Message inner : (Envelope) m) {
+                solver.push(inner);
+            }
+        } else {
+            solver.push(m);
+        }
+    }
+
 }
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -49,6 +50,19 @@ public class VariableAgent<T extends DiscreteVariable<V>, V> extends MultiSolver
         this(var, name, SolverAgent.MULTI_THREADED, SolverAgent.SIMULTANEOUS_ACTIVATION);
     }
 
+    public VariableAgent(final ExperimentContext context,
+            final T var,
+            final String name,
+            final boolean synchronous,
+            final boolean activation) {
+        super(context, var, name, synchronous, activation);
+        this.functionAddresses = new HashSet<>();
+    }
+
+    public VariableAgent(final ExperimentContext context, final T var, final String name) {
+        this(context, var, name, SolverAgent.MULTI_THREADED, SolverAgent.SIMULTANEOUS_ACTIVATION);
+    }
+
     public Set<UUID> getFunctionAdresses() {
         return this.functionAddresses;
     }
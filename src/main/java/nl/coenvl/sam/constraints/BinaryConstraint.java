@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
 import nl.coenvl.sam.variables.Variable;
 
@@ -39,9 +40,22 @@ public abstract class BinaryConstraint<T extends Variable<V>, V> implements Cons
 
     protected final T var2;
 
+    protected CompareCounter compareCounter;
+
     public BinaryConstraint(T var1, T var2) {
         this.var1 = var1;
         this.var2 = var2;
+        this.compareCounter = ExperimentContext.getDefault().getCompareCounter();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.constraints.Constraint#setCompareCounter(nl.coenvl.sam.constraints.CompareCounter)
+     */
+    @Override
+    public void setCompareCounter(final CompareCounter counter) {
+        this.compareCounter = counter;
     }
 
     /*
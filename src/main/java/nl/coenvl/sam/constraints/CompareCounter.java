@@ -19,41 +19,51 @@
  */
 package nl.coenvl.sam.constraints;
 
+import java.util.concurrent.atomic.LongAdder;
+
+import nl.coenvl.sam.ExperimentContext;
+
 /**
- * AbstractCostFunction
+ * CompareCounter
+ *
+ * Counts the number of constraint evaluations of an experiment. Every {@link ExperimentContext} has its own counter,
+ * which is handed to the constraints of its agents. The static methods operate on the counter of the default context.
  *
  * @author leeuwencjv
  * @version 0.1
  * @since 3 jul. 2015
  *
  */
-public abstract class CompareCounter {
+public class CompareCounter {
 
-    private static int nComparisons = 0;
+    private final LongAdder nComparisons;
 
-    // public static Set<String> loggedComparisons = new LinkedHashSet<>();
-    // public static int numComparisons = 0;
+    public CompareCounter() {
+        this.nComparisons = new LongAdder();
+    }
 
-    // public static void log(final Variable<?> var1, final Object value1, final Variable<?> var2, final Object value2)
-    // {
-    // // CompareCounter.loggedComparisons.add(String.format("%s%s%d%d", var1.getName(), var2.getName(), value1,
-    // // value2));
-    // CompareCounter.loggedComparisons.add(MailMan.stateString(var1, value1, var2, value2));
-    // CompareCounter.numComparisons++;
-    // }
+    public void increment() {
+        this.nComparisons.increment();
+    }
+
+    public int getCount() {
+        return this.nComparisons.intValue();
+    }
+
+    public void clear() {
+        this.nComparisons.reset();
+    }
 
     public static void compare() {
-        CompareCounter.nComparisons++;
+        ExperimentContext.getDefault().getCompareCounter().increment();
     }
 
     public static int getComparisons() {
-        return CompareCounter.nComparisons;
+        return ExperimentContext.getDefault().getCompareCounter().getCount();
     }
 
     public static void reset() {
-        CompareCounter.nComparisons = 0;
-        // CompareCounter.loggedComparisons.clear();
-        // CompareCounter.numComparisons = 0;
+        ExperimentContext.getDefault().getCompareCounter().clear();
     }
 
-}
\ No newline at end of file
+}
@@ -22,7 +22,7 @@ package nl.coenvl.sam.constraints;
 import java.util.Set;
 import java.util.UUID;
 
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -62,7 +62,7 @@ public interface Constraint<T extends Variable<V>, V> {
      * @return A double indicating the cost of this constraint in the case that the variables are set as in the values
      *         Map.
      */
-    public double getCostIf(T variable, AssignmentMap<V> valueMap);
+    public double getCostIf(T variable, Assignment<V> valueMap);
 
     /**
      * This function is to be used only from OUTSIDE of the simulation. It does not increase the CompareCounter, and it
@@ -72,4 +72,24 @@ public interface Constraint<T extends Variable<V>, V> {
      */
     public double getExternalCost();
 
+    /**
+     * Sets the counter that is increased on every evaluation of this constraint. Agents call this with the counter of
+     * their experiment when the constraint is added to them.
+     *
+     * @param counter
+     *            The CompareCounter of the experiment this constraint is part of
+     */
+    public void setCompareCounter(CompareCounter counter);
+
+    /**
+     * Returns a number that increases whenever the set of involved variables changes, so that agents that cached the
+     * ids of the variables know when to resolve them again. Constraints of which the variables are fixed keep the
+     * default of zero.
+     *
+     * @return The version of the set of variables of this constraint
+     */
+    public default int getVersion() {
+        return 0;
+    }
+
 }
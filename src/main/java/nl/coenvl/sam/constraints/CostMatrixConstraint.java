@@ -19,12 +19,9 @@
  */
 package nl.coenvl.sam.constraints;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import nl.coenvl.sam.exceptions.CostMatrixRangeException;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -73,13 +70,13 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
     @Override
     public double getCost(final DiscreteVariable<V> targetVariable) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
         // CompareCounter.log(this.var1, this.var1.getValue(), this.var2, this.var2.getValue());
 
         if (targetVariable.equals(this.var1)) {
-            return this.costMatrix1.getCost(this.var1.getValue(), this.var2.getValue());
+            return this.costMatrix1.getCostAt(this.var1.getValueIndex(), this.var2.getValueIndex());
         } else if (targetVariable.equals(this.var2)) {
-            return this.costMatrix2.getCost(this.var2.getValue(), this.var1.getValue());
+            return this.costMatrix2.getCostAt(this.var2.getValueIndex(), this.var1.getValueIndex());
         } else {
             throw new VariableNotInvolvedException("Invalid target variable " + targetVariable);
         }
@@ -91,9 +88,9 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
      * @see nl.coenvl.sam.constraints.Constraint#getCostIf(nl.coenvl.sam.variables. Variable, java.util.Map)
      */
     @Override
-    public double getCostIf(final DiscreteVariable<V> targetVariable, final AssignmentMap<V> values) {
+    public double getCostIf(final DiscreteVariable<V> targetVariable, final Assignment<V> values) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
 
         // Per default if the valueMap does not contain both values, the cost is zero
         // if ((values == null) || !values.containsAssignment(targetVariable)) { // ||
@@ -130,15 +127,17 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
 
     @Override
     public double getExternalCost() {
-        return this.costMatrix1.getCost(this.var1.getValue(), this.var2.getValue())
-                + this.costMatrix2.getCost(this.var2.getValue(), this.var1.getValue());
+        final int index1 = this.var1.getValueIndex();
+        final int index2 = this.var2.getValueIndex();
+        return this.costMatrix1.getCostAt(index1, index2) + this.costMatrix2.getCostAt(index2, index1);
     }
 
     /**
      * CostMatrix
      *
-     * A cost matrix instead of storing the raw double array. This is to avoid memory issues when for instance the
-     * variables have values 100 through 110, or if they have enum values.
+     * The costs for every pair of values of two variables, stored as an array that is indexed by the indices of the
+     * values in the domains of the variables. This way the variables can have any values, for instance 100 through 110,
+     * or enum values, without a lookup by value when the cost is computed.
      *
      * @author leeuwencjv
      * @version 0.1
@@ -146,7 +145,9 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
      */
     protected final class CostMatrix {
 
-        private final Map<V, Map<V, Double>> matrix;
+        private final DiscreteVariable<V> fromVariable;
+        private final DiscreteVariable<V> toVariable;
+        private final double[][] matrix;
 
         /**
          * Create the cost matrix for two variables based on the given array of arrays of doubles. Checks to see if the
@@ -159,29 +160,22 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
         public CostMatrix(final DiscreteVariable<V> fromVariable,
                 final DiscreteVariable<V> toVariable,
                 final double[][] costs) {
-            this.matrix = new HashMap<>();
+            this.fromVariable = fromVariable;
+            this.toVariable = toVariable;
 
             if (costs.length != fromVariable.getRange()) {
                 throw new CostMatrixRangeException(
                         "Cost matrix's first dimension does not match first variable's range");
             }
 
-            int idx1 = 0, idx2 = 0;
-            for (final V val1 : fromVariable) {
+            this.matrix = new double[costs.length][];
+            for (int idx1 = 0; idx1 < costs.length; idx1++) {
                 if (costs[idx1].length != toVariable.getRange()) {
                     throw new CostMatrixRangeException(
                             "Cost matrix array " + idx1 + " length does not match second variable's range");
                 }
 
-                final Map<V, Double> xMap = new HashMap<>();
-
-                idx2 = 0;
-                for (final V val2 : toVariable) {
-                    xMap.put(val2, costs[idx1][idx2++]);
-                }
-
-                this.matrix.put(val1, xMap);
-                idx1++;
+                this.matrix[idx1] = costs[idx1].clone();
             }
         }
 
@@ -190,11 +184,12 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
          * @return
          */
         public double meanValueFor(final V value1) {
+            final double[] row = this.matrix[this.fromIndex(value1)];
             double sum = 0;
-            for (final Double val : this.matrix.get(value1).values()) {
+            for (final double val : row) {
                 sum += val;
             }
-            return sum / this.matrix.get(value1).size();
+            return sum / row.length;
         }
 
         /**
@@ -204,35 +199,40 @@ public class CostMatrixConstraint<V> extends BinaryConstraint<DiscreteVariable<V
          * @return
          */
         public CostMatrix transpose() {
-            final CostMatrix other = new CostMatrix();
-            for (final V from : this.matrix.keySet()) {
-                for (final V to : this.matrix.get(from).keySet()) {
-                    if (!other.matrix.containsKey(to)) {
-                        other.matrix.put(to, new HashMap<V, Double>());
-                    }
-                    other.matrix.get(to).put(from, this.getCost(from, to));
+            final double[][] transposed = new double[this.toVariable.getRange()][this.fromVariable.getRange()];
+            for (int from = 0; from < this.matrix.length; from++) {
+                for (int to = 0; to < this.matrix[from].length; to++) {
+                    transposed[to][from] = this.matrix[from][to];
                 }
             }
-            return other;
+            return new CostMatrix(this.toVariable, this.fromVariable, transposed);
+        }
+
+        public double getCost(final V value1, final V value2) {
+            final int idx1 = this.fromIndex(value1);
+            final int idx2 = this.toVariable.indexOf(value2);
+            if (idx2 < 0) {
+                throw new CostMatrixRangeException("Value for variable 2 out of range (" + value2 + ")");
+            }
+
+            return this.matrix[idx1][idx2];
         }
 
         /**
-         * Private constructor for transpose function.
+         * @param index1 The index of the value of the first variable
+         * @param index2 The index of the value of the second variable
+         * @return The cost of the pair of values
          */
-        private CostMatrix() {
-            this.matrix = new HashMap<>();
+        public double getCostAt(final int index1, final int index2) {
+            return this.matrix[index1][index2];
         }
 
-        public double getCost(final V value1, final V value2) {
-            if (!this.matrix.containsKey(value1)) {
+        private int fromIndex(final V value1) {
+            final int idx1 = this.fromVariable.indexOf(value1);
+            if (idx1 < 0) {
                 throw new CostMatrixRangeException("Value for variable 1 out of range (" + value1 + ")");
             }
-
-            if (!this.matrix.get(value1).containsKey(value2)) {
-                throw new CostMatrixRangeException("Value for variable 2 out of range (" + value2 + ")");
-            }
-
-            return this.matrix.get(value1).get(value2);
+            return idx1;
         }
 
     }
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
 import nl.coenvl.sam.variables.Variable;
 
@@ -24,8 +25,23 @@ public abstract class HigherOrderConstraint<T extends Variable<V>, V> implements
 
     protected final Map<UUID, T> constrainedVariables;
 
+    protected CompareCounter compareCounter;
+
+    private volatile int version;
+
     public HigherOrderConstraint() {
         this.constrainedVariables = new HashMap<>();
+        this.compareCounter = ExperimentContext.getDefault().getCompareCounter();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.constraints.Constraint#setCompareCounter(nl.coenvl.sam.constraints.CompareCounter)
+     */
+    @Override
+    public void setCompareCounter(final CompareCounter counter) {
+        this.compareCounter = counter;
     }
 
     @Override
@@ -34,11 +50,25 @@ public abstract class HigherOrderConstraint<T extends Variable<V>, V> implements
     }
 
     public void addVariable(T var) {
-        this.constrainedVariables.put(var.getID(), var);
+        if (this.constrainedVariables.put(var.getID(), var) == null) {
+            this.version++;
+        }
     }
 
     public void removeVariable(T var) {
-        this.constrainedVariables.remove(var.getID());
+        if (this.constrainedVariables.remove(var.getID()) != null) {
+            this.version++;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.constraints.Constraint#getVersion()
+     */
+    @Override
+    public int getVersion() {
+        return this.version;
     }
 
     public boolean containsVariable(T var) {
@@ -19,7 +19,7 @@
  */
 package nl.coenvl.sam.constraints;
 
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -54,7 +54,7 @@ public class InequalityConstraint<T extends Variable<V>, V> extends BinaryConstr
     @Override
     public double getCost(final T targetVariable) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
         // CompareCounter.log(this.var1, this.var1.getValue(), this.var2, this.var2.getValue());
 
         return this.costOf(this.var1.getValue(), this.var2.getValue());
@@ -66,9 +66,9 @@ public class InequalityConstraint<T extends Variable<V>, V> extends BinaryConstr
      * @see nl.coenvl.sam.constraints.Constraint#getCostIf(nl.coenvl.sam.variables. Variable, java.util.Map)
      */
     @Override
-    public double getCostIf(final T targetVariable, final AssignmentMap<V> values) {
+    public double getCostIf(final T targetVariable, final Assignment<V> values) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
         // CompareCounter.log(this.var1, values.getAssignment(this.var1), this.var2, values.getAssignment(this.var2));
 
         if (values.containsAssignment(this.var1) && values.containsAssignment(this.var2)) {
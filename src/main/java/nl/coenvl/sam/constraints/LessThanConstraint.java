@@ -9,7 +9,7 @@ import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
 
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -49,7 +49,7 @@ public class LessThanConstraint<T extends Variable<V>, V extends Number> extends
     @Override
     public double getCost(T targetVariable) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
 
         if (!this.dynamicVariable.isSet()) {
             // If variable1 is not set, return 0; if variable2 let exception be thrown
@@ -64,12 +64,12 @@ public class LessThanConstraint<T extends Variable<V>, V extends Number> extends
      * (non-Javadoc)
      *
      * @see nl.coenvl.sam.constraints.Constraint#getCostIf(nl.coenvl.sam.variables.Variable,
-     * nl.coenvl.sam.variables.AssignmentMap)
+     * nl.coenvl.sam.variables.Assignment)
      */
     @Override
-    public double getCostIf(T targetVariable, AssignmentMap<V> valueMap) {
+    public double getCostIf(T targetVariable, Assignment<V> valueMap) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
 
         if (!valueMap.containsAssignment(this.dynamicVariable)) {
             // If variable1 is not set, return 0; if variable2 let exception be thrown
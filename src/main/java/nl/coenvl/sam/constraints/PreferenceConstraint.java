@@ -8,7 +8,7 @@ package nl.coenvl.sam.constraints;
 import java.util.HashMap;
 import java.util.Map;
 
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -53,7 +53,7 @@ public class PreferenceConstraint<T extends DiscreteVariable<V>, V> extends Unar
     @Override
     public double getCost(final T targetVariable) {
         super.assertVariableIsInvolved(targetVariable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
 
         return this.getExternalCost();
     }
@@ -62,12 +62,12 @@ public class PreferenceConstraint<T extends DiscreteVariable<V>, V> extends Unar
      * (non-Javadoc)
      *
      * @see nl.coenvl.sam.constraints.Constraint#getCostIf(nl.coenvl.sam.variables.Variable,
-     * nl.coenvl.sam.variables.AssignmentMap)
+     * nl.coenvl.sam.variables.Assignment)
      */
     @Override
-    public double getCostIf(final T variable, final AssignmentMap<V> valueMap) {
+    public double getCostIf(final T variable, final Assignment<V> valueMap) {
         super.assertVariableIsInvolved(variable);
-        CompareCounter.compare();
+        this.compareCounter.increment();
 
         if (valueMap.containsAssignment(variable)) {
             return this.costs.get(valueMap.getAssignment(variable));
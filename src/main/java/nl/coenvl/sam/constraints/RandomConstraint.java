@@ -19,6 +19,8 @@
  */
 package nl.coenvl.sam.constraints;
 
+import java.util.SplittableRandom;
+
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -33,26 +35,43 @@ public class RandomConstraint<V> extends CostMatrixConstraint<V> {
     public static final double MAX_COST = 1;
 
     public RandomConstraint(DiscreteVariable<V> var1, DiscreteVariable<V> var2) {
+        this(var1, var2, new SplittableRandom());
+    }
+
+    /**
+     * Creates a random constraint with costs that are drawn from the given random stream, for instance
+     * {@link nl.coenvl.sam.ExperimentContext#newRandom()}, to create the same problem in every run.
+     */
+    public RandomConstraint(DiscreteVariable<V> var1, DiscreteVariable<V> var2, SplittableRandom random) {
         super(var1,
                 var2,
-                RandomConstraint.randomMatrix(var1.getRange(), var2.getRange()),
-                RandomConstraint.randomMatrix(var2.getRange(), var1.getRange()));
+                RandomConstraint.randomMatrix(var1.getRange(), var2.getRange(), random),
+                RandomConstraint.randomMatrix(var2.getRange(), var1.getRange(), random));
     }
 
     /**
-     * Create a matrix of random doubles of size x by y. Each element is generated by a call to Math.random, multiplied
-     * by the MAX_COST variable. Therefore the domain of the random values is [0,MAX_COST).
+     * Create a matrix of random doubles of size x by y. Each element is a random double multiplied by the MAX_COST
+     * variable. Therefore the domain of the random values is [0,MAX_COST).
      *
      * @param x
      * @param y
      * @return
      */
     public static double[][] randomMatrix(int x, int y) {
+        return RandomConstraint.randomMatrix(x, y, new SplittableRandom());
+    }
+
+    /**
+     * Create a matrix of random doubles of size x by y, drawn from the given random stream.
+     *
+     * @see #randomMatrix(int, int)
+     */
+    public static double[][] randomMatrix(int x, int y, SplittableRandom random) {
         double[][] costs = new double[x][y];
 
         for (int i = 0; i < x; i++) {
             for (int j = 0; j < y; j++) {
-                costs[i][j] = Math.random() * RandomConstraint.MAX_COST;
+                costs[i][j] = random.nextDouble() * RandomConstraint.MAX_COST;
             }
         }
 
@@ -19,6 +19,8 @@
  */
 package nl.coenvl.sam.constraints;
 
+import java.util.SplittableRandom;
+
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -35,10 +37,17 @@ public class SemiRandomConstraint<V> extends CostMatrixConstraint<V> {
     public static final int MAX_COST = 100;
 
     public SemiRandomConstraint(DiscreteVariable<V> var1, DiscreteVariable<V> var2) {
+        this(var1, var2, new SplittableRandom());
+    }
+
+    /**
+     * Creates a semi random constraint with costs that are drawn from the given random stream.
+     */
+    public SemiRandomConstraint(DiscreteVariable<V> var1, DiscreteVariable<V> var2, SplittableRandom random) {
         super(var1,
                 var2,
-                SemiRandomConstraint.randomMatrix(var1.getRange(), var2.getRange()),
-                SemiRandomConstraint.randomMatrix(var2.getRange(), var1.getRange()));
+                SemiRandomConstraint.randomMatrix(var1.getRange(), var2.getRange(), random),
+                SemiRandomConstraint.randomMatrix(var2.getRange(), var1.getRange(), random));
     }
 
     /**
@@ -48,13 +57,13 @@ public class SemiRandomConstraint<V> extends CostMatrixConstraint<V> {
      * @param v1
      * @return
      */
-    private static double[][] randomMatrix(int x, int y) {
+    private static double[][] randomMatrix(int x, int y, SplittableRandom random) {
         double[][] costs = new double[x][y];
 
         for (int i = 0; i < x; i++) {
             for (int j = 0; j < y; j++) {
-                if (Math.random() > SemiRandomConstraint.COST_ZERO_PROB) {
-                    costs[i][j] = Math.random() * SemiRandomConstraint.MAX_COST;
+                if (random.nextDouble() > SemiRandomConstraint.COST_ZERO_PROB) {
+                    costs[i][j] = random.nextDouble() * SemiRandomConstraint.MAX_COST;
                 }
             }
         }
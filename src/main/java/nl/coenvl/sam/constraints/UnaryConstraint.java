@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.ExperimentContext;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
 import nl.coenvl.sam.variables.Variable;
 
@@ -37,8 +38,21 @@ public abstract class UnaryConstraint<T extends Variable<V>, V> implements Const
 
     protected final T var;
 
+    protected CompareCounter compareCounter;
+
     public UnaryConstraint(final T var) {
         this.var = var;
+        this.compareCounter = ExperimentContext.getDefault().getCompareCounter();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.constraints.Constraint#setCompareCounter(nl.coenvl.sam.constraints.CompareCounter)
+     */
+    @Override
+    public void setCompareCounter(final CompareCounter counter) {
+        this.compareCounter = counter;
     }
 
     /*
@@ -0,0 +1,148 @@
+/**
+ * File BulkSynchronousEngine.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.solvers.IterativeSolver;
+
+/**
+ * BulkSynchronousEngine
+ *
+ * Runs iterative solvers in rounds, as an alternative to calling {@link IterativeSolver#tick()} on every agent from
+ * the outside. A round consists of two phases, separated by a barrier:
+ *
+ * 1. All agents tick in parallel on a fork-join pool. The messages they send are held by the {@link MessageBus}, which
+ * runs in envelope mode, so no agent sees a message of the current round while it is still ticking.
+ *
+ * 2. The held messages are flushed to their receivers, in a fixed order per receiver, and the engine waits until every
+ * receiver has handled them. Messages that are sent while handling are held for the next round.
+ *
+ * Every agent therefore sees exactly the messages of the previous round, regardless of the number of threads. The
+ * messages are ordered by the index of the mailbox of their sender, which follows the order in which the agents and
+ * their neighbors were created, so the order is the same in every run that builds the same agents in the same order.
+ * Any randomness in the solvers themselves is not controlled by the engine.
+ *
+ * The engine uses the bus of the context, which it switches to envelope mode. No other party should flush the bus
+ * while the engine runs.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class BulkSynchronousEngine {
+
+    private final MessageBus bus;
+    private final List<IterativeSolver> agents;
+    private final ForkJoinPool pool;
+    private int round;
+
+    /**
+     * Creates an engine that runs the agents on the common fork-join pool.
+     */
+    public BulkSynchronousEngine(final ExperimentContext context, final Collection<? extends IterativeSolver> agents) {
+        this(context, agents, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param context The context of the agents, whose bus is used to exchange the messages
+     * @param agents The agents to run, typically single threaded since the engine provides the parallelism
+     * @param pool The pool to tick the agents on, which is not shut down by the engine
+     */
+    public BulkSynchronousEngine(final ExperimentContext context,
+            final Collection<? extends IterativeSolver> agents,
+            final ForkJoinPool pool) {
+        this.bus = context.getMessageBus();
+        this.agents = new ArrayList<>(agents);
+        this.pool = pool;
+        this.round = 0;
+    }
+
+    /**
+     * Initializes all agents in parallel, and delivers the messages they sent during initialization.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for the agents
+     */
+    public void init() throws InterruptedException {
+        this.bus.setEnvelopeMode(true);
+        this.bus.setDeliveryOrder(Comparator.comparingInt(this::senderIndex));
+        this.round = 0;
+        this.forAll(IterativeSolver::init);
+        this.exchange();
+    }
+
+    /**
+     * Ticks all agents once, and delivers the messages they sent.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for the agents
+     */
+    public void round() throws InterruptedException {
+        this.forAll(IterativeSolver::tick);
+        this.exchange();
+        this.round++;
+    }
+
+    /**
+     * Runs the given number of rounds.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for the agents
+     */
+    public void run(final int rounds) throws InterruptedException {
+        for (int i = 0; i < rounds; i++) {
+            this.round();
+        }
+    }
+
+    /**
+     * @return The number of rounds that were completed since {@link #init()}
+     */
+    public int getRound() {
+        return this.round;
+    }
+
+    /**
+     * The key that orders the held messages by sender. The sort is stable, so the messages of a single sender stay in
+     * the order in which they were sent.
+     */
+    private int senderIndex(final Message m) {
+        return m.getSource() == null ? -1 : this.bus.mailbox(m.getSource()).getIndex();
+    }
+
+    private void forAll(final Consumer<IterativeSolver> action) {
+        // The join is the barrier at the end of the compute phase
+        this.pool.submit(() -> this.agents.parallelStream().forEach(action)).join();
+    }
+
+    private void exchange() throws InterruptedException {
+        this.bus.flush();
+        // Only multi threaded receivers may still be handling their messages
+        this.bus.awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * File ConvergenceListener.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.engine;
+
+/**
+ * ConvergenceListener
+ *
+ * Receives the samples of an {@link ExperimentRunner} while the experiment runs, for instance to stop it as soon as
+ * the cost no longer improves.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+@FunctionalInterface
+public interface ConvergenceListener {
+
+    /**
+     * Called after every sample that the runner takes.
+     *
+     * @param iteration The number of iterations that were completed
+     * @param cost The global cost after the iteration
+     * @param messages The total number of messages that were delivered so far
+     * @param evaluations The total number of constraint evaluations so far
+     * @return true to continue the experiment, false to stop it after this sample
+     */
+    public boolean sample(int iteration, double cost, long messages, long evaluations);
+
+}
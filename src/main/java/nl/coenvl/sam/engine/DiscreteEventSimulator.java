@@ -0,0 +1,251 @@
+/**
+ * File DiscreteEventSimulator.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.TerminationDetector;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.transport.Transport;
+
+/**
+ * DiscreteEventSimulator
+ *
+ * Runs asynchronous solvers on a single thread, in virtual time. The simulator is installed as the {@link Transport}
+ * of a bus, and instead of handing a message to its receiver it schedules the delivery at the current virtual time
+ * plus the latency that the {@link LatencyModel} gives for the message. {@link #run()} then delivers the messages in
+ * the order of their delivery time, advancing the clock to the time of every delivery. The messages that a receiver
+ * sends while handling one are scheduled from the time of that delivery.
+ *
+ * Handling a message takes no virtual time, so the time at which the last message is delivered is the simulated
+ * completion time of the experiment. Messages with the same delivery time are delivered in the order in which they
+ * were sent, so with a deterministic latency model, seeded solvers and fixed addresses, every run is the same. By
+ * default the links are FIFO, as with TCP: a message is never delivered before an earlier message from the same
+ * source to the same receiver, even if its latency is shorter.
+ *
+ * All agents must be single threaded, since the simulator calls them directly from the thread that runs it.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class DiscreteEventSimulator implements Transport {
+
+    private static final class Event implements Comparable<Event> {
+
+        final double time;
+        final long sequence;
+        final Mailbox target;
+        final Message message;
+
+        Event(final double time, final long sequence, final Mailbox target, final Message message) {
+            this.time = time;
+            this.sequence = sequence;
+            this.target = target;
+            this.message = message;
+        }
+
+        @Override
+        public int compareTo(final Event o) {
+            final int c = Double.compare(this.time, o.time);
+            return c != 0 ? c : Long.compare(this.sequence, o.sequence);
+        }
+
+    }
+
+    private static final class Link {
+
+        final UUID source;
+        final Mailbox target;
+
+        Link(final UUID source, final Mailbox target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Link)) {
+                return false;
+            }
+            final Link other = (Link) obj;
+            return Objects.equals(this.source, other.source) && (this.target == other.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * Objects.hashCode(this.source)) + System.identityHashCode(this.target);
+        }
+
+    }
+
+    private final TerminationDetector termination;
+    private final LatencyModel latencyModel;
+    private final PriorityQueue<Event> events;
+    private final Map<Link, Double> lastDelivery;
+
+    private boolean fifoLinks;
+    private double now;
+    private long sequence;
+    private long delivered;
+
+    /**
+     * Creates a simulator for the given bus. It only takes effect when it is set as the transport of the bus.
+     *
+     * @param bus The bus of the experiment
+     * @param latencyModel The model that determines the latency of every message
+     */
+    public DiscreteEventSimulator(final MessageBus bus, final LatencyModel latencyModel) {
+        this.termination = bus.getTerminationDetector();
+        this.latencyModel = latencyModel;
+        this.events = new PriorityQueue<>();
+        this.lastDelivery = new HashMap<>();
+        this.fifoLinks = true;
+        this.now = 0;
+        this.sequence = 0;
+        this.delivered = 0;
+    }
+
+    /**
+     * Sets whether messages on the same link are delivered in the order in which they were sent, true by default.
+     */
+    public void setFifoLinks(final boolean fifo) {
+        this.fifoLinks = fifo;
+        this.lastDelivery.clear();
+    }
+
+    /**
+     * Schedules the delivery of the message. It is accepted as long as the mailbox has an owner.
+     *
+     * @see nl.coenvl.sam.transport.Transport#deliver(nl.coenvl.sam.Mailbox, nl.coenvl.sam.messages.Message)
+     */
+    @Override
+    public boolean deliver(final Mailbox target, final Message m) {
+        if (target.getOwner() == null) {
+            return false;
+        }
+
+        final double latency = this.latencyModel.latency(m.getSource(), target, m);
+        if (!(latency >= 0)) {
+            throw new IllegalArgumentException("The latency of a message must be a non-negative number");
+        }
+
+        double time = this.now + latency;
+        if (this.fifoLinks) {
+            final Link link = new Link(m.getSource(), target);
+            final Double last = this.lastDelivery.get(link);
+            if ((last != null) && (last > time)) {
+                time = last;
+            }
+            this.lastDelivery.put(link, time);
+        }
+
+        // The message counts as outstanding until it is delivered
+        this.termination.begin();
+        this.events.add(new Event(time, this.sequence++, target, m));
+        return true;
+    }
+
+    /**
+     * Delivers the next message, and advances the clock to its delivery time.
+     *
+     * @return false if there was no message to deliver
+     */
+    public boolean step() {
+        final Event e = this.events.poll();
+        if (e == null) {
+            return false;
+        }
+
+        this.now = e.time;
+        try {
+            final Agent<?, ?> owner = e.target.getOwner();
+            if (owner != null) {
+                owner.push(e.message);
+                this.delivered++;
+            }
+        } finally {
+            this.termination.end();
+        }
+        return true;
+    }
+
+    /**
+     * Delivers messages until there are none left.
+     *
+     * @return The virtual time of the last delivery, the simulated completion time
+     */
+    public double run() {
+        while (this.step()) {
+            // Keep going
+        }
+        return this.now;
+    }
+
+    /**
+     * Delivers all messages that are due before or at the given virtual time, and then advances the clock to it.
+     */
+    public void runUntil(final double time) {
+        while (!this.events.isEmpty() && (this.events.peek().time <= time)) {
+            this.step();
+        }
+        this.now = Math.max(this.now, time);
+    }
+
+    /**
+     * @return The current virtual time
+     */
+    public double getTime() {
+        return this.now;
+    }
+
+    /**
+     * @return The number of messages that are scheduled but not delivered yet
+     */
+    public int getPendingMessages() {
+        return this.events.size();
+    }
+
+    /**
+     * @return The number of messages that were delivered by the simulator
+     */
+    public long getDeliveredMessages() {
+        return this.delivered;
+    }
+
+    /**
+     * Drops all scheduled messages, and resets the clock.
+     */
+    @Override
+    public void close() {
+        this.termination.end(this.events.size());
+        this.events.clear();
+        this.lastDelivery.clear();
+        this.now = 0;
+    }
+
+}
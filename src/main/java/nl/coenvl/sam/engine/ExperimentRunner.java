@@ -0,0 +1,268 @@
+/**
+ * File ExperimentRunner.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.MessageStatistics;
+import nl.coenvl.sam.constraints.CompareCounter;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.solvers.IterativeSolver;
+
+/**
+ * ExperimentRunner
+ *
+ * Runs a complete experiment with iterative solvers inside the JVM, and returns its results in a single call. This
+ * replaces a driver that ticks the agents and reads their costs one by one from outside of Java, for which the calls
+ * across the bridge would take more time than the solvers themselves.
+ *
+ * The agents are run by a {@link BulkSynchronousEngine}, one round per iteration, until the iteration budget or the
+ * time budget is used up, or until the {@link ConvergenceListener} stops the experiment. Every sampling interval the
+ * global cost, the number of delivered messages and the number of constraint evaluations are recorded in primitive
+ * arrays, which are returned as a {@link Result}.
+ *
+ * The global cost is the sum of the external costs of the given constraints, which does not count as constraint
+ * evaluations.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class ExperimentRunner {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final BulkSynchronousEngine engine;
+    private final MessageStatistics statistics;
+    private final CompareCounter compareCounter;
+    private final List<Constraint<?, ?>> constraints;
+
+    private int maxIterations;
+    private long timeLimitNanos;
+    private int sampleInterval;
+    private ConvergenceListener listener;
+
+    /**
+     * Creates a runner that runs the agents on the common fork-join pool.
+     */
+    public ExperimentRunner(final ExperimentContext context,
+            final Collection<? extends IterativeSolver> agents,
+            final Collection<? extends Constraint<?, ?>> constraints) {
+        this(context, agents, constraints, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param context The context of the agents
+     * @param agents The agents to run
+     * @param constraints The constraints of the problem, which make up the global cost
+     * @param pool The pool to run the agents on
+     */
+    public ExperimentRunner(final ExperimentContext context,
+            final Collection<? extends IterativeSolver> agents,
+            final Collection<? extends Constraint<?, ?>> constraints,
+            final ForkJoinPool pool) {
+        this.engine = new BulkSynchronousEngine(context, agents, pool);
+        this.statistics = context.getMessageBus().getStatistics();
+        this.compareCounter = context.getCompareCounter();
+        this.constraints = new ArrayList<>(constraints);
+        this.maxIterations = Integer.MAX_VALUE;
+        this.timeLimitNanos = Long.MAX_VALUE;
+        this.sampleInterval = 1;
+        this.listener = null;
+    }
+
+    /**
+     * Sets the maximum number of iterations of the experiment. There is no maximum by default, so either this or the
+     * time limit should be set.
+     */
+    public void setMaxIterations(final int maxIterations) {
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("The number of iterations may not be negative");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets the wall clock time after which the experiment stops. The iteration that is running when the time is up is
+     * completed, and sampled.
+     */
+    public void setTimeLimit(final long time, final TimeUnit unit) {
+        this.timeLimitNanos = unit.toNanos(time);
+    }
+
+    /**
+     * Sets the number of iterations between two samples, 1 by default. The state after initialization and the final
+     * state are always sampled.
+     */
+    public void setSampleInterval(final int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The sample interval must be positive");
+        }
+        this.sampleInterval = interval;
+    }
+
+    public void setConvergenceListener(final ConvergenceListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Initializes the agents and runs the experiment.
+     *
+     * @return The samples that were taken
+     * @throws InterruptedException if the thread is interrupted while the agents run
+     */
+    public Result run() throws InterruptedException {
+        final long start = System.nanoTime();
+        final Result result = new Result(this.maxIterations == Integer.MAX_VALUE ? ExperimentRunner.INITIAL_CAPACITY
+                : Math.min((this.maxIterations / this.sampleInterval) + 2, 1 << 20));
+
+        this.engine.init();
+        boolean proceed = this.sample(result, 0, start);
+
+        int iteration = 0;
+        while (proceed && (iteration < this.maxIterations) && ((System.nanoTime() - start) < this.timeLimitNanos)) {
+            this.engine.round();
+            iteration++;
+            if ((iteration % this.sampleInterval) == 0) {
+                proceed = this.sample(result, iteration, start);
+            }
+        }
+
+        if ((iteration % this.sampleInterval) != 0) {
+            this.sample(result, iteration, start);
+        }
+
+        result.trim();
+        return result;
+    }
+
+    private boolean sample(final Result result, final int iteration, final long start) {
+        double cost = 0;
+        for (final Constraint<?, ?> c : this.constraints) {
+            cost += c.getExternalCost();
+        }
+        final long messages = this.statistics.getTotalDelivered();
+        final long evaluations = this.compareCounter.getCount();
+
+        result.add(iteration, System.nanoTime() - start, cost, messages, evaluations);
+        return (this.listener == null) || this.listener.sample(iteration, cost, messages, evaluations);
+    }
+
+    /**
+     * Result
+     *
+     * The samples of an experiment, as arrays that all have one element per sample.
+     */
+    public static final class Result {
+
+        private int size;
+        private int[] iterations;
+        private long[] times;
+        private double[] costs;
+        private long[] messages;
+        private long[] evaluations;
+
+        Result(final int capacity) {
+            this.size = 0;
+            this.iterations = new int[capacity];
+            this.times = new long[capacity];
+            this.costs = new double[capacity];
+            this.messages = new long[capacity];
+            this.evaluations = new long[capacity];
+        }
+
+        void add(final int iteration, final long time, final double cost, final long msgs, final long evals) {
+            if (this.size == this.iterations.length) {
+                this.resize(this.size * 2);
+            }
+            this.iterations[this.size] = iteration;
+            this.times[this.size] = time;
+            this.costs[this.size] = cost;
+            this.messages[this.size] = msgs;
+            this.evaluations[this.size] = evals;
+            this.size++;
+        }
+
+        void trim() {
+            if (this.size < this.iterations.length) {
+                this.resize(this.size);
+            }
+        }
+
+        private void resize(final int capacity) {
+            this.iterations = Arrays.copyOf(this.iterations, capacity);
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.costs = Arrays.copyOf(this.costs, capacity);
+            this.messages = Arrays.copyOf(this.messages, capacity);
+            this.evaluations = Arrays.copyOf(this.evaluations, capacity);
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * @return The iteration of every sample, 0 being the state after initialization
+         */
+        public int[] getIterations() {
+            return this.iterations;
+        }
+
+        /**
+         * @return The wall clock time in nanoseconds since the start of the experiment, for every sample
+         */
+        public long[] getTimes() {
+            return this.times;
+        }
+
+        public double[] getCosts() {
+            return this.costs;
+        }
+
+        /**
+         * @return The total number of delivered messages at every sample
+         */
+        public long[] getMessages() {
+            return this.messages;
+        }
+
+        /**
+         * @return The total number of constraint evaluations at every sample
+         */
+        public long[] getEvaluations() {
+            return this.evaluations;
+        }
+
+        /**
+         * @return The global cost of the last sample
+         */
+        public double getFinalCost() {
+            return this.size == 0 ? Double.NaN : this.costs[this.size - 1];
+        }
+
+    }
+
+}
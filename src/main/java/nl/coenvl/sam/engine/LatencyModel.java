@@ -0,0 +1,81 @@
+/**
+ * File LatencyModel.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.messages.Message;
+
+/**
+ * LatencyModel
+ *
+ * Determines how long a message takes to travel from its source to its receiver in a {@link DiscreteEventSimulator}.
+ * The unit of time is up to the model, the simulator only adds the latencies up.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    /**
+     * @param source The address of the sender, may be null
+     * @param target The mailbox of the receiver
+     * @param m The message that is sent
+     * @return The latency of the message, which may not be negative
+     */
+    public double latency(UUID source, Mailbox target, Message m);
+
+    /**
+     * @return A model in which every message has the same latency
+     */
+    public static LatencyModel constant(final double latency) {
+        return (source, target, m) -> latency;
+    }
+
+    /**
+     * Returns a model in which the latency of every message is drawn uniformly from [min, max). The stream is used by
+     * the simulator thread only, so for reproducible timing it may be taken from the context of the experiment.
+     *
+     * @param min The minimum latency
+     * @param max The maximum latency
+     * @param random The stream to draw the latencies from
+     * @return The uniform latency model
+     */
+    public static LatencyModel uniform(final double min, final double max, final SplittableRandom random) {
+        return (source, target, m) -> min + (random.nextDouble() * (max - min));
+    }
+
+    /**
+     * Returns a model in which the latency is a fixed minimum plus an exponentially distributed delay.
+     *
+     * @param min The minimum latency
+     * @param mean The mean of the exponential delay on top of the minimum
+     * @param random The stream to draw the latencies from
+     * @return The exponential latency model
+     */
+    public static LatencyModel exponential(final double min, final double mean, final SplittableRandom random) {
+        return (source, target, m) -> min - (mean * Math.log(1 - random.nextDouble()));
+    }
+
+}
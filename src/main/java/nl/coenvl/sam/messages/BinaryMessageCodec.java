@@ -0,0 +1,630 @@
+/**
+ * File BinaryMessageCodec.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.messages;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+import nl.coenvl.sam.variables.PublishableMap;
+
+/**
+ * BinaryMessageCodec
+ *
+ * Compact binary encoding of messages. Every message starts with a varint reference to its schema, i.e. its type and
+ * the names of its keys, followed by the varint reference of its source and then only the values in schema order.
+ * Schemas and UUIDs are defined inline the first time they occur on the stream (the lowest bit of the reference is
+ * set), so in steady state a message does not contain a single string apart from its string values.
+ *
+ * Values are tagged with a single byte. Integers are zigzag varints, doubles are 8 bytes, and the maps that the solvers
+ * send are packed: a {@link CostMap} is written as a column of keys followed by a column of raw doubles, a
+ * {@link CostVector} as its raw doubles, and an {@link AssignmentMap} as a column of UUID references followed by a
+ * column of values. Anything else that is
+ * {@link java.io.Serializable} falls back to Java serialization.
+ *
+ * Decoded messages are {@link TypedMessage}s. An instance is not thread-safe, apart from {@link #sizeOf(Message)} which
+ * only reads the dictionaries.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class BinaryMessageCodec implements MessageCodec {
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_UUID = 7;
+    private static final byte TAG_COST_MAP = 8;
+    private static final byte TAG_ASSIGNMENT_MAP = 9;
+    private static final byte TAG_MAP = 10;
+    private static final byte TAG_LIST = 11;
+    private static final byte TAG_SERIALIZED = 12;
+    private static final byte TAG_COST_VECTOR = 13;
+
+    private static final byte COLUMN_TAGGED = 0;
+    private static final byte COLUMN_INT = 1;
+    private static final byte COLUMN_DOUBLE = 2;
+
+    // Encoding side of the stream
+    private final Map<String, List<Schema>> encodeSchemas;
+    private final Map<UUID, Integer> encodeUUIDs;
+    private int encodeSchemaCount;
+
+    // Decoding side of the stream
+    private final List<Schema> decodeSchemas;
+    private final List<UUID> decodeUUIDs;
+
+    public BinaryMessageCodec() {
+        this.encodeSchemas = new HashMap<>();
+        this.encodeUUIDs = new HashMap<>();
+        this.decodeSchemas = new ArrayList<>();
+        this.decodeUUIDs = new ArrayList<>();
+        this.reset();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.MessageCodec#encode(nl.coenvl.sam.messages.Message)
+     */
+    @Override
+    public byte[] encode(final Message msg) {
+        final Output out = new Output(64);
+        this.writeMessage(msg, out, false);
+        return out.toByteArray();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.MessageCodec#sizeOf(nl.coenvl.sam.messages.Message)
+     */
+    @Override
+    public int sizeOf(final Message msg) {
+        final Output out = new Output(0);
+        this.writeMessage(msg, out, true);
+        return out.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.MessageCodec#decode(byte[], int, int)
+     */
+    @Override
+    public Message decode(final byte[] data, final int offset, final int length) {
+        final Input in = new Input(data, offset, length);
+
+        final long schemaRef = in.readVarint();
+        final int schemaId = (int) (schemaRef >>> 1);
+        final Schema schema;
+        if ((schemaRef & 1) != 0) {
+            if (schemaId != this.decodeSchemas.size()) {
+                throw new IllegalArgumentException("Out of order definition of schema " + schemaId);
+            }
+            final String type = in.readString();
+            final String[] keys = new String[(int) in.readVarint()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readString();
+            }
+            schema = new Schema(schemaId, type, keys);
+            this.decodeSchemas.add(schema);
+        } else if (schemaId < this.decodeSchemas.size()) {
+            schema = this.decodeSchemas.get(schemaId);
+        } else {
+            throw new IllegalArgumentException("Reference to unknown schema " + schemaId);
+        }
+
+        final TypedMessage msg = new TypedMessage(this.readUUID(in), schema.type);
+        for (final String key : schema.keys) {
+            final byte tag = in.readByte();
+            if (tag == BinaryMessageCodec.TAG_INT) {
+                msg.put(key, (int) in.readZigzag());
+            } else if (tag == BinaryMessageCodec.TAG_DOUBLE) {
+                msg.put(key, in.readDouble());
+            } else {
+                msg.put(key, this.readValue(tag, in));
+            }
+        }
+
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException(in.remaining() + " trailing bytes after message of type " + schema.type);
+        }
+        return msg;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.MessageCodec#reset()
+     */
+    @Override
+    public void reset() {
+        this.encodeSchemas.clear();
+        this.encodeUUIDs.clear();
+        this.encodeSchemaCount = 0;
+
+        this.decodeSchemas.clear();
+        this.decodeUUIDs.clear();
+        this.decodeUUIDs.add(null); // Reference 0 is reserved for the null UUID
+    }
+
+    /**
+     * Writes the message to the output. In steady state mode nothing is defined, every schema or UUID that is not yet
+     * known is counted as a reference to the next free id instead.
+     */
+    private void writeMessage(final Message msg, final Output out, final boolean steady) {
+        Schema schema = this.lookupSchema(msg);
+        if (schema != null) {
+            out.writeVarint(((long) schema.id) << 1);
+        } else if (steady) {
+            out.writeVarint(((long) this.encodeSchemaCount) << 1);
+            schema = new Schema(-1, msg.getType(), msg.keySet().toArray(new String[0]));
+        } else {
+            schema = new Schema(this.encodeSchemaCount++, msg.getType(), msg.keySet().toArray(new String[0]));
+            this.encodeSchemas.computeIfAbsent(schema.type, t -> new ArrayList<>()).add(schema);
+
+            out.writeVarint((((long) schema.id) << 1) | 1);
+            out.writeString(schema.type);
+            out.writeVarint(schema.keys.length);
+            for (final String key : schema.keys) {
+                out.writeString(key);
+            }
+        }
+
+        this.writeUUID(msg.getSource(), out, steady);
+        for (final String key : schema.keys) {
+            this.writeValue(msg.get(key), out, steady);
+        }
+    }
+
+    private Schema lookupSchema(final Message msg) {
+        final List<Schema> candidates = this.encodeSchemas.get(msg.getType());
+        if (candidates != null) {
+            for (final Schema s : candidates) {
+                if (s.matches(msg)) {
+                    return s;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeUUID(final UUID id, final Output out, final boolean steady) {
+        if (id == null) {
+            out.writeVarint(0);
+            return;
+        }
+
+        final Integer ref = this.encodeUUIDs.get(id);
+        if (ref != null) {
+            out.writeVarint(((long) ref) << 1);
+        } else if (steady) {
+            out.writeVarint(((long) this.encodeUUIDs.size() + 1) << 1);
+        } else {
+            final int newRef = this.encodeUUIDs.size() + 1;
+            this.encodeUUIDs.put(id, newRef);
+            out.writeVarint((((long) newRef) << 1) | 1);
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private UUID readUUID(final Input in) {
+        final long ref = in.readVarint();
+        final int id = (int) (ref >>> 1);
+        if ((ref & 1) != 0) {
+            if (id != this.decodeUUIDs.size()) {
+                throw new IllegalArgumentException("Out of order definition of UUID " + id);
+            }
+            final UUID uuid = new UUID(in.readLong(), in.readLong());
+            this.decodeUUIDs.add(uuid);
+            return uuid;
+        } else if (id < this.decodeUUIDs.size()) {
+            return this.decodeUUIDs.get(id);
+        } else {
+            throw new IllegalArgumentException("Reference to unknown UUID " + id);
+        }
+    }
+
+    private void writeValue(final Object value, final Output out, final boolean steady) {
+        if (value == null) {
+            out.writeByte(BinaryMessageCodec.TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(((Boolean) value) ? BinaryMessageCodec.TAG_TRUE : BinaryMessageCodec.TAG_FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(BinaryMessageCodec.TAG_INT);
+            out.writeZigzag((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(BinaryMessageCodec.TAG_LONG);
+            out.writeZigzag((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(BinaryMessageCodec.TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.writeByte(BinaryMessageCodec.TAG_STRING);
+            out.writeString((String) value);
+        } else if (value instanceof UUID) {
+            out.writeByte(BinaryMessageCodec.TAG_UUID);
+            this.writeUUID((UUID) value, out, steady);
+        } else if (value.getClass() == CostMap.class) {
+            final CostMap<?> map = (CostMap<?>) value;
+            out.writeByte(BinaryMessageCodec.TAG_COST_MAP);
+            out.writeVarint(map.size());
+            this.writeColumn(map.keySet(), out, steady);
+            this.writeColumn(map.values(), out, steady);
+        } else if (value instanceof CostVector) {
+            final CostVector vector = (CostVector) value;
+            out.writeByte(BinaryMessageCodec.TAG_COST_VECTOR);
+            out.writeVarint(vector.size());
+            for (int i = 0; i < vector.size(); i++) {
+                out.writeDouble(vector.get(i));
+            }
+        } else if (value.getClass() == AssignmentMap.class) {
+            final AssignmentMap<?> map = (AssignmentMap<?>) value;
+            out.writeByte(BinaryMessageCodec.TAG_ASSIGNMENT_MAP);
+            out.writeVarint(map.size());
+            for (final UUID id : map.keySet()) {
+                this.writeUUID(id, out, steady);
+            }
+            this.writeColumn(map.values(), out, steady);
+        } else if (value.getClass() == PublishableMap.class) {
+            final PublishableMap<?, ?> map = (PublishableMap<?, ?>) value;
+            out.writeByte(BinaryMessageCodec.TAG_MAP);
+            out.writeVarint(map.size());
+            this.writeColumn(map.keySet(), out, steady);
+            this.writeColumn(map.values(), out, steady);
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            out.writeByte(BinaryMessageCodec.TAG_LIST);
+            out.writeVarint(list.size());
+            this.writeColumn(list, out, steady);
+        } else {
+            out.writeByte(BinaryMessageCodec.TAG_SERIALIZED);
+            final byte[] bytes = BinaryMessageCodec.serialize(value);
+            out.writeVarint(bytes.length);
+            out.writeBytes(bytes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readValue(final byte tag, final Input in) {
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_FALSE:
+            return Boolean.FALSE;
+        case TAG_TRUE:
+            return Boolean.TRUE;
+        case TAG_INT:
+            return (int) in.readZigzag();
+        case TAG_LONG:
+            return in.readZigzag();
+        case TAG_DOUBLE:
+            return in.readDouble();
+        case TAG_STRING:
+            return in.readString();
+        case TAG_UUID:
+            return this.readUUID(in);
+        case TAG_COST_MAP: {
+            final int size = (int) in.readVarint();
+            final Object[] keys = this.readColumn(size, in);
+            final Object[] values = this.readColumn(size, in);
+            final CostMap<Object> map = new CostMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(keys[i], (Double) values[i]);
+            }
+            return map;
+        }
+        case TAG_COST_VECTOR: {
+            final double[] costs = new double[(int) in.readVarint()];
+            for (int i = 0; i < costs.length; i++) {
+                costs[i] = in.readDouble();
+            }
+            return new CostVector(costs);
+        }
+        case TAG_ASSIGNMENT_MAP: {
+            final int size = (int) in.readVarint();
+            final UUID[] keys = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = this.readUUID(in);
+            }
+            final Object[] values = this.readColumn(size, in);
+            final AssignmentMap<Object> map = new AssignmentMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(keys[i], values[i]);
+            }
+            return map;
+        }
+        case TAG_MAP: {
+            final int size = (int) in.readVarint();
+            final Object[] keys = this.readColumn(size, in);
+            final Object[] values = this.readColumn(size, in);
+            final PublishableMap<Object, Object> map = new PublishableMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(keys[i], values[i]);
+            }
+            return map;
+        }
+        case TAG_LIST:
+            return new ArrayList<>(Arrays.asList(this.readColumn((int) in.readVarint(), in)));
+        case TAG_SERIALIZED:
+            return BinaryMessageCodec.deserialize(in.readBytes((int) in.readVarint()));
+        default:
+            throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a collection of values, packed without tags if they are all ints or all doubles.
+     */
+    private void writeColumn(final Collection<?> values, final Output out, final boolean steady) {
+        boolean allInts = !values.isEmpty();
+        boolean allDoubles = !values.isEmpty();
+        for (final Object v : values) {
+            allInts &= v instanceof Integer;
+            allDoubles &= v instanceof Double;
+        }
+
+        if (allInts) {
+            out.writeByte(BinaryMessageCodec.COLUMN_INT);
+            for (final Object v : values) {
+                out.writeZigzag((Integer) v);
+            }
+        } else if (allDoubles) {
+            out.writeByte(BinaryMessageCodec.COLUMN_DOUBLE);
+            for (final Object v : values) {
+                out.writeDouble((Double) v);
+            }
+        } else {
+            out.writeByte(BinaryMessageCodec.COLUMN_TAGGED);
+            for (final Object v : values) {
+                this.writeValue(v, out, steady);
+            }
+        }
+    }
+
+    private Object[] readColumn(final int size, final Input in) {
+        final byte kind = in.readByte();
+        final Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            switch (kind) {
+            case COLUMN_INT:
+                values[i] = (int) in.readZigzag();
+                break;
+            case COLUMN_DOUBLE:
+                values[i] = in.readDouble();
+                break;
+            case COLUMN_TAGGED:
+                values[i] = this.readValue(in.readByte(), in);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown column kind " + kind);
+            }
+        }
+        return values;
+    }
+
+    private static byte[] serialize(final Object obj) {
+        try (
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(obj);
+            oos.flush();
+            return baos.toByteArray();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object deserialize(final byte[] bytes) {
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        } catch (final ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A message type together with the keys it was sent with. The same type may have several schemas, e.g. when a key
+     * is optional.
+     */
+    private static final class Schema {
+
+        private final int id;
+        private final String type;
+        private final String[] keys;
+
+        Schema(final int id, final String type, final String[] keys) {
+            this.id = id;
+            this.type = type;
+            this.keys = keys;
+        }
+
+        boolean matches(final Message msg) {
+            if (msg.keySet().size() != this.keys.length) {
+                return false;
+            }
+            for (final String key : this.keys) {
+                if (!msg.containsKey(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Growable byte buffer, which only counts the bytes if it is created without capacity.
+     */
+    private static final class Output {
+
+        private byte[] buf;
+        private int pos;
+
+        Output(final int capacity) {
+            this.buf = capacity > 0 ? new byte[capacity] : null;
+            this.pos = 0;
+        }
+
+        int size() {
+            return this.pos;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(this.buf, this.pos);
+        }
+
+        void writeByte(final int b) {
+            if (this.buf != null) {
+                if (this.pos == this.buf.length) {
+                    this.buf = Arrays.copyOf(this.buf, this.buf.length * 2);
+                }
+                this.buf[this.pos] = (byte) b;
+            }
+            this.pos++;
+        }
+
+        void writeBytes(final byte[] bytes) {
+            if (this.buf != null) {
+                if (this.pos + bytes.length > this.buf.length) {
+                    this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length * 2, this.pos + bytes.length));
+                }
+                System.arraycopy(bytes, 0, this.buf, this.pos, bytes.length);
+            }
+            this.pos += bytes.length;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                this.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            this.writeByte((int) value);
+        }
+
+        void writeZigzag(final long value) {
+            this.writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeLong(final long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeDouble(final double value) {
+            this.writeLong(Double.doubleToRawLongBits(value));
+        }
+
+        void writeString(final String value) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.writeVarint(bytes.length);
+            this.writeBytes(bytes);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buf;
+        private final int limit;
+        private int pos;
+
+        Input(final byte[] buf, final int offset, final int length) {
+            this.buf = buf;
+            this.pos = offset;
+            this.limit = offset + length;
+        }
+
+        int remaining() {
+            return this.limit - this.pos;
+        }
+
+        byte readByte() {
+            if (this.pos >= this.limit) {
+                throw new IllegalArgumentException("Unexpected end of message");
+            }
+            return this.buf[this.pos++];
+        }
+
+        byte[] readBytes(final int length) {
+            if (length < 0 || length > this.remaining()) {
+                throw new IllegalArgumentException("Unexpected end of message");
+            }
+            final byte[] bytes = Arrays.copyOfRange(this.buf, this.pos, this.pos + length);
+            this.pos += length;
+            return bytes;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = this.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readZigzag() {
+            final long value = this.readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (this.readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        double readDouble() {
+            return Double.longBitsToDouble(this.readLong());
+        }
+
+        String readString() {
+            return new String(this.readBytes((int) this.readVarint()), StandardCharsets.UTF_8);
+        }
+    }
+
+}
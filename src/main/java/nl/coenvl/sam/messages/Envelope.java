@@ -0,0 +1,178 @@
+/**
+ * File Envelope.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.messages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import nl.coenvl.sam.exceptions.MessageKeyNotSetException;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+
+/**
+ * Envelope
+ *
+ * A batch of messages for a single receiver, which the {@link nl.coenvl.sam.MessageBus} delivers as one message when it
+ * runs in envelope mode. An envelope passes through the queue of a receiving solver as a single entry, and is unpacked
+ * right before the messages in it are pushed to the solver, in the order in which they were sent.
+ *
+ * The envelope itself has no fields and can not be modified.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class Envelope implements Message, Iterable<Message> {
+
+    public static final String TYPE = "Envelope";
+
+    private final List<Message> messages;
+
+    public Envelope(final List<Message> messages) {
+        this.messages = Collections.unmodifiableList(messages);
+    }
+
+    public int size() {
+        return this.messages.size();
+    }
+
+    public List<Message> getMessages() {
+        return this.messages;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        return this.messages.iterator();
+    }
+
+    @Override
+    public String getType() {
+        return Envelope.TYPE;
+    }
+
+    /**
+     * @return null, since the messages in an envelope may come from different sources
+     */
+    @Override
+    public UUID getSource() {
+        return null;
+    }
+
+    @Override
+    public void put(final String key, final Object value) {
+        throw new UnsupportedOperationException("An envelope has no fields");
+    }
+
+    @Override
+    public void put(final String key, final double value) {
+        throw new UnsupportedOperationException("An envelope has no fields");
+    }
+
+    @Override
+    public void put(final String key, final int value) {
+        throw new UnsupportedOperationException("An envelope has no fields");
+    }
+
+    @Override
+    public Object get(final String key) {
+        return null;
+    }
+
+    @Override
+    public double getDouble(final String key) {
+        throw new MessageKeyNotSetException(Envelope.TYPE, key);
+    }
+
+    @Override
+    public int getInteger(final String key) {
+        throw new MessageKeyNotSetException(Envelope.TYPE, key);
+    }
+
+    @Override
+    public <V> CostMap<V> getCostMap(final String key) {
+        return null;
+    }
+
+    @Override
+    public CostVector getCostVector(final String key) {
+        return null;
+    }
+
+    @Override
+    public <V> AssignmentMap<V> getAssignmentMap(final String key) {
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        return false;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Creates a new envelope with the same messages, the messages themselves are not copied.
+     */
+    @Override
+    public Envelope clone() {
+        return new Envelope(new ArrayList<>(this.messages));
+    }
+
+    @Override
+    public void freeze() {
+        // An envelope is always frozen
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    /**
+     * @return The summed size of the messages in this envelope
+     */
+    @Override
+    public long messageSize() {
+        long size = 0;
+        for (final Message m : this.messages) {
+            size += m.messageSize();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "Envelope with " + this.messages.size() + " messages";
+    }
+
+}
@@ -21,9 +21,16 @@
 package nl.coenvl.sam.messages;
 
 import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.exceptions.MessageKeyNotSetException;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+
 /**
  * Message
  *
@@ -35,25 +42,41 @@ import java.util.UUID;
 public final class HashMessage implements Message {
 
     private static final StringSerializer serializer = new StringSerializer();
+    private static final BinaryMessageCodec sizer = new BinaryMessageCodec();
     private final String type;
     private final UUID source;
 
     private final Map<String, String> valueMap;
+    private boolean frozen;
 
     public HashMessage(final UUID source, final String type) {
         super();
         this.source = source;
         this.type = type;
         this.valueMap = new HashMap<>();
+        this.frozen = false;
     }
 
     @Override
     public void put(final String key, final Object value) {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Message of type " + this.type + " is frozen");
+        }
         if (value != null) {
             this.valueMap.put(key, HashMessage.serializer.serialize(value));
         }
     }
 
+    @Override
+    public void put(final String key, final double value) {
+        this.put(key, (Object) value);
+    }
+
+    @Override
+    public void put(final String key, final int value) {
+        this.put(key, (Object) value);
+    }
+
     @Override
     public UUID getSource() {
         return this.source;
@@ -67,6 +90,39 @@ public final class HashMessage implements Message {
         return HashMessage.serializer.deserialize(this.valueMap.get(key));
     }
 
+    @Override
+    public double getDouble(final String key) {
+        if (!this.valueMap.containsKey(key)) {
+            throw new MessageKeyNotSetException(this.type, key);
+        }
+        return ((Number) this.get(key)).doubleValue();
+    }
+
+    @Override
+    public int getInteger(final String key) {
+        if (!this.valueMap.containsKey(key)) {
+            throw new MessageKeyNotSetException(this.type, key);
+        }
+        return ((Number) this.get(key)).intValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> CostMap<V> getCostMap(final String key) {
+        return (CostMap<V>) this.get(key);
+    }
+
+    @Override
+    public CostVector getCostVector(final String key) {
+        return (CostVector) this.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> AssignmentMap<V> getAssignmentMap(final String key) {
+        return (AssignmentMap<V>) this.get(key);
+    }
+
     @Override
     public HashMessage clone() {
         final HashMessage clone = new HashMessage(this.source, this.type);
@@ -74,6 +130,22 @@ public final class HashMessage implements Message {
         return clone;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.Message#freeze()
+     */
+    @Override
+    public void freeze() {
+        // Every get deserializes a fresh copy, so there are no values to protect
+        this.frozen = true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
     @Override
     public String getType() {
         return this.type;
@@ -81,7 +153,7 @@ public final class HashMessage implements Message {
 
     @Override
     public long messageSize() {
-        return 0L;
+        return HashMessage.sizer.sizeOf(this);
     }
 
     @Override
@@ -99,4 +171,14 @@ public final class HashMessage implements Message {
         return this.valueMap.containsKey(key);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.messages.Message#keySet()
+     */
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(this.valueMap.keySet());
+    }
+
 }
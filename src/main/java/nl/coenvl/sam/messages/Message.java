@@ -20,8 +20,14 @@
  */
 package nl.coenvl.sam.messages;
 
+import java.util.Set;
 import java.util.UUID;
 
+import nl.coenvl.sam.exceptions.MessageKeyNotSetException;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+
 /**
  * Message
  *
@@ -38,24 +44,56 @@ public interface Message {
 
     public void put(String key, Object value);
 
+    public void put(String key, double value);
+
+    public void put(String key, int value);
+
     public Object get(String key);
 
-    public boolean containsKey(String key);
+    /**
+     * Returns the numeric value stored under the given key as a primitive double.
+     *
+     * @throws MessageKeyNotSetException if the key is not present in this message
+     */
+    public double getDouble(String key);
 
-    // public void put(String key, Number value);
+    /**
+     * Returns the numeric value stored under the given key as a primitive int.
+     *
+     * @throws MessageKeyNotSetException if the key is not present in this message
+     */
+    public int getInteger(String key);
 
-    // public void put(String key, PublishableMap<?, ?> value);
+    public <V> CostMap<V> getCostMap(String key);
 
-    // public UUID getUUID(String key);
+    public CostVector getCostVector(String key);
 
-    // public Integer getInteger(String key);
+    public <V> AssignmentMap<V> getAssignmentMap(String key);
 
-    // public Number getNumber(String key);
+    public boolean containsKey(String key);
 
-    // public PublishableMap<?, ?> getMap(String key);
+    /**
+     * Returns the keys that are set in this message, e.g. for a {@link MessageCodec} to walk its fields.
+     */
+    public Set<String> keySet();
 
+    /**
+     * Creates a copy of this message that can be modified again, also if this message is frozen.
+     */
     public Message clone();
 
+    /**
+     * Makes this message immutable, so that it can be shared between all its receivers. Any put after the message is
+     * frozen throws an {@link UnsupportedOperationException}. Freezing a frozen message has no effect.
+     */
+    public void freeze();
+
+    public boolean isFrozen();
+
+    /**
+     * Returns the number of bytes this message occupies on the wire when it is encoded by the
+     * {@link BinaryMessageCodec}, see {@link BinaryMessageCodec#sizeOf(Message)}.
+     */
     public long messageSize();
 
 }
@@ -0,0 +1,60 @@
+/**
+ * File MessageCodec.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.messages;
+
+/**
+ * MessageCodec
+ *
+ * Converts messages to and from their wire representation. A codec may be stateful, e.g. to define type names and
+ * addresses only once per stream, in which case one instance must be used for every message of a single stream, in
+ * the same order on both ends.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public interface MessageCodec {
+
+    /**
+     * Encodes the message as the next message of this codec's stream.
+     */
+    public byte[] encode(Message msg);
+
+    /**
+     * Decodes the next message of this codec's stream from the given range of bytes.
+     */
+    public Message decode(byte[] data, int offset, int length);
+
+    public default Message decode(final byte[] data) {
+        return this.decode(data, 0, data.length);
+    }
+
+    /**
+     * Returns the number of bytes the message takes once the stream is warmed up, i.e. without any one-off definitions
+     * that the first message of its kind carries. Does not change the state of the codec.
+     */
+    public int sizeOf(Message msg);
+
+    /**
+     * Forgets everything that was defined on the stream so far, so that the codec can start a new stream.
+     */
+    public void reset();
+
+}
@@ -0,0 +1,316 @@
+/**
+ * File TypedMessage.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.messages;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import nl.coenvl.sam.exceptions.MessageKeyNotSetException;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+import nl.coenvl.sam.variables.PublishableMap;
+
+/**
+ * TypedMessage
+ *
+ * In-process message that stores its values by reference instead of serializing them, as the {@link HashMessage} does.
+ * Numbers are kept in primitive slots, so no boxing occurs between a {@link #put(String, double)} and a
+ * {@link #getDouble(String)}.
+ *
+ * Since the values are not copied, any object that is put in the message is handed over to the receiver(s). The sender
+ * must therefore not modify it after the put, e.g. by sending a clone of a map that it keeps updating itself. Receivers
+ * in turn must treat the values as read-only, since the same message is typically delivered to several agents. A
+ * message that is multicast by the {@link nl.coenvl.sam.MessageBus} is frozen first, which also freezes the
+ * {@link PublishableMap}s in it, so that a receiver that does modify them fails instead of corrupting its neighbors.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class TypedMessage implements Message {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final BinaryMessageCodec sizer = new BinaryMessageCodec();
+
+    private static final byte KIND_OBJECT = 0;
+    private static final byte KIND_DOUBLE = 1;
+    private static final byte KIND_INTEGER = 2;
+
+    private final String type;
+    private final UUID source;
+
+    private String[] keys;
+    private Object[] objects;
+    private double[] numbers;
+    private byte[] kinds;
+    private int size;
+    private long encodedSize = -1;
+    private boolean frozen = false;
+
+    public TypedMessage(final UUID source, final String type) {
+        this.source = source;
+        this.type = type;
+        this.keys = new String[TypedMessage.INITIAL_CAPACITY];
+        this.objects = new Object[TypedMessage.INITIAL_CAPACITY];
+        this.numbers = new double[TypedMessage.INITIAL_CAPACITY];
+        this.kinds = new byte[TypedMessage.INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    @Override
+    public String getType() {
+        return this.type;
+    }
+
+    @Override
+    public UUID getSource() {
+        return this.source;
+    }
+
+    @Override
+    public void put(final String key, final Object value) {
+        this.checkNotFrozen();
+        if (value != null) {
+            final int slot = this.slotFor(key);
+            this.objects[slot] = value;
+            this.kinds[slot] = TypedMessage.KIND_OBJECT;
+            this.encodedSize = -1;
+        }
+    }
+
+    @Override
+    public void put(final String key, final double value) {
+        this.checkNotFrozen();
+        final int slot = this.slotFor(key);
+        this.objects[slot] = null;
+        this.numbers[slot] = value;
+        this.kinds[slot] = TypedMessage.KIND_DOUBLE;
+        this.encodedSize = -1;
+    }
+
+    @Override
+    public void put(final String key, final int value) {
+        this.checkNotFrozen();
+        final int slot = this.slotFor(key);
+        this.objects[slot] = null;
+        this.numbers[slot] = value;
+        this.kinds[slot] = TypedMessage.KIND_INTEGER;
+        this.encodedSize = -1;
+    }
+
+    @Override
+    public Object get(final String key) {
+        final int slot = this.indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        switch (this.kinds[slot]) {
+        case KIND_DOUBLE:
+            return this.numbers[slot];
+        case KIND_INTEGER:
+            return (int) this.numbers[slot];
+        default:
+        case KIND_OBJECT:
+            return this.objects[slot];
+        }
+    }
+
+    @Override
+    public double getDouble(final String key) {
+        final int slot = this.indexOf(key);
+        if (slot < 0) {
+            throw new MessageKeyNotSetException(this.type, key);
+        }
+
+        if (this.kinds[slot] == TypedMessage.KIND_OBJECT) {
+            return ((Number) this.objects[slot]).doubleValue();
+        }
+        return this.numbers[slot];
+    }
+
+    @Override
+    public int getInteger(final String key) {
+        final int slot = this.indexOf(key);
+        if (slot < 0) {
+            throw new MessageKeyNotSetException(this.type, key);
+        }
+
+        if (this.kinds[slot] == TypedMessage.KIND_OBJECT) {
+            return ((Number) this.objects[slot]).intValue();
+        }
+        return (int) this.numbers[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> CostMap<V> getCostMap(final String key) {
+        return (CostMap<V>) this.get(key);
+    }
+
+    @Override
+    public CostVector getCostVector(final String key) {
+        return (CostVector) this.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> AssignmentMap<V> getAssignmentMap(final String key) {
+        return (AssignmentMap<V>) this.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns a read-only view on the keys of this message, in the order in which they were first put.
+     */
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+
+            @Override
+            public boolean contains(final Object o) {
+                return (o instanceof String) && TypedMessage.this.containsKey((String) o);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < TypedMessage.this.size;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!this.hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return TypedMessage.this.keys[this.next++];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TypedMessage.this.size;
+            }
+        };
+    }
+
+    /**
+     * Creates a shallow copy of this message, the values themselves are shared between the original and the clone. The
+     * clone is never frozen, but the maps in it remain frozen if they were.
+     */
+    @Override
+    public TypedMessage clone() {
+        final TypedMessage clone = new TypedMessage(this.source, this.type);
+        clone.keys = Arrays.copyOf(this.keys, this.keys.length);
+        clone.objects = Arrays.copyOf(this.objects, this.objects.length);
+        clone.numbers = Arrays.copyOf(this.numbers, this.numbers.length);
+        clone.kinds = Arrays.copyOf(this.kinds, this.kinds.length);
+        clone.size = this.size;
+        return clone;
+    }
+
+    /**
+     * Freezes this message and the {@link PublishableMap}s that were put in it. Other values are shared as they are.
+     */
+    @Override
+    public void freeze() {
+        if (this.frozen) {
+            return;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            if (this.objects[i] instanceof PublishableMap) {
+                ((PublishableMap<?, ?>) this.objects[i]).freeze();
+            }
+        }
+        this.frozen = true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    @Override
+    public long messageSize() {
+        // The same message is often sent to all neighbors, so remember the size until the next put
+        if (this.encodedSize < 0) {
+            this.encodedSize = TypedMessage.sizer.sizeOf(this);
+        }
+        return this.encodedSize;
+    }
+
+    @Override
+    public String toString() {
+        return "Message of Type " + this.type + "(" + super.toString() + ")";
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Message of type " + this.type + " is frozen");
+        }
+    }
+
+    /**
+     * Messages only have a handful of fields, so a linear scan over the keys is cheaper than hashing them.
+     */
+    private int indexOf(final String key) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slotFor(final String key) {
+        final int existing = this.indexOf(key);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        if (this.size == this.keys.length) {
+            final int capacity = this.keys.length * 2;
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.objects = Arrays.copyOf(this.objects, capacity);
+            this.numbers = Arrays.copyOf(this.numbers, capacity);
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+        }
+
+        this.keys[this.size] = key;
+        return this.size++;
+    }
+
+}
@@ -19,15 +19,14 @@
  */
 package nl.coenvl.sam.solvers;
 
-import java.util.Random;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
 import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
 
@@ -70,8 +69,8 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      * @see nl.coenvl.sam.solvers.Solver#init()
      */
     @Override
-    public synchronized void init() {
-        this.myVariable.setValue(this.myVariable.getRandomValue());
+    public void init() {
+        this.myVariable.setValue(this.myVariable.getRandomValue(this.random));
     }
 
     /*
@@ -80,7 +79,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         final UUID source = m.getSource();
 
         if (m.getType().equals(ACLSSolver.UPDATE_VALUE)) {
@@ -90,7 +89,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         } else if (m.getType().equals(ACLSSolver.PROPOSED_UPDATE)) {
             this.replyWithLocalCost(m);
         } else if (m.getType().equals(ACLSSolver.IMPACT_MESSAGE)) {
-            this.impactCosts.put(source, (Double) m.get("costImpact"));
+            this.impactCosts.put(source, m.getDouble("costImpact"));
         }
     }
 
@@ -100,7 +99,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         switch (this.currentState) {
         case PROPOSE:
             this.proposeAssignment();
@@ -122,7 +121,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
 
     private void sendValue() {
         this.impactCosts.clear();
-        final Message updateMsg = new HashMessage(this.myVariable.getID(), ACLSSolver.UPDATE_VALUE);
+        final Message updateMsg = new TypedMessage(this.myVariable.getID(), ACLSSolver.UPDATE_VALUE);
 
         updateMsg.put("value", this.myVariable.getValue());
 
@@ -152,11 +151,11 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         if (improvementSet.isEmpty()) {
             this.myProposal = null;
         } else {
-            this.myProposal = improvementSet.randomElement(); // .toString();
+            this.myProposal = improvementSet.randomElement(this.random); // .toString();
         }
 
         // Send the proposal to all neighbors
-        final Message updateMsg = new HashMessage(this.myVariable.getID(), ACLSSolver.PROPOSED_UPDATE);
+        final Message updateMsg = new TypedMessage(this.myVariable.getID(), ACLSSolver.PROPOSED_UPDATE);
 
         updateMsg.put("source", this.myVariable.getID());
         updateMsg.put("proposal", this.myProposal);
@@ -176,7 +175,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         if (proposal == null) { // .isEmpty()) {
             impact = 0.;
         } else {
-            final AssignmentMap<V> temp = this.myProblemContext.clone();
+            final DenseAssignment<V> temp = this.getLocalAssignment(this.myProblemContext);
             temp.setAssignment(this.myVariable, this.myVariable.getValue());
 
             final double currentCost = this.parent.getLocalCostIf(temp);
@@ -184,15 +183,15 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
             // Compute cost after update
             // @SuppressWarnings("unchecked")
             // final V proposedValue = (V) Double.valueOf(proposal);
-            temp.put(neighbor, proposal);
+            temp.set(temp.slotOf(neighbor), proposal);
 
             impact = this.parent.getLocalCostIf(temp) - currentCost;
         }
 
         // And send back impact such that negative impact means improvement
-        final Message impactMsg = new HashMessage(this.myVariable.getID(), ACLSSolver.IMPACT_MESSAGE);
+        final Message impactMsg = new TypedMessage(this.myVariable.getID(), ACLSSolver.IMPACT_MESSAGE);
         impactMsg.put("costImpact", impact);
-        MailMan.sendMessage(neighbor, impactMsg);
+        this.bus.sendMessage(neighbor, impactMsg);
     }
 
     /**
@@ -218,7 +217,7 @@ public class ACLSSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
             totalImpact += impact;
         }
 
-        if ((totalImpact < 0) && ((new Random()).nextDouble() < this.getUpdateProbability())) {
+        if ((totalImpact < 0) && (this.random.nextDouble() < this.getUpdateProbability())) {
             this.myVariable.setValue(proposedValue);
         }
     }
@@ -20,8 +20,8 @@
 package nl.coenvl.sam.solvers;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -46,10 +46,10 @@ public class ACLSUBSolver<V> extends ACLSSolver<V> {
     @Override
     protected void proposeAssignment() {
         // As simple as this
-        this.myProposal = this.myVariable.getRandomValue();
+        this.myProposal = this.myVariable.getRandomValue(this.random);
 
         // Send the proposal to all neighbors
-        final Message updateMsg = new HashMessage(this.myVariable.getID(), ACLSSolver.PROPOSED_UPDATE);
+        final Message updateMsg = new TypedMessage(this.myVariable.getID(), ACLSSolver.PROPOSED_UPDATE);
 
         updateMsg.put("proposal", this.myProposal);
 
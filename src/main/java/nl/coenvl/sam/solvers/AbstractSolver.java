@@ -19,12 +19,17 @@
  */
 package nl.coenvl.sam.solvers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
+import nl.coenvl.sam.MessageBus;
 import nl.coenvl.sam.agents.Agent;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -38,21 +43,32 @@ public abstract class AbstractSolver<T extends Variable<V>, V> {
 
     protected final Agent<T, V> parent;
     protected final T myVariable;
+    protected final MessageBus bus;
+
+    /**
+     * The random stream of this solver, split off the stream of its agent, for all random choices of the solver
+     */
+    protected final SplittableRandom random;
+
+    private Set<UUID> assignmentIds;
+    private DenseAssignment<V> localAssignment;
 
     protected AbstractSolver(final Agent<T, V> agent) {
         this.parent = agent;
         this.myVariable = agent.getVariable();
+        this.bus = agent.getContext().getMessageBus();
+        this.random = agent.getRandom().split();
     }
 
+    /**
+     * Multicasts the message to all neighbors, after which it is frozen and can no longer be modified.
+     */
     protected void sendToNeighbors(final Message m) {
-        final Set<UUID> set = this.parent.getConstrainedVariableIds();
-        for (final UUID target : set) {
-            MailMan.sendMessage(target, m);
-        }
+        this.bus.multicast(this.parent.getNeighborMailboxes(), m);
     }
 
     protected int numNeighbors() {
-        return this.parent.getConstrainedVariableIds().size();
+        return this.parent.getNeighborMailboxes().length;
     }
 
     /**
@@ -62,6 +78,24 @@ public abstract class AbstractSolver<T extends Variable<V>, V> {
         return 1.0 / (this.numNeighbors() + 1);
     }
 
+    /**
+     * Returns an assignment with a slot for the variable of this solver and for each of the variables it is constrained
+     * with, loaded with the values in the map. The same instance is returned by every call, so it is only valid until
+     * the next call, and it must not be sent in a message. It is rebuilt only if the constrained variables change.
+     */
+    protected DenseAssignment<V> getLocalAssignment(final Map<UUID, ? extends V> values) {
+        final Set<UUID> ids = this.parent.getConstrainedVariableIds();
+        if ((this.localAssignment == null) || ((ids != this.assignmentIds) && !ids.equals(this.assignmentIds))) {
+            final List<UUID> slots = new ArrayList<>(ids.size() + 1);
+            slots.add(this.myVariable.getID());
+            slots.addAll(ids);
+            this.localAssignment = new DenseAssignment<>(slots);
+            this.assignmentIds = ids;
+        }
+        this.localAssignment.load(values);
+        return this.localAssignment;
+    }
+
     protected void reset() {
         this.myVariable.clear();
     }
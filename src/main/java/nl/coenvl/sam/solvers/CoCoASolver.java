@@ -26,13 +26,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.solvers.CoCoASolver.State;
 import nl.coenvl.sam.variables.AssignmentMap;
-import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
 
@@ -62,9 +62,10 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
 
     protected final AssignmentMap<State> neighborStates;
     protected final AssignmentMap<V> context;
+    protected final CpaTracker<V> cpa;
 
     private volatile State currentState;
-    private volatile List<CostMap<V>> receivedMaps;
+    private volatile List<CostVector> receivedMaps;
 
     protected int uniquenessBound;
 
@@ -72,6 +73,7 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
         super(agent);
         this.neighborStates = new AssignmentMap<>();
         this.context = new AssignmentMap<>();
+        this.cpa = new CpaTracker<>(this.context);
         this.currentState = State.IDLE;
         this.uniquenessBound = 1;
     }
@@ -84,7 +86,7 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
     @Override
     public void init() {
         if (this.isRoot()) {
-            this.push(new HashMessage(null, CoCoASolver.ASSIGN_VAR));
+            this.push(new TypedMessage(null, CoCoASolver.ASSIGN_VAR));
         }
     }
 
@@ -94,12 +96,11 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
 
         if (m.containsKey("cpa")) {
-            @SuppressWarnings("unchecked")
-            final AssignmentMap<V> cpa = (AssignmentMap<V>) m.get("cpa");
-            this.context.putAll(cpa);
+            final AssignmentMap<V> cpa = m.getAssignmentMap("cpa");
+            this.cpa.merge(cpa);
         }
 
         if (m.getType().equals(CoCoASolver.ASSIGN_VAR)) {
@@ -139,20 +140,30 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
     public void reset() {
         super.reset();
         this.neighborStates.clear();
-        this.context.clear();
+        this.cpa.clear();
         this.receivedMaps = null;
         this.currentState = State.IDLE;
     }
 
-    protected synchronized void sendInquireMsgs() {
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        // The neighbors only send the changes to the CPA
+        return true;
+    }
+
+    protected void sendInquireMsgs() {
         // Create a map for storing incoming costmap messages
         this.receivedMaps = new ArrayList<>();
 
-        final Message m = new HashMessage(this.myVariable.getID(), CoCoASolver.INQUIRE_MSG);
-        m.put("cpa", this.context);
+        final Message m = new TypedMessage(this.myVariable.getID(), CoCoASolver.INQUIRE_MSG);
         m.put("domain", this.myVariable.getDomain());
 
-        this.sendToNeighbors(m);
+        this.cpa.multicast(this.bus, this.parent, m);
     }
 
     /**
@@ -160,44 +171,48 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
      *
      * @param m
      */
-    private synchronized void respond(final Message m) {
-        final CostMap<V> costMap = new CostMap<>();
-
+    private void respond(final Message m) {
         final UUID source = m.getSource();
-        final AssignmentMap<V> pa = this.context.clone(); // Should by now already include the CPA of the source
+        // Should by now already include the CPA of the source
+        final DenseAssignment<V> pa = this.getLocalAssignment(this.context);
+        final int sourceSlot = pa.slotOf(source);
+        final int mySlot = pa.slotOf(this.myVariable.getID());
 
         final Collection<V> domain = (Collection<V>) m.get("domain");
-        // Build the cost map making the strong assumption that I have the same
-        // type of variable as the source
+        final CostVector costs = new CostVector(domain.size());
+        int index = 0;
+        // One cost for every value in the domain of the source, in the same order
         for (final V iterAssignment : domain) {
-            pa.put(source, iterAssignment);
+            pa.set(sourceSlot, iterAssignment);
 
-            Double iterCost = Double.MAX_VALUE;
+            double iterCost = Double.MAX_VALUE;
             if (this.myVariable.isSet()) {
                 iterCost = this.parent.getLocalCostIf(pa);
             } else {
-                // Now the internal loop to optimize MY value
-                final AssignmentMap<V> spa = pa.clone();
+                // Now the internal loop to optimize MY value, undone afterwards
+                final int mark = pa.mark();
 
                 for (final V siterAssignment : this.myVariable) {
-                    spa.setAssignment(this.myVariable, siterAssignment);
-                    final double siterCost = this.parent.getLocalCostIf(spa);
+                    pa.set(mySlot, siterAssignment);
+                    final double siterCost = this.parent.getLocalCostIf(pa);
 
                     if (siterCost < iterCost) {
                         iterCost = siterCost;
                     }
                 }
+
+                pa.rollback(mark);
             }
 
-            costMap.put(iterAssignment, iterCost);
+            costs.set(index++, iterCost);
         }
 
         // Respond to source
-        final Message response = new HashMessage(this.myVariable.getID(), CoCoASolver.COST_MSG);
-        response.put("costMap", costMap);
-        response.put("cpa", this.context);
+        final Message response = new TypedMessage(this.myVariable.getID(), CoCoASolver.COST_MSG);
+        response.put("costs", costs);
+        response.put("cpa", this.cpa.deltaFor(source));
 
-        MailMan.sendMessage(source, response);
+        this.bus.sendMessage(source, response);
     }
 
     /**
@@ -206,10 +221,9 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
      *
      * @param m
      */
-    protected synchronized void processCostMessage(final Message m) {
-        @SuppressWarnings("unchecked")
-        final CostMap<V> costMap = (CostMap<V>) m.get("costMap");
-        this.receivedMaps.add(costMap);
+    protected void processCostMessage(final Message m) {
+        final CostVector costs = CoCoSolver.receivedCosts(m, this.myVariable);
+        this.receivedMaps.add(costs);
 
         if (this.receivedMaps.size() >= this.numNeighbors()) {
             this.pickValue();
@@ -228,13 +242,15 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
         // Create a problemContext to play around with to see which assignment is optimal
         final AssignmentMap<V> pa = this.context.clone();
 
+        // Sum the total cost of every value that all neighbors will incur
+        final CostVector neighborCosts = new CostVector(this.myVariable.getRange());
+        for (final CostVector costs : this.receivedMaps) {
+            neighborCosts.add(costs);
+        }
+
+        int index = 0;
         for (final V iterAssignment : this.myVariable) {
-            // Sum the total cost of this partial assignment that all neighbors will incur
-            double totalCost = 0;
-            for (final CostMap<V> neighborMap : this.receivedMaps) {
-                final Double neighborCost = neighborMap.get(iterAssignment);
-                totalCost += neighborCost;
-            }
+            double totalCost = neighborCosts.get(index++);
 
             // Add my OWN cost
             pa.setAssignment(this.myVariable, iterAssignment);
@@ -260,10 +276,10 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
         }
 
         // Set the value
-        final V assign = bestAssignment.randomElement();
+        final V assign = bestAssignment.randomElement(this.random);
 
         this.myVariable.setValue(assign);
-        this.context.setAssignment(this.myVariable, assign);
+        this.cpa.setAssignment(this.myVariable, assign);
 
         this.updateLocalState(State.DONE);
         this.activateNeighbors();
@@ -277,11 +293,9 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
     protected void updateLocalState(final State newState) {
         this.currentState = newState;
 
-        final Message updateMessage = new HashMessage(this.myVariable.getID(), CoCoASolver.CURRENT_STATE);
+        final Message updateMessage = new TypedMessage(this.myVariable.getID(), CoCoASolver.CURRENT_STATE);
         updateMessage.put("state", newState.name());
-        updateMessage.put("cpa", this.context);
-
-        this.sendToNeighbors(updateMessage);
+        this.cpa.multicast(this.bus, this.parent, updateMessage);
     }
 
     private void updateRemoteState(final Message m) {
@@ -309,15 +323,14 @@ public class CoCoASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> imple
      * Send an activation message (ASSIGN_VAR) to the non-active neighbors
      */
     protected void activateNeighbors() {
-        final HashMessage nextMessage = new HashMessage(this.myVariable.getID(), CoCoASolver.ASSIGN_VAR);
-        nextMessage.put("cpa", this.context);
-
         // Iterate over the set until we found a non-activated neighbor
         for (final UUID neighborid : this.parent.getConstrainedVariableIds()) {
             // neighbor.push(nextMessage);
             if (!this.neighborStates.containsKey(neighborid) || ((this.neighborStates.get(neighborid) != State.ACTIVE)
                     && (this.neighborStates.get(neighborid) != State.DONE))) {
-                MailMan.sendMessage(neighborid, nextMessage);
+                final TypedMessage nextMessage = new TypedMessage(this.myVariable.getID(), CoCoASolver.ASSIGN_VAR);
+                nextMessage.put("cpa", this.cpa.deltaFor(neighborid));
+                this.bus.sendMessage(neighborid, nextMessage);
                 return;
             }
         }
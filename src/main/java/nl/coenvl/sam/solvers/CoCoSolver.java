@@ -21,15 +21,15 @@
 package nl.coenvl.sam.solvers;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
-import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
 
@@ -49,14 +49,16 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
     protected static final String COST_MSG = "CoCoSolver:CostOfAssignments";
     protected static final String INQUIRE_MSG = "CoCoSolver:InquireAssignment";
 
-    protected List<CostMap<V>> receivedMaps;
+    protected List<CostVector> receivedMaps;
     protected AssignmentMap<V> context;
+    protected final CpaTracker<V> cpa;
     protected boolean started;
 
     public CoCoSolver(final Agent<DiscreteVariable<V>, V> parent) {
         super(parent);
         this.started = false;
         this.context = new AssignmentMap<>();
+        this.cpa = new CpaTracker<>(this.context);
     }
 
     /*
@@ -67,7 +69,7 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
     @Override
     public void init() {
         if (this.isRoot()) {
-            this.push(new HashMessage(null, CoCoSolver.ASSIGN_VAR));
+            this.push(new TypedMessage(null, CoCoSolver.ASSIGN_VAR));
         }
     }
 
@@ -79,9 +81,8 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
     @Override
     public void push(final Message m) {
         if (m.containsKey("cpa")) {
-            @SuppressWarnings("unchecked")
-            final AssignmentMap<V> cpa = (AssignmentMap<V>) m.get("cpa");
-            this.context.putAll(cpa);
+            final AssignmentMap<V> cpa = m.getAssignmentMap("cpa");
+            this.cpa.merge(cpa);
         }
 
         if (m.getType().equals(CoCoSolver.ASSIGN_VAR)) {
@@ -111,19 +112,29 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
     public void reset() {
         super.reset();
         this.started = false;
-        this.context.clear();
+        this.cpa.clear();
         this.receivedMaps = null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        // The neighbors only send the changes to the CPA
+        return true;
+    }
+
     protected void sendInquireMsgs() {
         // Create a map for storing incoming costmap messages
         this.started = true;
         this.receivedMaps = new ArrayList<>();
 
-        final Message m = new HashMessage(this.myVariable.getID(), CoCoSolver.INQUIRE_MSG);
-        m.put("cpa", this.context);
-
-        this.sendToNeighbors(m);
+        final Message m = new TypedMessage(this.myVariable.getID(), CoCoSolver.INQUIRE_MSG);
+        m.put("domain", this.myVariable.getDomain());
+        this.cpa.multicast(this.bus, this.parent, m);
     }
 
     /**
@@ -131,18 +142,19 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      *
      * @param m
      */
+    @SuppressWarnings("unchecked")
     protected void respond(final Message m) {
-        final CostMap<V> costMap = new CostMap<>();
-
         final UUID source = m.getSource();
         final AssignmentMap<V> pa = this.context.clone(); // Should by now already include the CPA of the source
 
-        // Build the cost map making the strong assumption that I have the same
-        // type of variable as the source
-        for (final V iterAssignment : this.myVariable) {
+        // One cost for every value in the domain of the source, in the same order
+        final Collection<V> domain = (Collection<V>) m.get("domain");
+        final CostVector costs = new CostVector(domain.size());
+        int index = 0;
+        for (final V iterAssignment : domain) {
             pa.put(source, iterAssignment);
 
-            Double iterCost = Double.MAX_VALUE;
+            double iterCost = Double.MAX_VALUE;
             if (this.myVariable.isSet()) {
                 iterCost = this.parent.getLocalCostIf(pa);
             } else {
@@ -159,15 +171,15 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
                 }
             }
 
-            costMap.put(iterAssignment, iterCost);
+            costs.set(index++, iterCost);
         }
 
         // Respond to source
-        final Message response = new HashMessage(this.myVariable.getID(), CoCoSolver.COST_MSG);
-        response.put("costMap", costMap);
-        response.put("cpa", this.context);
+        final Message response = new TypedMessage(this.myVariable.getID(), CoCoSolver.COST_MSG);
+        response.put("costs", costs);
+        response.put("cpa", this.cpa.deltaFor(source));
 
-        MailMan.sendMessage(source, response);
+        this.bus.sendMessage(source, response);
     }
 
     /**
@@ -177,9 +189,8 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      * @param m
      */
     protected void processCostMessage(final Message m) {
-        @SuppressWarnings("unchecked")
-        final CostMap<V> costMap = (CostMap<V>) m.get("costMap");
-        this.receivedMaps.add(costMap);
+        final CostVector costs = CoCoSolver.receivedCosts(m, this.myVariable);
+        this.receivedMaps.add(costs);
 
         if (this.receivedMaps.size() < this.numNeighbors()) {
             return;
@@ -188,6 +199,20 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         this.pickValue();
     }
 
+    /**
+     * Returns the costs in a cost message, after checking that there is one for every value of the variable
+     *
+     * @throws IllegalArgumentException if the number of costs does not match the size of the domain
+     */
+    static CostVector receivedCosts(final Message m, final DiscreteVariable<?> variable) {
+        final CostVector costs = m.getCostVector("costs");
+        if (costs.size() != variable.getRange()) {
+            throw new IllegalArgumentException("Received " + costs.size() + " costs from " + m.getSource()
+                    + ", but the domain of " + variable.getName() + " has " + variable.getRange() + " values");
+        }
+        return costs;
+    }
+
     /**
      * This function is called when all cost messages have arrived and I can now make a decision on how to assign the
      * variable
@@ -200,13 +225,15 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         // Create a problemContext to play around with to see which assignment is optimal
         final AssignmentMap<V> pa = this.context.clone();
 
+        // Sum the total cost of every value that all neighbors will incur
+        final CostVector neighborCosts = new CostVector(this.myVariable.getRange());
+        for (final CostVector costs : this.receivedMaps) {
+            neighborCosts.add(costs);
+        }
+
+        int index = 0;
         for (final V iterAssignment : this.myVariable) {
-            // Sum the total cost of this partial assignment that all neighbors will incur
-            double totalCost = 0;
-            for (final CostMap<V> neighborMap : this.receivedMaps) {
-                final Double neighborCost = neighborMap.get(iterAssignment);
-                totalCost += neighborCost;
-            }
+            double totalCost = neighborCosts.get(index++);
 
             // Add my OWN cost
             pa.setAssignment(this.myVariable, iterAssignment);
@@ -224,9 +251,9 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
         }
 
         // Set the value
-        final V assign = bestAssignment.randomElement();
+        final V assign = bestAssignment.randomElement(this.random);
         this.myVariable.setValue(assign);
-        this.context.setAssignment(this.myVariable, assign);
+        this.cpa.setAssignment(this.myVariable, assign);
 
         this.activateNeighbors();
     }
@@ -235,10 +262,8 @@ public class CoCoSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> implem
      * Send an activation message (ASSIGN_VAR) to the non-active neighbors
      */
     protected void activateNeighbors() {
-        final HashMessage nextMessage = new HashMessage(this.myVariable.getID(), CoCoSolver.ASSIGN_VAR);
-        nextMessage.put("cpa", this.context);
-
-        this.sendToNeighbors(nextMessage);
+        final TypedMessage nextMessage = new TypedMessage(this.myVariable.getID(), CoCoSolver.ASSIGN_VAR);
+        this.cpa.multicast(this.bus, this.parent, nextMessage);
     }
 
     protected boolean isRoot() {
@@ -0,0 +1,157 @@
+/**
+ * File CpaTracker.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Variable;
+
+/**
+ * CpaTracker
+ *
+ * Keeps track of which part of the current partial assignment (CPA) of a solver its neighbors have already been sent,
+ * so that messages only have to carry the assignments that changed since the last message to the same neighbor. Every
+ * change to the CPA gets a version number, and for every neighbor the tracker remembers the version it was sent last.
+ * A receiver that merges every delta it gets ends up with the same CPA as when the whole CPA had been sent each time.
+ *
+ * The changes are kept in a map ordered by version, with only the latest change of every variable, so computing a
+ * delta takes time in the order of its size, and not of the size of the CPA.
+ *
+ * All changes to the CPA must go through the tracker. This relies on every message being delivered, so solvers that
+ * use a tracker return true from {@link Solver#requiresReliableDelivery()}, and a bounded {@link SolverRunner} that
+ * drops or coalesces messages refuses to run them.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class CpaTracker<V> {
+
+    private final AssignmentMap<V> context;
+    private final Map<UUID, Integer> versions;
+    private final NavigableMap<Integer, UUID> changes;
+    private final Map<UUID, Integer> sent;
+    private int version;
+
+    /**
+     * @param context the CPA of the solver, which may only be modified through this tracker from now on
+     */
+    public CpaTracker(final AssignmentMap<V> context) {
+        this.context = context;
+        this.versions = new HashMap<>();
+        this.changes = new TreeMap<>();
+        this.sent = new HashMap<>();
+        this.version = 0;
+    }
+
+    /**
+     * Sets the assignment of the variable with the given id. Assigning the value that it already has is not a change,
+     * and will not be sent again.
+     */
+    public void set(final UUID id, final V value) {
+        if (this.context.containsKey(id) && Objects.equals(this.context.get(id), value)) {
+            return;
+        }
+        this.context.put(id, value);
+        final Integer previous = this.versions.put(id, ++this.version);
+        if (previous != null) {
+            this.changes.remove(previous);
+        }
+        this.changes.put(this.version, id);
+    }
+
+    public void setAssignment(final Variable<V> var, final V value) {
+        this.set(var.getID(), value);
+    }
+
+    /**
+     * Merges a received (delta of a) CPA into the CPA
+     */
+    public void merge(final Map<UUID, ? extends V> cpa) {
+        for (final Map.Entry<UUID, ? extends V> e : cpa.entrySet()) {
+            this.set(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * @return the assignments that the neighbor has not been sent yet, which are from now on considered sent
+     */
+    public AssignmentMap<V> deltaFor(final UUID neighbor) {
+        final Integer last = this.sent.put(neighbor, this.version);
+        return this.changedSince(last == null ? 0 : last);
+    }
+
+    /**
+     * Puts the assignments that any of the neighbors of the agent has not been sent yet in the message as "cpa", and
+     * multicasts it to all of them. Some neighbors may receive assignments they already know, which is harmless.
+     *
+     * The assignments only count as sent once the multicast returns. A synchronous transport delivers to the neighbors
+     * one after the other, and the solver may send to a neighbor in reaction before the multicast has reached it. Such a
+     * message must then still carry the assignments of the multicast.
+     */
+    public void multicast(final MessageBus bus, final Agent<?, V> agent, final Message m) {
+        final Collection<UUID> neighbors = agent.getConstrainedVariableIds();
+        final int multicastVersion = this.version;
+
+        int oldest = multicastVersion;
+        for (final UUID neighbor : neighbors) {
+            oldest = Math.min(oldest, this.sent.getOrDefault(neighbor, 0));
+        }
+        m.put("cpa", this.changedSince(oldest));
+
+        bus.multicast(agent.getNeighborMailboxes(), m);
+
+        for (final UUID neighbor : neighbors) {
+            this.sent.merge(neighbor, multicastVersion, Math::max);
+        }
+    }
+
+    private AssignmentMap<V> changedSince(final int since) {
+        final AssignmentMap<V> delta = new AssignmentMap<>();
+        if (since < this.version) {
+            for (final UUID id : this.changes.tailMap(since, false).values()) {
+                delta.put(id, this.context.get(id));
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Clears the CPA, and forgets what was sent to whom
+     */
+    public void clear() {
+        this.context.clear();
+        this.versions.clear();
+        this.changes.clear();
+        this.sent.clear();
+        this.version = 0;
+    }
+
+}
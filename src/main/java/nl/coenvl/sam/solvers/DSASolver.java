@@ -22,8 +22,8 @@ package nl.coenvl.sam.solvers;
 import java.util.UUID;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
@@ -72,8 +72,8 @@ public class DSASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
      * @see org.anon.cocoa.solvers.Solver#init()
      */
     @Override
-    public synchronized void init() {
-        this.myVariable.setValue(this.myVariable.getRandomValue());
+    public void init() {
+        this.myVariable.setValue(this.myVariable.getRandomValue(this.random));
         this.sendUpdate = true;
     }
 
@@ -83,7 +83,7 @@ public class DSASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
      * @see org.anon.cocoa.solvers.Solver#push(org.anon.cocoa.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.getType().equals(DSASolver.UPDATE_VALUE)) {
             final UUID varId = m.getSource();
 
@@ -109,7 +109,7 @@ public class DSASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
      *
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         switch (this.state) {
         case PICKVALUE:
             this.pickValue();
@@ -150,16 +150,18 @@ public class DSASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
             return;
         }
 
-        if ((bestCost == oldCost) && (Math.random() > this.getUpdateProbability())) { // DSASolver.CHANGE_TO_EQUAL_PROB))
+        // DSASolver.CHANGE_TO_EQUAL_PROB))
+        if ((bestCost == oldCost) && (this.random.nextDouble() > this.getUpdateProbability())) {
             return;
         }
 
-        if ((bestCost < oldCost) && (Math.random() > this.getUpdateProbability())) {// DSASolver.CHANGE_TO_IMPROVE_PROB))
+        // DSASolver.CHANGE_TO_IMPROVE_PROB))
+        if ((bestCost < oldCost) && (this.random.nextDouble() > this.getUpdateProbability())) {
             return;
         }
 
         // Chose any of the "best" assignments
-        final V assign = bestAssignment.randomElement();
+        final V assign = bestAssignment.randomElement(this.random);
 
         if (assign != this.myVariable.getValue()) {
             this.myVariable.setValue(assign);
@@ -174,7 +176,7 @@ public class DSASolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
      */
     private void updateMyValue() {
         if (this.sendUpdate) {
-            final HashMessage nextMessage = new HashMessage(this.myVariable.getID(), DSASolver.UPDATE_VALUE);
+            final TypedMessage nextMessage = new TypedMessage(this.myVariable.getID(), DSASolver.UPDATE_VALUE);
             nextMessage.put(DSASolver.KEY_VARVALUE, this.myVariable.getValue());
 
             this.sendToNeighbors(nextMessage);
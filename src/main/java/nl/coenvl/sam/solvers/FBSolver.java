@@ -22,11 +22,11 @@ package nl.coenvl.sam.solvers;
 
 import java.util.ArrayList;
 
-import nl.coenvl.sam.MailMan;
+import nl.coenvl.sam.MessageBus;
 import nl.coenvl.sam.agents.LinkedAgent;
 import nl.coenvl.sam.exceptions.InvalidValueException;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
@@ -51,6 +51,7 @@ public class FBSolver<V> implements Solver {
 
     private final DiscreteVariable<V> myVariable;
     private final LinkedAgent<? extends DiscreteVariable<V>, V> parent;
+    private final MessageBus bus;
     private double pastCost;
 
     /* These are more implementation specific */
@@ -62,6 +63,7 @@ public class FBSolver<V> implements Solver {
     public FBSolver(final LinkedAgent<? extends DiscreteVariable<V>, V> agent) {
         this.parent = agent;
         this.myVariable = this.parent.getVariable();
+        this.bus = this.parent.getContext().getMessageBus();
         this.upperBound = Double.MAX_VALUE;
         this.exploredValues = new ArrayList<>();
         this.context = new AssignmentMap<>();
@@ -101,22 +103,22 @@ public class FBSolver<V> implements Solver {
             // Forward the current assignment to the next child, or broadcast
             // new solution if there is none
             if (this.parent.next() == null) {
-                final Message msg = new HashMessage(this.myVariable.getID(), FBSolver.NEW_SOLUTION);
-                msg.put("pa", this.context);
+                final Message msg = new TypedMessage(this.myVariable.getID(), FBSolver.NEW_SOLUTION);
+                msg.put("pa", this.context.clone());
                 msg.put("paCost", paCost);
-                MailMan.broadCast(msg);
+                this.bus.broadCast(msg);
 
                 this.bestValue = assignment;
                 this.upperBound = paCost;
 
                 this.backtrack();
             } else {
-                final Message msg = new HashMessage(this.myVariable.getID(), FBSolver.CPA_MSG);
+                final Message msg = new TypedMessage(this.myVariable.getID(), FBSolver.CPA_MSG);
 
-                msg.put("pa", this.context);
+                msg.put("pa", this.context.clone());
                 msg.put("paCost", paCost);
 
-                MailMan.sendMessage(this.parent.next(), msg);
+                this.bus.sendMessage(this.parent.next(), msg);
             }
         }
     }
@@ -126,9 +128,9 @@ public class FBSolver<V> implements Solver {
      */
     private void backtrack() {
         if (this.parent.prev() == null) {
-            MailMan.broadCast(new HashMessage(this.myVariable.getID(), FBSolver.TERMINATE));
+            this.bus.broadCast(new TypedMessage(this.myVariable.getID(), FBSolver.TERMINATE));
         } else {
-            MailMan.sendMessage(this.parent.prev(), new HashMessage(this.myVariable.getID(), FBSolver.CPA_MSG));
+            this.bus.sendMessage(this.parent.prev(), new TypedMessage(this.myVariable.getID(), FBSolver.CPA_MSG));
         }
     }
 
@@ -156,15 +158,14 @@ public class FBSolver<V> implements Solver {
         if (msg.getType().equals(FBSolver.CPA_MSG)) {
 
             if (msg.containsKey("pa")) {
-                @SuppressWarnings("unchecked")
-                final AssignmentMap<V> cpa = (AssignmentMap<V>) msg.get("pa");
+                final AssignmentMap<V> cpa = msg.getAssignmentMap("pa");
                 this.context.putAll(cpa);
             }
 
             // Check to see if it is a new branch we need to research instead of
             // backtrack
             if (msg.containsKey("paCost")) {
-                this.pastCost = (Double) msg.get("paCost");
+                this.pastCost = msg.getDouble("paCost");
                 this.context.removeAssignment(this.myVariable);
                 this.exploredValues.clear();
             }
@@ -183,10 +184,9 @@ public class FBSolver<V> implements Solver {
                 e.printStackTrace();
             }
         } else if (msg.getType().equals(FBSolver.NEW_SOLUTION)) {
-            @SuppressWarnings("unchecked")
-            final AssignmentMap<V> solution = (AssignmentMap<V>) msg.get("pa");
+            final AssignmentMap<V> solution = msg.getAssignmentMap("pa");
             this.bestValue = solution.getAssignment(this.myVariable);
-            this.upperBound = (Double) msg.get("paCost");
+            this.upperBound = msg.getDouble("paCost");
         } else {
             System.err.println("Unexpected message of type " + msg.getType());
         }
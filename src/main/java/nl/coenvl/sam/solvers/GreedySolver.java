@@ -19,9 +19,10 @@
 package nl.coenvl.sam.solvers;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
 
@@ -37,10 +38,12 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
 
     private static final String ASSIGN_VAR = "GreedySolver:AssignVariable";
     private final AssignmentMap<V> context;
+    private final CpaTracker<V> cpa;
 
     public GreedySolver(final Agent<DiscreteVariable<V>, V> agent) {
         super(agent);
         this.context = new AssignmentMap<>();
+        this.cpa = new CpaTracker<>(this.context);
     }
 
     /*
@@ -66,15 +69,18 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
     /**
      * @param m
      */
-    private synchronized void pickVar(final AssignmentMap<V> pa) {
-        this.context.putAll(pa);
+    private void pickVar(final AssignmentMap<V> pa) {
+        this.cpa.merge(pa);
         double bestCost = Double.MAX_VALUE;
 
+        // Try the values on a local copy, so that only the chosen one is a change to the CPA
+        final DenseAssignment<V> temp = this.getLocalAssignment(this.context);
+
         final RandomAccessVector<V> bestAssignment = new RandomAccessVector<>();
         for (final V iterAssignment : this.myVariable) {
-            this.context.setAssignment(this.myVariable, iterAssignment);
+            temp.setAssignment(this.myVariable, iterAssignment);
 
-            final double localCost = this.parent.getLocalCostIf(this.context);
+            final double localCost = this.parent.getLocalCostIf(temp);
 
             if (localCost < bestCost) {
                 bestCost = localCost;
@@ -86,16 +92,14 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
             }
         }
 
-        final V assign = bestAssignment.randomElement();
+        final V assign = bestAssignment.randomElement(this.random);
 
         this.myVariable.setValue(assign);
-        this.context.setAssignment(this.myVariable, assign);
-
-        final HashMessage nextMessage = new HashMessage(this.myVariable.getID(), GreedySolver.ASSIGN_VAR);
-        nextMessage.put("cpa", this.context);
+        this.cpa.setAssignment(this.myVariable, assign);
 
+        final TypedMessage nextMessage = new TypedMessage(this.myVariable.getID(), GreedySolver.ASSIGN_VAR);
         // Maybe it would be better if I would send the update message 1 by 1.
-        this.sendToNeighbors(nextMessage);
+        this.cpa.multicast(this.bus, this.parent, nextMessage);
     }
 
     /*
@@ -103,9 +107,8 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
      *
      * @see org.anon.cocoa.solvers.Solver#push(org.anon.cocoa.messages.Message)
      */
-    @SuppressWarnings("unchecked")
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.getType().equals(GreedySolver.ASSIGN_VAR)) {
             if (this.myVariable.isSet()) {
                 return;
@@ -113,7 +116,7 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
 
             AssignmentMap<V> pa;
             if (m.containsKey("cpa")) {
-                pa = (AssignmentMap<V>) m.get("cpa");
+                pa = m.getAssignmentMap("cpa");
             } else {
                 pa = new AssignmentMap<>();
             }
@@ -133,7 +136,18 @@ public class GreedySolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impl
     @Override
     public void reset() {
         super.reset();
-        this.context.clear();
+        this.cpa.clear();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        // The neighbors only send the changes to the CPA
+        return true;
     }
 
 }
@@ -22,10 +22,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
 import nl.coenvl.sam.variables.CostMap;
 import nl.coenvl.sam.variables.DiscreteVariable;
@@ -62,16 +61,16 @@ public class MCSMGMSolver<V> extends MGMSolver<V> {
     }
 
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         super.push(m);
 
         if (m.getType().equals(MCSMGMSolver.IMPACT_VALUE)) {
-            this.neighborImpacts.put(m.getSource(), (Double) m.get("delta"));
+            this.neighborImpacts.put(m.getSource(), m.getDouble("delta"));
         }
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         switch (this.algoState) {
         case SENDIMPACT:
             this.sendImpact();
@@ -124,7 +123,7 @@ public class MCSMGMSolver<V> extends MGMSolver<V> {
             }
 
             // Inform the neighbors
-            final HashMessage m = new HashMessage(this.myVariable.getID(), MCSMGMSolver.IMPACT_VALUE);
+            final TypedMessage m = new TypedMessage(this.myVariable.getID(), MCSMGMSolver.IMPACT_VALUE);
 
             // Only add delta if we want to propagate back our cost
             if (delta > 0) {
@@ -135,7 +134,7 @@ public class MCSMGMSolver<V> extends MGMSolver<V> {
             }
 
             this.constraintChanges.put(key, r);
-            MailMan.sendMessage(target, m);
+            this.bus.sendMessage(target, m);
         }
     }
 
@@ -193,7 +192,7 @@ public class MCSMGMSolver<V> extends MGMSolver<V> {
         this.bestLocalReduction = before - bestCost;
         this.bestLocalAssignment = bestAssignment;
 
-        final Message lrMsg = new HashMessage(this.myVariable.getID(), MGMSolver.LOCAL_REDUCTION);
+        final Message lrMsg = new TypedMessage(this.myVariable.getID(), MGMSolver.LOCAL_REDUCTION);
         lrMsg.put("LR", this.bestLocalReduction);
 
         this.sendToNeighbors(lrMsg);
@@ -26,12 +26,12 @@ import java.util.UUID;
 
 import com.google.gson.Gson;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.Agent;
 import nl.coenvl.sam.exceptions.InvalidValueException;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.PublishableMap;
 import nl.coenvl.sam.variables.RandomAccessVector;
@@ -98,16 +98,16 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
     }
 
     @Override
-    public synchronized void init() {
-        this.myVariable.setValue(this.myVariable.getRandomValue());
+    public void init() {
+        this.myVariable.setValue(this.myVariable.getRandomValue(this.random));
     }
 
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         final UUID source = m.getSource();
 
         if (m.getType().equals(MGM2Solver.UPDATE_VALUE)) {
-            final Integer value = (Integer) m.get("value");
+            final int value = m.getInteger("value");
 
             this.myProblemContext.put(source, value);
         } else if (m.getType().equals(MGM2Solver.OFFER)) {
@@ -129,7 +129,7 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
         } else if (m.getType().equals(MGM2Solver.GAIN)) {
 
             // Any ACCEPT message should contain this...
-            final Double gain = (Double) m.get("gain");
+            final double gain = m.getDouble("gain");
             this.neighborGains.put(source, gain);
 
         } else if (m.getType().equals(MGM2Solver.GO)) {
@@ -163,7 +163,7 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         switch (this.algoState) {
         case Offer:
             this.sendOffer();
@@ -198,7 +198,7 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
      * This function is exactly the same as MGMSolver.sendValue()
      */
     private void sendValue() {
-        final Message updateMsg = new HashMessage(this.myVariable.getID(), MGM2Solver.UPDATE_VALUE);
+        final Message updateMsg = new TypedMessage(this.myVariable.getID(), MGM2Solver.UPDATE_VALUE);
         updateMsg.put("value", this.myVariable.getValue());
 
         this.sendToNeighbors(updateMsg);
@@ -212,13 +212,13 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
         this.myProblemContext.setAssignment(this.myVariable, this.myVariable.getValue());
 
         // First determine whether we will offer or receive
-        if (Math.random() > MGM2Solver.OFFER_PROBABILITY) {
+        if (this.random.nextDouble() > MGM2Solver.OFFER_PROBABILITY) {
             this.isOfferer = true;
 
             // Select a random neighbor
             final RandomAccessVector<UUID> list = new RandomAccessVector<>();
             list.addAll(this.parent.getConstrainedVariableIds());
-            final UUID neighbor = list.randomElement();
+            final UUID neighbor = list.randomElement(this.random);
 
             assert (neighbor != null);
 
@@ -242,10 +242,10 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
             }
 
             // Send the offers to the randomly selected neighbor
-            final Message offerMessage = new HashMessage(this.myVariable.getID(), MGM2Solver.OFFER);
+            final Message offerMessage = new TypedMessage(this.myVariable.getID(), MGM2Solver.OFFER);
             offerMessage.put("offers", offerList);
 
-            MailMan.sendMessage(neighbor, offerMessage);
+            this.bus.sendMessage(neighbor, offerMessage);
         } else {
             this.isOfferer = false;
         }
@@ -261,19 +261,20 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
             // Get current costs
             final double before = this.parent.getLocalCostIf(this.myProblemContext);
 
-            AssignmentMap<Integer> temp;
+            // Evaluate every offer on the same assignment, undoing the offer afterwards
+            final DenseAssignment<Integer> temp = this.getLocalAssignment(this.myProblemContext);
 
             Offer bestOffer = null;
             double bestGain = Double.MIN_VALUE;
             for (final Offer suggestedOffer : this.receivedOffers) {
-                temp = this.myProblemContext.clone();
-
                 assert (suggestedOffer.receiver.equals(this.myVariable.getID()));
 
-                temp.put(suggestedOffer.offerer, suggestedOffer.offererValue);
-                temp.put(suggestedOffer.receiver, suggestedOffer.receiverValue);
+                final int mark = temp.mark();
+                temp.set(temp.slotOf(suggestedOffer.offerer), suggestedOffer.offererValue);
+                temp.set(temp.slotOf(suggestedOffer.receiver), suggestedOffer.receiverValue);
 
                 final double val = this.parent.getLocalCostIf(temp);
+                temp.rollback(mark);
                 suggestedOffer.receiverReduction = before - val;
                 final double globalReduction = MGM2Solver.computeGlobalGain(suggestedOffer.offererReduction,
                         suggestedOffer.receiverReduction);
@@ -285,12 +286,12 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
 
             // Send accept if there is a global reduction
             if (bestOffer != null) {
-                final Message accept = new HashMessage(this.myVariable.getID(), MGM2Solver.ACCEPT);
+                final Message accept = new TypedMessage(this.myVariable.getID(), MGM2Solver.ACCEPT);
                 accept.put("offer", bestOffer.toJson());
 
                 // System.out.println(this.parent.getName() + " accepts offer from " + bestOffer.offerer.getName());
                 // bestOffer.offerer.push(accept);
-                MailMan.sendMessage(bestOffer.offerer, accept);
+                this.bus.sendMessage(bestOffer.offerer, accept);
 
                 // Set the value now
                 this.committedOffer = bestOffer;
@@ -304,7 +305,7 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
 
     private void sendGain() {
         // System.out.println(this.parent.getName() + " sending gain messages");
-        final Message gainMessage = new HashMessage(this.myVariable.getID(), MGM2Solver.GAIN);
+        final Message gainMessage = new TypedMessage(this.myVariable.getID(), MGM2Solver.GAIN);
 
         if (this.committedOffer != null) {
 
@@ -389,8 +390,8 @@ public class MGM2Solver extends AbstractSolver<DiscreteVariable<Integer>, Intege
             }
 
             if (this.bestLocalReduction > bestNeighborReduction) {
-                final Message goMessage = new HashMessage(this.myVariable.getID(), MGM2Solver.GO);
-                MailMan.sendMessage(partner, goMessage);
+                final Message goMessage = new TypedMessage(this.myVariable.getID(), MGM2Solver.GO);
+                this.bus.sendMessage(partner, goMessage);
             }
 
             // committedOffer = null;
@@ -21,8 +21,8 @@ package nl.coenvl.sam.solvers;
 import java.util.UUID;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
@@ -62,11 +62,11 @@ public class MGMSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
 
     @Override
     public void init() {
-        this.myVariable.setValue(this.myVariable.getRandomValue());
+        this.myVariable.setValue(this.myVariable.getRandomValue(this.random));
     }
 
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         final UUID source = m.getSource();
 
         if (m.getType().equals(MGMSolver.UPDATE_VALUE)) {
@@ -74,12 +74,12 @@ public class MGMSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
             final V value = (V) m.get("value");
             this.myProblemContext.put(source, value);
         } else if (m.getType().equals(MGMSolver.LOCAL_REDUCTION)) {
-            this.neighborReduction.put(source, (Double) m.get("LR"));
+            this.neighborReduction.put(source, m.getDouble("LR"));
         }
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         switch (this.algoState) {
         case SENDGAIN:
             this.sendGain();
@@ -100,7 +100,7 @@ public class MGMSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
     }
 
     protected void sendValue() {
-        final Message updateMsg = new HashMessage(this.myVariable.getID(), MGMSolver.UPDATE_VALUE);
+        final Message updateMsg = new TypedMessage(this.myVariable.getID(), MGMSolver.UPDATE_VALUE);
         updateMsg.put("value", this.myVariable.getValue());
 
         this.sendToNeighbors(updateMsg);
@@ -133,7 +133,7 @@ public class MGMSolver<V> extends AbstractSolver<DiscreteVariable<V>, V> impleme
         this.bestLocalReduction = before - bestCost;
         this.bestLocalAssignment = bestAssignment;
 
-        final Message lrMsg = new HashMessage(this.myVariable.getID(), MGMSolver.LOCAL_REDUCTION);
+        final Message lrMsg = new TypedMessage(this.myVariable.getID(), MGMSolver.LOCAL_REDUCTION);
         lrMsg.put("LR", this.bestLocalReduction);
 
         this.sendToNeighbors(lrMsg);
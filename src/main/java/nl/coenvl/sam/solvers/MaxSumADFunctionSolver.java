@@ -21,7 +21,6 @@ package nl.coenvl.sam.solvers;
 
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.ConstraintAgent;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.variables.DiscreteVariable;
@@ -54,7 +53,7 @@ public class MaxSumADFunctionSolver<T extends DiscreteVariable<V>, V> extends Ma
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         this.iterCount++;
         if ((this.iterCount % MaxSumADFunctionSolver.REVERSE_AFTER_ITERS) == 0) {
             this.direction = !this.direction;
@@ -69,7 +68,7 @@ public class MaxSumADFunctionSolver<T extends DiscreteVariable<V>, V> extends Ma
             }
 
             Message f2v = this.fun2varmessage(target);
-            MailMan.sendMessage(target, f2v);
+            this.bus.sendMessage(target, f2v);
         }
 
         // this.receivedCosts.clear();
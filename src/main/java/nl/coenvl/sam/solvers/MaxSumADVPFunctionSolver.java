@@ -22,10 +22,10 @@ package nl.coenvl.sam.solvers;
 import java.util.ArrayList;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.ConstraintAgent;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostVector;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -53,7 +53,7 @@ public class MaxSumADVPFunctionSolver<T extends DiscreteVariable<V>, V> extends
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         super.push(m);
 
         if (m.containsKey("value")) {
@@ -82,7 +82,7 @@ public class MaxSumADVPFunctionSolver<T extends DiscreteVariable<V>, V> extends
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         this.iterCount++;
         if ((this.iterCount % MaxSumADFunctionSolver.REVERSE_AFTER_ITERS) == 0) {
             this.direction = !this.direction;
@@ -97,7 +97,7 @@ public class MaxSumADVPFunctionSolver<T extends DiscreteVariable<V>, V> extends
             }
 
             final Message f2vadvp = this.fun2varmessage(target);
-            MailMan.sendMessage(target, f2vadvp);
+            this.bus.sendMessage(target, f2vadvp);
         }
 
         // this.receivedCosts.clear();
@@ -109,6 +109,8 @@ public class MaxSumADVPFunctionSolver<T extends DiscreteVariable<V>, V> extends
             return this.parent.getLocalCostIf(temp);
         } else {
             final UUID neighbor = neighbors.get(i);
+            final T variable = this.constraintAgent.getVariableWithID(neighbor);
+            final CostVector received = this.receivedCosts.get(neighbor);
             double bestCost = Double.MAX_VALUE;
 
             if (this.knownValues.containsKey(neighbor)) {
@@ -117,19 +119,22 @@ public class MaxSumADVPFunctionSolver<T extends DiscreteVariable<V>, V> extends
                 temp.put(neighbor, val);
                 double cost = this.findMin(temp, neighbors, i + 1);
 
-                if (this.receivedCosts.containsKey(neighbor) && this.receivedCosts.get(neighbor).containsKey(val)) {
-                    cost += this.receivedCosts.get(neighbor).get(val);
+                final int index = variable.indexOf(val);
+                if ((received != null) && (index >= 0)) {
+                    cost += received.get(index);
                 }
 
                 return cost;
             } else {
-                for (final V val : this.constraintAgent.getVariableWithID(neighbor)) {
+                int index = 0;
+                for (final V val : variable) {
                     temp.put(neighbor, val);
                     double cost = this.findMin(temp, neighbors, i + 1);
 
-                    if (this.receivedCosts.containsKey(neighbor) && this.receivedCosts.get(neighbor).containsKey(val)) {
-                        cost += this.receivedCosts.get(neighbor).get(val);
+                    if (received != null) {
+                        cost += received.get(index);
                     }
+                    index++;
 
                     if (cost < bestCost) {
                         bestCost = cost;
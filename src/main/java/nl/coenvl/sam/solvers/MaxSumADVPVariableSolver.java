@@ -21,7 +21,6 @@ package nl.coenvl.sam.solvers;
 
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.VariableAgent;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.variables.DiscreteVariable;
@@ -52,7 +51,7 @@ public class MaxSumADVPVariableSolver<T extends DiscreteVariable<V>, V> extends
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         this.iterCount++;
         if ((this.iterCount % MaxSumADVariableSolver.REVERSE_AFTER_ITERS) == 0) {
             this.direction = !this.direction;
@@ -71,7 +70,7 @@ public class MaxSumADVPVariableSolver<T extends DiscreteVariable<V>, V> extends
                 v2f.put("value", this.myVariable.getValue());
             }
 
-            MailMan.sendMessage(target, v2f);
+            this.bus.sendMessage(target, v2f);
         }
 
         this.setMinimizingValue();
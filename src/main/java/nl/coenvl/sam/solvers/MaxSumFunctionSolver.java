@@ -24,12 +24,11 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.ConstraintAgent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
-import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -43,7 +42,7 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
         implements IterativeSolver, BiPartiteGraphSolver {
 
     protected final ConstraintAgent<T, V> constraintAgent;
-    protected Map<UUID, CostMap<V>> receivedCosts;
+    protected Map<UUID, CostVector> receivedCosts;
 
     public MaxSumFunctionSolver(final ConstraintAgent<T, V> agent) {
         super(agent);
@@ -67,12 +66,11 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.getType().equals("VAR2FUN")) {
             final UUID neighbor = m.getSource();
-            @SuppressWarnings("unchecked")
-            final CostMap<V> costMap = (CostMap<V>) m.get("costMap");
-            this.receivedCosts.put(neighbor, costMap);
+            final CostVector costs = m.getCostVector("costs");
+            this.receivedCosts.put(neighbor, costs);
         }
     }
 
@@ -94,13 +92,13 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         // Only works for binary constraints
         assert (super.numNeighbors() == 2);
 
         for (final UUID target : this.parent.getConstrainedVariableIds()) {
             final Message f2v = this.fun2varmessage(target);
-            MailMan.sendMessage(target, f2v);
+            this.bus.sendMessage(target, f2v);
         }
 
         this.receivedCosts.clear();
@@ -111,17 +109,19 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
      */
     protected final Message fun2varmessage(final UUID target) {
         // For all values of variable
-        final CostMap<V> costMap = new CostMap<>();
+        final T targetVariable = this.constraintAgent.getVariableWithID(target);
+        final CostVector costs = new CostVector(targetVariable.getRange());
 
-        for (final V value : this.constraintAgent.getVariableWithID(target)) {
-            final AssignmentMap<V> temp = new AssignmentMap<>();
+        final ArrayList<UUID> neighbors = new ArrayList<>(this.parent.getConstrainedVariableIds());
+        neighbors.remove(target);
+
+        final AssignmentMap<V> temp = new AssignmentMap<>();
+        int index = 0;
+        for (final V value : targetVariable) {
             temp.put(target, value);
 
             // double minCost = Double.MAX_VALUE;
 
-            final ArrayList<UUID> neighbors = new ArrayList<>(this.parent.getConstrainedVariableIds());
-            neighbors.remove(target);
-
             final double minCost = this.findMin(temp, neighbors, 0);
 
             // // Now we know there is only one other neighbor, so iterate for him
@@ -150,11 +150,11 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
             // minCost = this.parent.getLocalCostIf(temp);
             // }
 
-            costMap.put(value, minCost);
+            costs.set(index++, minCost);
         }
 
-        final Message msg = new HashMessage(this.constraintAgent.getID(), "FUN2VAR");
-        msg.put("costMap", costMap);
+        final Message msg = new TypedMessage(this.constraintAgent.getID(), "FUN2VAR");
+        msg.put("costs", costs);
 
         return msg;
     }
@@ -170,14 +170,17 @@ public class MaxSumFunctionSolver<T extends DiscreteVariable<V>, V> extends Abst
             return this.parent.getLocalCostIf(temp);
         } else {
             final UUID neighbor = neighbors.get(i);
+            final CostVector received = this.receivedCosts.get(neighbor);
             double bestCost = Double.MAX_VALUE;
+            int index = 0;
             for (final V val : this.constraintAgent.getVariableWithID(neighbor)) {
                 temp.put(neighbor, val);
                 double cost = this.findMin(temp, neighbors, i + 1);
 
-                if (this.receivedCosts.containsKey(neighbor) && this.receivedCosts.get(neighbor).containsKey(val)) {
-                    cost += this.receivedCosts.get(neighbor).get(val);
+                if (received != null) {
+                    cost += received.get(index);
                 }
+                index++;
 
                 if (cost < bestCost) {
                     bestCost = cost;
@@ -23,11 +23,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import nl.coenvl.sam.MailMan;
 import nl.coenvl.sam.agents.VariableAgent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
-import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.variables.CostVector;
 import nl.coenvl.sam.variables.DiscreteVariable;
 
 /**
@@ -40,7 +39,7 @@ import nl.coenvl.sam.variables.DiscreteVariable;
 public class MaxSumVariableSolver<T extends DiscreteVariable<V>, V> extends AbstractSolver<T, V>
         implements IterativeSolver, BiPartiteGraphSolver {
 
-    private final Map<UUID, CostMap<V>> receivedCosts;
+    private final Map<UUID, CostVector> receivedCosts;
     protected final VariableAgent<T, V> variableAgent;
 
     public MaxSumVariableSolver(final VariableAgent<T, V> agent) {
@@ -65,13 +64,12 @@ public class MaxSumVariableSolver<T extends DiscreteVariable<V>, V> extends Abst
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
 
         if (m.getType().equals("FUN2VAR")) {
             final UUID neighbor = m.getSource();
-            @SuppressWarnings("unchecked")
-            final CostMap<V> costMap = (CostMap<V>) m.get("costMap");
-            this.receivedCosts.put(neighbor, costMap);
+            final CostVector costs = m.getCostVector("costs");
+            this.receivedCosts.put(neighbor, costs);
         }
 
     }
@@ -92,12 +90,12 @@ public class MaxSumVariableSolver<T extends DiscreteVariable<V>, V> extends Abst
      * @see nl.coenvl.sam.solvers.IterativeSolver#tick()
      */
     @Override
-    public synchronized void tick() {
+    public void tick() {
         // Target represents function node f
         for (final UUID target : this.variableAgent.getFunctionAdresses()) {
             final Message v2f = this.var2funMessage(target);
 
-            MailMan.sendMessage(target, v2f);
+            this.bus.sendMessage(target, v2f);
         }
 
         this.setMinimizingValue();
@@ -106,62 +104,38 @@ public class MaxSumVariableSolver<T extends DiscreteVariable<V>, V> extends Abst
 
     protected final Message var2funMessage(final UUID target) {
         // For all values of variable
-        final CostMap<V> costMap = new CostMap<>();
-        // double totalCost = 0;
-        double minCost = Double.MAX_VALUE;
-
-        for (final V value : this.myVariable) {
-            double valueCost = 0;
-
-            // The sum of costs for this value it received from all function neighbors apart from f in iteration i −
-            // 1.
-            for (final UUID neighbor : this.variableAgent.getFunctionAdresses()) {
-                if (neighbor != target) {
-                    if (this.receivedCosts.containsKey(neighbor)
-                            && this.receivedCosts.get(neighbor).containsKey(value)) {
-                        valueCost += this.receivedCosts.get(neighbor).get(value);
-                    }
+        final CostVector costs = new CostVector(this.myVariable.getRange());
+
+        // The sum of costs for every value it received from all function neighbors apart from f in iteration i − 1.
+        for (final UUID neighbor : this.variableAgent.getFunctionAdresses()) {
+            if (neighbor != target) {
+                final CostVector received = this.receivedCosts.get(neighbor);
+                if (received != null) {
+                    costs.add(received);
                 }
             }
-
-            if (valueCost < minCost) {
-                minCost = valueCost;
-            }
-
-            // totalCost += valueCost;
-            costMap.put(value, valueCost);
         }
 
         // Normalize to avoid increasingly large values
-        // final double avg = totalCost / costMap.size();
-        for (final V value : this.myVariable) {
-            costMap.put(value, costMap.get(value) - minCost);
-        }
+        costs.normalize();
 
-        final Message msg = new HashMessage(this.myVariable.getID(), "VAR2FUN");
-        msg.put("costMap", costMap);
+        final Message msg = new TypedMessage(this.myVariable.getID(), "VAR2FUN");
+        msg.put("costs", costs);
         return msg;
     }
 
     protected final void setMinimizingValue() {
-        double minCost = Double.MAX_VALUE;
-        V bestAssignment = null;
-
-        for (final V value : this.myVariable) {
-            double valueCost = 0;
-            for (final UUID neighbor : this.variableAgent.getFunctionAdresses()) {
-                if (this.receivedCosts.containsKey(neighbor) && this.receivedCosts.get(neighbor).containsKey(value)) {
-                    valueCost += this.receivedCosts.get(neighbor).get(value);
-                }
-            }
-
-            if (valueCost < minCost) {
-                minCost = valueCost;
-                bestAssignment = value;
+        final CostVector costs = new CostVector(this.myVariable.getRange());
+        for (final UUID neighbor : this.variableAgent.getFunctionAdresses()) {
+            final CostVector received = this.receivedCosts.get(neighbor);
+            if (received != null) {
+                costs.add(received);
             }
         }
-        if (bestAssignment != null) {
-            this.myVariable.setValue(bestAssignment);
+
+        final int bestIndex = costs.argmin();
+        if (bestIndex >= 0) {
+            this.myVariable.setValueIndex(bestIndex);
         } else {
             // Do nothing
         }
@@ -0,0 +1,157 @@
+/**
+ * File MpscMessageQueue.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import nl.coenvl.sam.messages.Message;
+
+/**
+ * MpscMessageQueue
+ *
+ * An unbounded, lock-free queue of messages for many producers and a single consumer. Producers never block or wait
+ * for each other: adding a message is a single atomic swap of the tail, after which the previous tail is linked to
+ * the new node. Only one thread at a time may take messages from the queue.
+ *
+ * Since a producer links its node after swapping the tail, the consumer may briefly not see a message that was
+ * already counted. {@link #size()} and {@link #isEmpty()} count the message from the moment it is offered, so that a
+ * consumer that finds nothing to poll but a non-empty queue knows to try again.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class MpscMessageQueue {
+
+    private static final class Node {
+
+        Message item;
+        volatile Node next;
+
+        Node(final Message item) {
+            this.item = item;
+        }
+
+    }
+
+    private final AtomicReference<Node> tail;
+    private final AtomicInteger size;
+    private Node head;
+
+    private volatile Thread waiter;
+
+    public MpscMessageQueue() {
+        this.head = new Node(null);
+        this.tail = new AtomicReference<>(this.head);
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Adds the message to the queue, from any thread.
+     *
+     * @param m The message to add
+     * @return The number of messages in the queue, including this one
+     */
+    public int offer(final Message m) {
+        final Node node = new Node(m);
+        final int count = this.size.incrementAndGet();
+        final Node previous = this.tail.getAndSet(node);
+        previous.next = node;
+
+        final Thread consumer = this.waiter;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return count;
+    }
+
+    /**
+     * Takes the oldest message from the queue. May only be called by the consumer.
+     *
+     * @return The oldest message, or null if there is none that is completely added yet
+     */
+    public Message poll() {
+        final Node next = this.head.next;
+        if (next == null) {
+            return null;
+        }
+
+        final Message m = next.item;
+        next.item = null;
+        this.head = next;
+        this.size.decrementAndGet();
+        return m;
+    }
+
+    /**
+     * Takes the oldest message from the queue, and waits for one if there is none. May only be called by the consumer.
+     *
+     * @return The oldest message
+     * @throws InterruptedException If the consumer is interrupted while waiting
+     */
+    public Message take() throws InterruptedException {
+        Message m;
+        while ((m = this.poll()) == null) {
+            this.waiter = Thread.currentThread();
+            // Check again, a producer may have missed the waiter
+            if ((m = this.poll()) != null) {
+                this.waiter = null;
+                break;
+            }
+
+            LockSupport.park(this);
+            this.waiter = null;
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Removes all messages that are in the queue. May only be called by the consumer, or while there is none.
+     *
+     * @return The number of messages that were removed
+     */
+    public int clear() {
+        int cleared = 0;
+        while (this.poll() != null) {
+            cleared++;
+        }
+        return cleared;
+    }
+
+    /**
+     * @return The number of messages in the queue
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * @return true if there are no messages in the queue
+     */
+    public boolean isEmpty() {
+        return this.size.get() == 0;
+    }
+
+}
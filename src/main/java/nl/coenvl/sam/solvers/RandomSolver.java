@@ -19,6 +19,8 @@
  */
 package nl.coenvl.sam.solvers;
 
+import java.util.SplittableRandom;
+
 import nl.coenvl.sam.agents.Agent;
 import nl.coenvl.sam.messages.Message;
 import nl.coenvl.sam.variables.Variable;
@@ -33,9 +35,11 @@ import nl.coenvl.sam.variables.Variable;
 public class RandomSolver<T> implements Solver {
 
     private final Variable<T> myVariable;
+    private final SplittableRandom random;
 
     public RandomSolver(Agent<? extends Variable<T>, T> agent) {
         this.myVariable = agent.getVariable();
+        this.random = agent.getRandom().split();
     }
 
     /*
@@ -45,7 +49,7 @@ public class RandomSolver<T> implements Solver {
      */
     @Override
     public void init() {
-        this.myVariable.setValue(this.myVariable.getRandomValue());
+        this.myVariable.setValue(this.myVariable.getRandomValue(this.random));
     }
 
     /*
@@ -23,10 +23,10 @@ package nl.coenvl.sam.solvers;
 import java.util.UUID;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.AssignmentMap;
-import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.RandomAccessVector;
 
@@ -53,7 +53,7 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         this.neighborReductions.clear();
         super.tick();
     }
@@ -64,11 +64,10 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.containsKey("cpa")) {
-            @SuppressWarnings("unchecked")
-            final AssignmentMap<V> cpa = (AssignmentMap<V>) m.get("cpa");
-            this.context.putAll(cpa);
+            final AssignmentMap<V> cpa = m.getAssignmentMap("cpa");
+            this.cpa.merge(cpa);
         }
 
         if (m.getType().equals(CoCoSolver.ASSIGN_VAR)) {
@@ -89,9 +88,8 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
 
     @Override
     protected void processCostMessage(final Message m) {
-        @SuppressWarnings("unchecked")
-        final CostMap<V> costMap = (CostMap<V>) m.get("costMap");
-        this.receivedMaps.add(costMap);
+        final CostVector costs = CoCoSolver.receivedCosts(m, this.myVariable);
+        this.receivedMaps.add(costs);
 
         if (this.receivedMaps.size() >= this.numNeighbors()) {
             this.computeLocalGain();
@@ -99,7 +97,7 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
     }
 
     private void processReductionMessage(final Message m) {
-        this.neighborReductions.put(m.getSource(), (Double) m.get("reduction"));
+        this.neighborReductions.put(m.getSource(), m.getDouble("reduction"));
 
         // If also WE are done, we can pick a value
         if (this.started && (this.bestLocalAssignment != null)
@@ -138,7 +136,7 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
      */
     private void setVariable() {
         this.myVariable.setValue(this.bestLocalAssignment);
-        this.context.setAssignment(this.myVariable, this.bestLocalAssignment);
+        this.cpa.setAssignment(this.myVariable, this.bestLocalAssignment);
     }
 
     /**
@@ -147,9 +145,10 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
     private void computeLocalGain() {
         // Compute cost before any changes
         double before = this.parent.getLocalCostIf(this.context);
-        for (final CostMap<V> neighborMap : this.receivedMaps) {
-            if (this.myVariable.isSet() && neighborMap.containsKey(this.myVariable.getValue())) {
-                before += neighborMap.get(this.myVariable.getValue());
+        if (this.myVariable.isSet()) {
+            final int current = this.myVariable.getValueIndex();
+            for (final CostVector costs : this.receivedMaps) {
+                before += costs.get(current);
             }
         }
 
@@ -160,13 +159,15 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
         // Create a problemContext to play around with to see which assignment is optimal
         final AssignmentMap<V> pa = this.context.clone();
 
+        // Sum the total cost of every value that all neighbors will incur
+        final CostVector neighborCosts = new CostVector(this.myVariable.getRange());
+        for (final CostVector costs : this.receivedMaps) {
+            neighborCosts.add(costs);
+        }
+
+        int index = 0;
         for (final V iterAssignment : this.myVariable) {
-            // Sum the total cost of this partial assignment that all neighbors will incur
-            double totalCost = 0;
-            for (final CostMap<V> neighborMap : this.receivedMaps) {
-                final Double neighborCost = neighborMap.get(iterAssignment);
-                totalCost += neighborCost;
-            }
+            double totalCost = neighborCosts.get(index++);
 
             // Add my OWN cost
             pa.setAssignment(this.myVariable, iterAssignment);
@@ -184,7 +185,7 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
         }
 
         // Set the value
-        this.bestLocalAssignment = bestAssignment.randomElement();
+        this.bestLocalAssignment = bestAssignment.randomElement(this.random);
         this.bestLocalReduction = before - bestCost;
         assert (this.bestLocalAssignment != null);
 
@@ -197,7 +198,7 @@ public class ReCoCoMGMSolver<V> extends ReCoCoSolver<V> {
         if (!this.myVariable.isSet()) {
             this.setVariable();
         } else { // if (bestLocalReduction > 0)
-            final Message msg = new HashMessage(this.myVariable.getID(), ReCoCoMGMSolver.REDUCTION_MSG);
+            final Message msg = new TypedMessage(this.myVariable.getID(), ReCoCoMGMSolver.REDUCTION_MSG);
             msg.put("reduction", this.bestLocalReduction);
             this.sendToNeighbors(msg);
         }
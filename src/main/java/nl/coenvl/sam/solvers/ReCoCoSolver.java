@@ -40,7 +40,7 @@ public class ReCoCoSolver<V> extends CoCoSolver<V> implements IterativeSolver {
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         this.started = false;
         if (this.isRoot()) {
             this.sendInquireMsgs();
@@ -55,9 +55,8 @@ public class ReCoCoSolver<V> extends CoCoSolver<V> implements IterativeSolver {
     @Override
     public void push(final Message m) {
         if (m.containsKey("cpa")) {
-            @SuppressWarnings("unchecked")
-            final AssignmentMap<V> cpa = (AssignmentMap<V>) m.get("cpa");
-            this.context.putAll(cpa);
+            final AssignmentMap<V> cpa = m.getAssignmentMap("cpa");
+            this.cpa.merge(cpa);
         }
 
         if (m.getType().equals(CoCoSolver.ASSIGN_VAR)) {
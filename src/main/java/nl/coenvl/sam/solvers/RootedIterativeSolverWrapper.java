@@ -19,8 +19,8 @@
 package nl.coenvl.sam.solvers;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -58,7 +58,7 @@ public class RootedIterativeSolverWrapper<T extends Variable<V>, V> extends Abst
             this.wrappedSolver.init();
 
             this.counter++;
-            final Message initMessage = new HashMessage(this.myVariable.getID(),
+            final Message initMessage = new TypedMessage(this.myVariable.getID(),
                     RootedIterativeSolverWrapper.INIT_NEXT);
             initMessage.put(RootedIterativeSolverWrapper.COUNTFIELD, this.counter);
             super.sendToNeighbors(initMessage);
@@ -71,9 +71,9 @@ public class RootedIterativeSolverWrapper<T extends Variable<V>, V> extends Abst
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.containsKey(RootedIterativeSolverWrapper.COUNTFIELD)) {
-            final int mcount = (int) m.get(RootedIterativeSolverWrapper.COUNTFIELD);
+            final int mcount = m.getInteger(RootedIterativeSolverWrapper.COUNTFIELD);
             if (mcount > this.counter) {
                 this.counter = mcount;
             } else {
@@ -104,7 +104,7 @@ public class RootedIterativeSolverWrapper<T extends Variable<V>, V> extends Abst
             this.wrappedSolver.tick();
 
             this.counter++;
-            final Message tickMessage = new HashMessage(this.myVariable.getID(),
+            final Message tickMessage = new TypedMessage(this.myVariable.getID(),
                     RootedIterativeSolverWrapper.TICK_NEXT);
             tickMessage.put(RootedIterativeSolverWrapper.COUNTFIELD, this.counter);
             super.sendToNeighbors(tickMessage);
@@ -122,4 +122,14 @@ public class RootedIterativeSolverWrapper<T extends Variable<V>, V> extends Abst
         this.counter = 0;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        return this.wrappedSolver.requiresReliableDelivery();
+    }
+
 }
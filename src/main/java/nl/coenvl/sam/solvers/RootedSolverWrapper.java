@@ -19,8 +19,8 @@
 package nl.coenvl.sam.solvers;
 
 import nl.coenvl.sam.agents.Agent;
-import nl.coenvl.sam.messages.HashMessage;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -56,7 +56,7 @@ public class RootedSolverWrapper<T extends Variable<V>, V> extends AbstractSolve
             this.wrappedSolver.init();
 
             this.counter++;
-            final Message initMessage = new HashMessage(this.myVariable.getID(), RootedSolverWrapper.INIT_NEXT);
+            final Message initMessage = new TypedMessage(this.myVariable.getID(), RootedSolverWrapper.INIT_NEXT);
             initMessage.put(RootedSolverWrapper.COUNTFIELD, this.counter);
             super.sendToNeighbors(initMessage);
         }
@@ -68,9 +68,9 @@ public class RootedSolverWrapper<T extends Variable<V>, V> extends AbstractSolve
      * @see nl.coenvl.sam.solvers.Solver#push(nl.coenvl.sam.messages.Message)
      */
     @Override
-    public synchronized void push(final Message m) {
+    public void push(final Message m) {
         if (m.containsKey(RootedSolverWrapper.COUNTFIELD)) {
-            final int mcount = (int) m.get(RootedSolverWrapper.COUNTFIELD);
+            final int mcount = m.getInteger(RootedSolverWrapper.COUNTFIELD);
             if (mcount > this.counter) {
                 this.counter = mcount;
             } else {
@@ -98,4 +98,14 @@ public class RootedSolverWrapper<T extends Variable<V>, V> extends AbstractSolve
         this.counter = 0;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        return this.wrappedSolver.requiresReliableDelivery();
+    }
+
 }
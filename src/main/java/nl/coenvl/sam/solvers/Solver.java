@@ -23,6 +23,12 @@ import nl.coenvl.sam.messages.Message;
 /**
  * Solver
  *
+ * The methods of a solver are never called concurrently: a solver of a multi-threaded agent is run by a
+ * {@link SolverRunner}, which has a single consumer, and a solver of a single-threaded agent is called with the monitor
+ * of its agent held. A single-threaded agent can still receive messages from other threads, for instance from the
+ * runners of constraint agents or from the I/O thread of a transport, which is why it takes that monitor. Solvers
+ * therefore need no monitors of their own.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 19 mrt. 2014
@@ -45,4 +51,15 @@ public interface Solver {
      */
     public void reset();
 
+    /**
+     * Returns whether the solver depends on receiving every message that is sent to it, for instance because its
+     * neighbors only send it what changed since their previous message. Such a solver can not be run by a bounded
+     * {@link SolverRunner} that drops or coalesces messages.
+     *
+     * @return true if no message to this solver may be lost
+     */
+    public default boolean requiresReliableDelivery() {
+        return false;
+    }
+
 }
@@ -18,8 +18,25 @@
  */
 package nl.coenvl.sam.solvers;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.TerminationDetector;
+import nl.coenvl.sam.messages.Envelope;
 import nl.coenvl.sam.messages.Message;
 
 /**
@@ -27,6 +44,24 @@ import nl.coenvl.sam.messages.Message;
  *
  * Wrapper for around a solver to make it run asynchronously
  *
+ * A runner schedules an activation on its executor whenever a message arrives and no activation is scheduled yet. An
+ * activation handles a limited number of messages and then reschedules itself if there are more, so that many runners
+ * can share a small pool, while there is never more than one activation of the same runner at a time. A runner that is
+ * created without an {@link Executor} has a thread of its own to run its activations on.
+ *
+ * The queue of a runner is unbounded by default, in which case it is a lock-free {@link MpscMessageQueue}, so that
+ * pushing a message never blocks, however many agents push to the runner at once. A bounded queue applies an
+ * {@link OverflowPolicy} when a message arrives while it is full. Every runner keeps track of the longest its queue
+ * has been, its high-water mark, and of the number of messages it discarded, to show which agents fall behind.
+ *
+ * A {@link #reset()} re-arms the runner for a new run: its queue is cleared and its solver is reset, but its thread
+ * keeps running, so that the agents of an experiment can be reused without starting new threads. The thread is only
+ * stopped by {@link #stopThread()}, which the context of the runner does when it is reset.
+ *
+ * A runner guarantees that its solver has a single consumer: {@link #init()}, {@link #push(Message)},
+ * {@link #tick()} and {@link #reset()} of the solver are never called concurrently, so the solver needs no monitor of
+ * its own.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 4 apr. 2014
@@ -34,49 +69,55 @@ import nl.coenvl.sam.messages.Message;
  */
 public class SolverRunner implements IterativeSolver {
 
-    protected final class Runner implements Runnable {
-
-        private volatile boolean running;
-
-        /*
-         * (non-Javadoc)
-         *
-         * @see java.lang.Runnable#run()
+    /**
+     * What a bounded runner does with a message that arrives while its queue is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * The sender blocks until there is room in the queue. Note that this can deadlock when agents push to each other
+         * from the threads of a pool, or when a solver sends to itself.
          */
-        @Override
-        public void run() {
-            this.running = true;
-
-            try {
-                while (this.running) {
-                    final Message m = SolverRunner.this.queue.take();
-                    synchronized (this) {
-                        SolverRunner.this.mySolver.push(m);
-                    }
-                }
-            } catch (final InterruptedException e) {
-                // Do nothing... we are simply reset
-                // throw new RuntimeException();
-            }
-        }
+        BLOCK,
 
         /**
-         *
+         * The oldest queued message with the same source and type as the new message is dropped, or the oldest queued
+         * message if there is none with the same source and type.
          */
-        public void stop() {
-            this.running = false;
-        }
+        DROP_OLDEST,
 
+        /**
+         * A queued message with the same source and type as the new message is always replaced by the new one, whether
+         * the queue is full or not, so that only the latest message per source and type is kept. If there is no such
+         * message and the queue is full, the sender blocks.
+         */
+        COALESCE
     }
 
-    private static int solverRunnerCounter = 0;
+    /**
+     * The capacity of an unbounded queue
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The number of messages an activation handles before it gives other runners a turn
+     */
+    private static final int ACTIVATION_BATCH = 64;
+
+    private static final AtomicInteger solverRunnerCounter = new AtomicInteger();
 
-    private Runner myRunner;
     protected volatile Solver mySolver;
-    private Thread myThread;
-    protected final LinkedBlockingQueue<Message> queue;
+    private final ExecutorService myThread;
+    private final AtomicReference<Thread> worker;
+    private final MpscMessageQueue inbox;
+    private final LinkedBlockingQueue<Message> queue;
 
-    private final String threadName;
+    private final Executor executor;
+    private final AtomicBoolean scheduled;
+    private final TerminationDetector termination;
+    private final OverflowPolicy policy;
+    private final AtomicInteger highWaterMark;
+    private final AtomicLong dropped;
+    private final AtomicLong coalesced;
 
     /**
      * Creates a SolverRunner for the provided Solver, and uses a default generated Thread name.
@@ -84,51 +125,174 @@ public class SolverRunner implements IterativeSolver {
      * @param solver The solver to run
      */
     public SolverRunner(final Solver solver) {
-        this(solver, "SolverRunnerThread-" + SolverRunner.solverRunnerCounter++);
+        this(solver, "SolverRunnerThread-" + SolverRunner.solverRunnerCounter.getAndIncrement());
     }
 
     /**
      * Create a SolverRunner for the provided Solver, which will have an internal Thread with the given thread name.
      *
      * @param s The solver to run
-     * @param threadName The name of the internal thread which will be started by {@link #startThread()}
+     * @param threadName The name of the internal thread
      */
     public SolverRunner(final Solver s, final String threadName) {
-        this.queue = new LinkedBlockingQueue<>();
+        this.inbox = new MpscMessageQueue();
+        this.queue = null;
         this.mySolver = s;
-        this.threadName = threadName;
-        SolverRunner.solverRunnerCounter++;
-        this.startThread();
+        this.worker = new AtomicReference<>();
+        this.myThread = this.newThread(threadName);
+        this.executor = this.myThread;
+        this.scheduled = new AtomicBoolean(false);
+        this.termination = null;
+        this.policy = OverflowPolicy.BLOCK;
+        this.highWaterMark = new AtomicInteger();
+        this.dropped = new AtomicLong();
+        this.coalesced = new AtomicLong();
     }
 
     /**
-     * Starts the internal thread
+     * Creates a SolverRunner that handles its messages in activations on the given executor, instead of on a thread of
+     * its own. If the executor is null, the runner starts its own thread after all.
+     *
+     * @param s The solver to run
+     * @param executor The executor to schedule the activations on, may be shared by many runners
      */
-    private void startThread() {
-        this.myRunner = new Runner();
-        this.myThread = new Thread(null, this.myRunner, this.threadName);
-        // this.myThread = new Thread(this.myRunner);
-        this.myThread.start();
+    public SolverRunner(final Solver s, final Executor executor) {
+        this(s, executor, null);
     }
 
     /**
-     * Gracefully stops the internal running thread
+     * Creates a SolverRunner that runs on the executor of the given context, and reports the messages in its queue to
+     * the {@link TerminationDetector} of the bus of the context. If the runner has a thread of its own, the context
+     * stops it when it is reset.
+     *
+     * @param s The solver to run
+     * @param context The context of the agent that the solver belongs to
      */
-    public void stopThread() {
-        if (this.myRunner != null) {
-            this.myRunner.stop();
+    public SolverRunner(final Solver s, final ExperimentContext context) {
+        this(s,
+                context.getExecutor(),
+                context.getMessageBus().getTerminationDetector(),
+                context.getQueueCapacity(),
+                context.getOverflowPolicy());
+        if (this.myThread != null) {
+            context.addRunner(this);
         }
+    }
 
+    /**
+     * Creates a SolverRunner on the given executor, or on its own thread if the executor is null.
+     *
+     * @param s The solver to run
+     * @param executor The executor to schedule the activations on, may be null
+     * @param termination The detector that counts every message from the moment it is queued until the solver handled
+     *            it, may be null
+     */
+    public SolverRunner(final Solver s, final Executor executor, final TerminationDetector termination) {
+        this(s, executor, termination, SolverRunner.UNBOUNDED, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Creates a SolverRunner with a bounded queue.
+     *
+     * @param s The solver to run
+     * @param executor The executor to schedule the activations on, may be null
+     * @param termination The detector that counts the queued messages, may be null
+     * @param capacity The maximum number of messages in the queue, or {@link #UNBOUNDED} for a lock-free queue
+     * @param policy What to do with a message that arrives while the queue is full, not used if it is unbounded
+     * @throws IllegalArgumentException if the policy may lose messages, while the solver requires every message
+     */
+    public SolverRunner(final Solver s,
+            final Executor executor,
+            final TerminationDetector termination,
+            final int capacity,
+            final OverflowPolicy policy) {
+        if ((capacity != SolverRunner.UNBOUNDED) && (policy != OverflowPolicy.BLOCK) && s.requiresReliableDelivery()) {
+            throw new IllegalArgumentException(
+                    "A " + s.getClass().getSimpleName() + " requires every message, it can not run with " + policy);
+        }
+        if (capacity == SolverRunner.UNBOUNDED) {
+            this.inbox = new MpscMessageQueue();
+            this.queue = null;
+        } else {
+            this.inbox = null;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+        this.mySolver = s;
+        this.worker = new AtomicReference<>();
+        if (executor == null) {
+            this.myThread = this.newThread("SolverRunnerThread-" + SolverRunner.solverRunnerCounter.getAndIncrement());
+            this.executor = this.myThread;
+        } else {
+            this.myThread = null;
+            this.executor = executor;
+        }
+        this.scheduled = new AtomicBoolean(false);
+        this.termination = termination;
+        this.policy = policy;
+        this.highWaterMark = new AtomicInteger();
+        this.dropped = new AtomicLong();
+        this.coalesced = new AtomicLong();
+    }
+
+    /**
+     * Creates a work stealing pool with a thread per processor, to run any number of solver runners on.
+     */
+    public static ExecutorService newWorkStealingPool() {
+        return Executors.newWorkStealingPool();
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for every activation, if the JVM supports virtual threads.
+     * Otherwise a work stealing pool is returned.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively, so that this still compiles and runs on JVMs without virtual threads
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            return SolverRunner.newWorkStealingPool();
+        }
+    }
+
+    /**
+     * Creates the internal thread, which is started by the first activation. The thread is kept, so that
+     * {@link #stopThread()} can wait until it has actually ended.
+     */
+    private ExecutorService newThread(final String threadName) {
+        return Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(null, r, threadName);
+            this.worker.set(t);
+            return t;
+        });
+    }
+
+    /**
+     * Stops the internal thread, without waiting for it. Messages that arrive afterwards are no longer handled.
+     */
+    public void interruptThread() {
         if (this.myThread != null) {
-            this.myThread.interrupt();
+            this.myThread.shutdownNow();
+        }
+    }
 
+    /**
+     * Gracefully stops the internal running thread, and waits until it is done. Termination of the executor only means
+     * that its tasks are done, so the thread itself is joined as well.
+     */
+    public void stopThread() {
+        this.interruptThread();
+
+        if (this.myThread != null) {
             try {
-                this.myThread.join();
+                this.myThread.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                final Thread t = this.worker.get();
+                if ((t != null) && (t != Thread.currentThread())) {
+                    t.join();
+                }
             } catch (final InterruptedException e) {
                 e.printStackTrace();
             }
-
-            this.myThread = null;
         }
     }
 
@@ -140,7 +304,9 @@ public class SolverRunner implements IterativeSolver {
 
     @Override
     public void init() {
-        this.mySolver.init();
+        synchronized (this) {
+            this.mySolver.init();
+        }
     }
 
     /*
@@ -150,7 +316,151 @@ public class SolverRunner implements IterativeSolver {
      */
     @Override
     public void push(final Message m) {
-        this.queue.add(m);
+        if (this.termination != null) {
+            this.termination.begin();
+        }
+
+        final int size;
+        if (this.inbox != null) {
+            size = this.inbox.offer(m);
+        } else {
+            switch (this.policy) {
+            case DROP_OLDEST:
+                this.enqueueDroppingOldest(m);
+                break;
+            case COALESCE:
+                this.enqueueCoalescing(m);
+                break;
+            default:
+            case BLOCK:
+                this.enqueue(m);
+                break;
+            }
+            size = this.queue.size();
+        }
+
+        int mark;
+        while (size > (mark = this.highWaterMark.get())) {
+            this.highWaterMark.compareAndSet(mark, size);
+        }
+
+        if (this.executor != null) {
+            this.schedule();
+        }
+    }
+
+    private void enqueue(final Message m) {
+        try {
+            this.queue.put(m);
+        } catch (final InterruptedException e) {
+            e.printStackTrace();
+            Thread.currentThread().interrupt();
+            this.discarded(this.dropped);
+        }
+    }
+
+    private void enqueueDroppingOldest(final Message m) {
+        synchronized (this.queue) {
+            while (!this.queue.offer(m)) {
+                final Message victim = this.oldestLike(m);
+                if ((victim == null) ? (this.queue.poll() != null) : this.queue.remove(victim)) {
+                    this.discarded(this.dropped);
+                }
+            }
+        }
+    }
+
+    private void enqueueCoalescing(final Message m) {
+        synchronized (this.queue) {
+            final Message previous = this.oldestLike(m);
+            if ((previous != null) && this.queue.remove(previous)) {
+                this.discarded(this.coalesced);
+            }
+        }
+        this.enqueue(m);
+    }
+
+    /**
+     * @return The oldest queued message with the same source and type as the given one, or null if there is none
+     */
+    private Message oldestLike(final Message m) {
+        if (m instanceof Envelope) {
+            return null;
+        }
+
+        final Iterator<Message> it = this.queue.iterator();
+        while (it.hasNext()) {
+            final Message queued = it.next();
+            if (!(queued instanceof Envelope) && Objects.equals(queued.getSource(), m.getSource())
+                    && queued.getType().equals(m.getType())) {
+                return queued;
+            }
+        }
+        return null;
+    }
+
+    private void discarded(final AtomicLong counter) {
+        counter.incrementAndGet();
+        if (this.termination != null) {
+            this.termination.end();
+        }
+    }
+
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::activate);
+            } catch (final RejectedExecutionException e) {
+                // The thread is stopped, leave the messages in the queue
+            }
+        }
+    }
+
+    /**
+     * Handles a batch of messages on the executor. Only one activation of a runner is scheduled at a time, so the
+     * solver is never pushed to concurrently.
+     */
+    private void activate() {
+        int handled = 0;
+        try {
+            synchronized (this) {
+                Message m;
+                while ((handled < SolverRunner.ACTIVATION_BATCH) && ((m = this.poll()) != null)) {
+                    handled++;
+                    this.handle(m);
+                }
+            }
+        } finally {
+            this.scheduled.set(false);
+            // Only now, so that the runner no longer looks busy once the detector reports quiescence
+            if (this.termination != null) {
+                this.termination.end(handled);
+            }
+        }
+
+        // A message that arrived while the activation was finishing did not schedule a new one
+        if (!this.isQueueEmpty()) {
+            this.schedule();
+        }
+    }
+
+    private Message poll() {
+        return this.inbox != null ? this.inbox.poll() : this.queue.poll();
+    }
+
+    private boolean isQueueEmpty() {
+        return this.inbox != null ? this.inbox.isEmpty() : this.queue.isEmpty();
+    }
+
+    private void handle(final Message m) {
+        if (m instanceof Envelope) {
+            // The envelope took a single entry in the queue, unpack it now
+            for (final Message inner : (Envelope) m) {
+                this.mySolver.push(inner);
+            }
+        } else {
+            this.mySolver.push(m);
+        }
     }
 
     /*
@@ -161,7 +471,9 @@ public class SolverRunner implements IterativeSolver {
     @Override
     public void tick() {
         if (this.mySolver instanceof IterativeSolver) {
-            ((IterativeSolver) this.mySolver).tick();
+            synchronized (this) {
+                ((IterativeSolver) this.mySolver).tick();
+            }
         }
     }
 
@@ -172,28 +484,75 @@ public class SolverRunner implements IterativeSolver {
      */
     @Override
     public void reset() {
-        this.stopThread();
-        this.mySolver.reset();
-        this.queue.clear();
+        // Wait for a running activation, a scheduled one will find the queue empty
+        synchronized (this) {
+            this.clearQueue();
+            this.mySolver.reset();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.solvers.Solver#requiresReliableDelivery()
+     */
+    @Override
+    public boolean requiresReliableDelivery() {
+        return this.mySolver.requiresReliableDelivery();
+    }
+
+    private void clearQueue() {
+        final int cleared;
+        if (this.inbox != null) {
+            cleared = this.inbox.clear();
+        } else {
+            final List<Message> dropped = new ArrayList<>();
+            this.queue.drainTo(dropped);
+            cleared = dropped.size();
+        }
+        if (this.termination != null) {
+            this.termination.end(cleared);
+        }
     }
 
     /**
      * Returns wether the internal queue of the solver runner is empty.
      *
-     * @return true is the Queue is empty
+     * @return true is the Queue is empty, and for a runner on an executor also no activation is scheduled
      */
     public boolean emptyQueue() {
-        return this.queue.isEmpty();
+        return this.isQueueEmpty() && !this.scheduled.get();
+    }
+
+    /**
+     * @return The largest number of messages that were in the queue at the same time
+     */
+    public int getHighWaterMark() {
+        return this.highWaterMark.get();
+    }
+
+    /**
+     * @return The number of messages that were dropped because the queue was full
+     */
+    public long getDroppedMessages() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return The number of queued messages that were replaced by a newer one with the same source and type
+     */
+    public long getCoalescedMessages() {
+        return this.coalesced.get();
     }
 
     /**
-     * Returns whether the thread is non-null. Assumes the thread is only set in {@link #startThread()} and immediately
-     * started after.
+     * Returns whether the runner handles its messages. A runner on an executor has no thread, and is always considered
+     * to be started.
      *
-     * @return true if the thread has started
+     * @return true if the thread has not been stopped
      */
     public boolean started() {
-        return this.myThread != null;
+        return (this.myThread == null) || !this.myThread.isShutdown();
     }
 
 }
@@ -0,0 +1,191 @@
+/**
+ * File MessageTraceRecorder.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.messages.BinaryMessageCodec;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.MessageCodec;
+
+/**
+ * MessageTraceRecorder
+ *
+ * Records every message that is sent on a {@link nl.coenvl.sam.MessageBus} to a memory-mapped file, so that a run
+ * can be replayed with the {@link MessageTraceReplayer}. A recorder is attached with
+ * {@link nl.coenvl.sam.MessageBus#setRecorder(MessageTraceRecorder)}.
+ *
+ * There is a record for every receiver, which is written right before the message is handed to that receiver, so
+ * that the order of the records is the order in which the receivers got their messages. Sending threads reserve room
+ * for their record with a single atomic add, and write it to the mapped file without any further synchronization.
+ * Every record is encoded on its own, so the records do not depend on each other, but a frozen message that is
+ * multicast is only encoded once for all its receivers. If the file is full, any further record is dropped and
+ * counted, see {@link #getDroppedRecords()}.
+ *
+ * The file starts with a magic number and a version, followed by the records and a record length of 0. A record
+ * consists of its length, the time in nanoseconds since the recorder was created, the address of the receiver, and
+ * the message encoded by the {@link BinaryMessageCodec}, which includes its type and source.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class MessageTraceRecorder implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 28;
+
+    static final int MAGIC = 0x4A534D54;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 28;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong position;
+    private final LongAdder dropped;
+    private final long start;
+
+    private final ThreadLocal<Writer> writers;
+
+    /**
+     * Creates a recorder that can hold {@link #DEFAULT_CAPACITY} bytes.
+     *
+     * @param file The file to record to, which is overwritten if it exists
+     */
+    public MessageTraceRecorder(final Path file) throws IOException {
+        this(file, MessageTraceRecorder.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param file The file to record to, which is overwritten if it exists
+     * @param capacity The number of bytes to map, records that do not fit are dropped
+     */
+    public MessageTraceRecorder(final Path file, final int capacity) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.buffer.putInt(0, MessageTraceRecorder.MAGIC);
+        this.buffer.putInt(4, MessageTraceRecorder.VERSION);
+
+        this.capacity = capacity;
+        this.position = new AtomicLong(MessageTraceRecorder.FILE_HEADER_SIZE);
+        this.dropped = new LongAdder();
+        this.start = System.nanoTime();
+
+        this.writers = ThreadLocal.withInitial(() -> new Writer(this.buffer.duplicate()));
+    }
+
+    /**
+     * Records that the message is handed to the owner of the target mailbox.
+     */
+    public void record(final Mailbox target, final Message m) {
+        final long timestamp = System.nanoTime() - this.start;
+
+        final Writer writer = this.writers.get();
+        final byte[] body = writer.encode(m);
+
+        final int size = MessageTraceRecorder.RECORD_HEADER_SIZE + body.length;
+        final long offset = this.position.getAndAdd(size);
+        // Leave room for the closing length of 0
+        if ((offset + size + 4) > this.capacity) {
+            this.dropped.increment();
+            return;
+        }
+
+        final ByteBuffer view = writer.view;
+        final UUID address = target.getAddress();
+        view.position((int) offset + 4);
+        view.putLong(timestamp);
+        view.putLong(address.getMostSignificantBits());
+        view.putLong(address.getLeastSignificantBits());
+        view.put(body);
+
+        // The length goes last, so that a reader never sees a record that is not complete
+        view.putInt((int) offset, size);
+    }
+
+    /**
+     * @return The number of records that did not fit in the file
+     */
+    public long getDroppedRecords() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * @return The number of bytes of the file that are used by records
+     */
+    public long getRecordedBytes() {
+        return Math.min(this.position.get(), this.capacity) - MessageTraceRecorder.FILE_HEADER_SIZE;
+    }
+
+    /**
+     * Writes the recorded messages to disk and closes the file. Records that are sent after closing are lost.
+     */
+    @Override
+    public void close() throws IOException {
+        this.buffer.force();
+        this.channel.close();
+    }
+
+    /**
+     * Writer
+     *
+     * The state of a single sending thread.
+     */
+    private static final class Writer {
+
+        final ByteBuffer view;
+        private final MessageCodec codec;
+        private Message lastMessage;
+        private byte[] lastBody;
+
+        Writer(final ByteBuffer view) {
+            this.view = view;
+            this.codec = new BinaryMessageCodec();
+        }
+
+        byte[] encode(final Message m) {
+            // A frozen message can not have changed since it was encoded for the previous receiver
+            if ((m == this.lastMessage) && m.isFrozen()) {
+                return this.lastBody;
+            }
+
+            this.codec.reset();
+            this.lastMessage = m;
+            this.lastBody = this.codec.encode(m);
+            return this.lastBody;
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/**
+ * File MessageTraceReplayer.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.trace;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.BinaryMessageCodec;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.MessageCodec;
+import nl.coenvl.sam.transport.Transport;
+
+/**
+ * MessageTraceReplayer
+ *
+ * Reads a trace that was written by the {@link MessageTraceRecorder}, either record by record, or by replaying it
+ * into the agents of a bus with {@link #replay(MessageBus)}.
+ *
+ * Replaying pushes the recorded messages to their receivers on the calling thread, in the recorded order. The agents
+ * must therefore have the same addresses as the ones that were recorded, e.g. by creating their variables with the
+ * recorded IDs. Single threaded agents then see exactly the sequence of messages of the original run, regardless of
+ * the thread timing that caused it.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class MessageTraceReplayer implements Iterator<MessageTraceReplayer.Record> {
+
+    private final MappedByteBuffer buffer;
+    private final MessageCodec codec;
+
+    public MessageTraceReplayer(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.codec = new BinaryMessageCodec();
+
+        if ((this.buffer.remaining() < MessageTraceRecorder.FILE_HEADER_SIZE)
+                || (this.buffer.getInt() != MessageTraceRecorder.MAGIC)) {
+            throw new IOException("Not a message trace: " + file);
+        }
+        final int version = this.buffer.getInt();
+        if (version != MessageTraceRecorder.VERSION) {
+            throw new IOException("Unsupported message trace version " + version);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        return (this.buffer.remaining() >= MessageTraceRecorder.RECORD_HEADER_SIZE)
+                && (this.buffer.getInt(this.buffer.position()) > 0);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public Record next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final int size = this.buffer.getInt();
+        final long timestamp = this.buffer.getLong();
+        final UUID destination = new UUID(this.buffer.getLong(), this.buffer.getLong());
+
+        final byte[] body = new byte[size - MessageTraceRecorder.RECORD_HEADER_SIZE];
+        this.buffer.get(body);
+
+        // Every record is encoded on its own
+        this.codec.reset();
+        final Message m = this.codec.decode(body);
+        m.freeze();
+
+        return new Record(timestamp, destination, m);
+    }
+
+    /**
+     * Pushes all remaining records to the agents of the bus that own their destinations. Messages that the agents send
+     * while the trace is replayed are counted, but not delivered, since they are part of the trace themselves.
+     *
+     * @param bus The bus of the agents to replay the trace into
+     * @return The number of messages that were delivered
+     */
+    public int replay(final MessageBus bus) {
+        final Transport live = bus.getTransport();
+        final boolean envelopes = bus.isEnvelopeMode();
+        bus.setTransport(new Muted());
+        bus.setEnvelopeMode(false);
+
+        int delivered = 0;
+        try {
+            while (this.hasNext()) {
+                final Record record = this.next();
+                final Agent<?, ?> owner = bus.mailbox(record.destination).getOwner();
+                if (owner != null) {
+                    owner.push(record.message);
+                    delivered++;
+                }
+            }
+        } finally {
+            bus.setEnvelopeMode(envelopes);
+            bus.setTransport(live);
+        }
+        return delivered;
+    }
+
+    /**
+     * Record
+     *
+     * A single message of the trace with its receiver.
+     */
+    public static final class Record {
+
+        private final long timestamp;
+        private final UUID destination;
+        private final Message message;
+
+        Record(final long timestamp, final UUID destination, final Message message) {
+            this.timestamp = timestamp;
+            this.destination = destination;
+            this.message = message;
+        }
+
+        /**
+         * @return The time the message was sent, in nanoseconds since the recording started
+         */
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        public UUID getDestination() {
+            return this.destination;
+        }
+
+        public Message getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public String toString() {
+            return this.timestamp + " " + this.message.getType() + " from " + this.message.getSource() + " to "
+                    + this.destination;
+        }
+    }
+
+    /**
+     * Muted
+     *
+     * Accepts every message without delivering it.
+     */
+    private static final class Muted implements Transport {
+
+        @Override
+        public boolean deliver(final Mailbox target, final Message m) {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * File LocalTransport.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.transport;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.Message;
+
+/**
+ * LocalTransport
+ *
+ * In-process transport, which pushes the message to the agent that owns the mailbox, by reference. This is the
+ * default transport of every bus.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class LocalTransport implements Transport {
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.transport.Transport#deliver(nl.coenvl.sam.Mailbox, nl.coenvl.sam.messages.Message)
+     */
+    @Override
+    public boolean deliver(final Mailbox target, final Message m) {
+        final Agent<?, ?> owner = target.getOwner();
+        if (owner == null) {
+            return false;
+        }
+
+        owner.push(m);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+}
@@ -0,0 +1,406 @@
+/**
+ * File NioTransport.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.TerminationDetector;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.messages.BinaryMessageCodec;
+import nl.coenvl.sam.messages.Envelope;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.MessageCodec;
+
+/**
+ * NioTransport
+ *
+ * Connects the buses of several JVMs over sockets, so that the agents of one experiment can be partitioned over
+ * several processes on the same machine. Receivers that are owned by an agent in this JVM are reached directly, as by
+ * the {@link LocalTransport}. Messages for any other address are encoded and sent to the peer that the address is
+ * routed to with {@link #route(UUID, InetSocketAddress)}.
+ *
+ * Every connection carries messages in one direction only, and has its own codec on both ends, so a peer that sends
+ * back connects to this transport in turn. Senders write to the socket themselves as long as it does not block, a
+ * single I/O thread accepts connections, writes whatever the senders could not, and reads and decodes the incoming
+ * messages. The I/O thread also pushes the incoming messages to their receivers, so agents that are not multi threaded
+ * run their solver on that thread.
+ *
+ * Every message is sent as a frame of a 4 byte length, the 16 byte address of the receiver and the encoded message.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class NioTransport implements Transport {
+
+    private static final int HEADER_SIZE = 4;
+    private static final int ADDRESS_SIZE = 16;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final MessageBus bus;
+    private final Supplier<MessageCodec> codecs;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConcurrentMap<InetSocketAddress, Outgoing> peers;
+    private final ConcurrentMap<UUID, Outgoing> routes;
+    private final Queue<Outgoing> blocked;
+    private final Thread ioThread;
+    private volatile boolean running;
+
+    /**
+     * Creates a transport that listens on an ephemeral port of the loopback interface, and encodes messages with the
+     * {@link BinaryMessageCodec}.
+     *
+     * @param bus The bus to deliver the incoming messages to
+     */
+    public NioTransport(final MessageBus bus) throws IOException {
+        this(bus, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BinaryMessageCodec::new);
+    }
+
+    /**
+     * @param bus The bus to deliver the incoming messages to
+     * @param bindAddress The address to listen on for incoming connections
+     * @param codecs Creates a new codec for every connection, the peers must use the same kind of codec
+     */
+    public NioTransport(final MessageBus bus, final InetSocketAddress bindAddress, final Supplier<MessageCodec> codecs)
+            throws IOException {
+        this.bus = bus;
+        this.codecs = codecs;
+        this.peers = new ConcurrentHashMap<>();
+        this.routes = new ConcurrentHashMap<>();
+        this.blocked = new ConcurrentLinkedQueue<>();
+
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        this.server.bind(bindAddress);
+        this.server.configureBlocking(false);
+        this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+
+        this.running = true;
+        this.ioThread = new Thread(this::run, "NioTransport-" + this.getLocalAddress().getPort());
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) this.server.getLocalAddress();
+    }
+
+    /**
+     * Opens a connection to the transport of another JVM, which must be listening on the given address. Connecting to
+     * a peer that is already connected has no effect.
+     *
+     * @param peer The address that the other transport listens on
+     */
+    public void connect(final InetSocketAddress peer) throws IOException {
+        if (this.peers.containsKey(peer)) {
+            return;
+        }
+
+        final SocketChannel channel = SocketChannel.open(peer);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.configureBlocking(false);
+
+        if (this.peers.putIfAbsent(peer, new Outgoing(channel, this.codecs.get())) != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sends all messages for the given address to a connected peer, unless the address is owned by an agent in this
+     * JVM.
+     *
+     * @param address The address of an agent in the other JVM
+     * @param peer The address that the other transport listens on, see {@link #connect(InetSocketAddress)}
+     */
+    public void route(final UUID address, final InetSocketAddress peer) {
+        final Outgoing out = this.peers.get(peer);
+        if (out == null) {
+            throw new IllegalStateException("Not connected to " + peer);
+        }
+
+        this.routes.put(address, out);
+        // Make sure the bus can also send to the address by its UUID
+        this.bus.mailbox(address);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.transport.Transport#deliver(nl.coenvl.sam.Mailbox, nl.coenvl.sam.messages.Message)
+     */
+    @Override
+    public boolean deliver(final Mailbox target, final Message m) {
+        final Agent<?, ?> owner = target.getOwner();
+        if (owner != null) {
+            owner.push(m);
+            return true;
+        }
+
+        final Outgoing out = this.routes.get(target.getAddress());
+        if ((out == null) || !this.running) {
+            return false;
+        }
+
+        try {
+            boolean wasBlocked = false;
+            if (m instanceof Envelope) {
+                for (final Message inner : (Envelope) m) {
+                    wasBlocked |= out.send(target.getAddress(), inner);
+                }
+            } else {
+                wasBlocked = out.send(target.getAddress(), m);
+            }
+
+            if (wasBlocked) {
+                // Let the I/O thread write the rest as soon as the socket accepts it
+                this.blocked.add(out);
+                this.selector.wakeup();
+            }
+            return true;
+        } catch (final IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Stops the I/O thread and closes all connections. Messages that could not be written yet are lost.
+     */
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            this.ioThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (final Outgoing out : this.peers.values()) {
+            out.channel.close();
+        }
+        for (final SelectionKey key : this.selector.keys()) {
+            key.channel().close();
+        }
+        this.selector.close();
+
+        this.peers.clear();
+        this.routes.clear();
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                this.selector.select();
+
+                Outgoing out;
+                while ((out = this.blocked.poll()) != null) {
+                    out.channel.register(this.selector, SelectionKey.OP_WRITE, out);
+                }
+
+                final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+
+                    try {
+                        this.handle(key);
+                    } catch (final IOException | RuntimeException e) {
+                        // The connection is broken or sent garbage, drop it
+                        key.cancel();
+                        key.channel().close();
+                        if (this.running) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                if (this.running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void handle(final SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        } else if (key.isAcceptable()) {
+            final SocketChannel channel = this.server.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                channel.register(this.selector, SelectionKey.OP_READ, new Incoming(this.codecs.get()));
+            }
+        } else if (key.isReadable()) {
+            ((Incoming) key.attachment()).read(key);
+        } else if (key.isWritable()) {
+            ((Outgoing) key.attachment()).resume(key);
+        }
+    }
+
+    /**
+     * Outgoing
+     *
+     * Connection to a peer, to which any thread may send. The codec and the frames that could not be written yet are
+     * guarded by the connection itself, so that frames go out in the order in which they were encoded.
+     */
+    private static final class Outgoing {
+
+        final SocketChannel channel;
+        private final MessageCodec encoder;
+        private final Queue<ByteBuffer> pending;
+
+        Outgoing(final SocketChannel channel, final MessageCodec encoder) {
+            this.channel = channel;
+            this.encoder = encoder;
+            this.pending = new ArrayDeque<>();
+        }
+
+        /**
+         * @return true if the frame could not be written completely, and this is the first frame that is pending
+         */
+        synchronized boolean send(final UUID address, final Message m) throws IOException {
+            final byte[] body = this.encoder.encode(m);
+            final ByteBuffer frame = ByteBuffer
+                    .allocate(NioTransport.HEADER_SIZE + NioTransport.ADDRESS_SIZE + body.length);
+            frame.putInt(NioTransport.ADDRESS_SIZE + body.length);
+            frame.putLong(address.getMostSignificantBits());
+            frame.putLong(address.getLeastSignificantBits());
+            frame.put(body);
+            frame.flip();
+
+            if (!this.pending.isEmpty()) {
+                this.pending.add(frame);
+                return false;
+            }
+
+            this.channel.write(frame);
+            if (frame.hasRemaining()) {
+                this.pending.add(frame);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Writes the pending frames as far as the socket accepts them, called by the I/O thread.
+         */
+        synchronized void resume(final SelectionKey key) throws IOException {
+            while (!this.pending.isEmpty()) {
+                final ByteBuffer frame = this.pending.peek();
+                this.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    return;
+                }
+                this.pending.poll();
+            }
+
+            // Everything is written, a next send will try to write directly again
+            key.interestOps(0);
+        }
+    }
+
+    /**
+     * Incoming
+     *
+     * Connection from a peer, which is only read by the I/O thread.
+     */
+    private final class Incoming {
+
+        private final MessageCodec decoder;
+        private ByteBuffer buffer;
+
+        Incoming(final MessageCodec decoder) {
+            this.decoder = decoder;
+            this.buffer = ByteBuffer.allocate(NioTransport.READ_BUFFER_SIZE);
+        }
+
+        void read(final SelectionKey key) throws IOException {
+            final SocketChannel channel = (SocketChannel) key.channel();
+            if (channel.read(this.buffer) < 0) {
+                key.cancel();
+                channel.close();
+                return;
+            }
+
+            this.buffer.flip();
+            while (this.buffer.remaining() >= NioTransport.HEADER_SIZE) {
+                final int length = this.buffer.getInt(this.buffer.position());
+                if (length < NioTransport.ADDRESS_SIZE) {
+                    throw new IllegalArgumentException("Invalid frame length " + length);
+                }
+                if (this.buffer.remaining() < (NioTransport.HEADER_SIZE + length)) {
+                    break;
+                }
+
+                this.buffer.position(this.buffer.position() + NioTransport.HEADER_SIZE);
+                final UUID address = new UUID(this.buffer.getLong(), this.buffer.getLong());
+                final int bodyLength = length - NioTransport.ADDRESS_SIZE;
+                final Message m = this.decoder.decode(this.buffer.array(),
+                        this.buffer.arrayOffset() + this.buffer.position(),
+                        bodyLength);
+                this.buffer.position(this.buffer.position() + bodyLength);
+
+                final Agent<?, ?> owner = NioTransport.this.bus.mailbox(address).getOwner();
+                if (owner != null) {
+                    final TerminationDetector termination = NioTransport.this.bus.getTerminationDetector();
+                    termination.begin();
+                    try {
+                        owner.push(m);
+                    } finally {
+                        termination.end();
+                    }
+                }
+            }
+
+            // Keep the start of an incomplete frame, in a larger buffer if it does not fit
+            if (this.buffer.remaining() >= NioTransport.HEADER_SIZE) {
+                final int frameSize = NioTransport.HEADER_SIZE + this.buffer.getInt(this.buffer.position());
+                if (frameSize > this.buffer.capacity()) {
+                    final ByteBuffer larger = ByteBuffer.allocate(frameSize);
+                    larger.put(this.buffer);
+                    this.buffer = larger;
+                    return;
+                }
+            }
+            this.buffer.compact();
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * File Transport.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.transport;
+
+import java.io.Closeable;
+
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.messages.Message;
+
+/**
+ * Transport
+ *
+ * Hands messages over from a {@link MessageBus} to their receivers. The bus takes care of addressing and counting, the
+ * transport only moves the message to wherever the owner of the mailbox lives.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Delivers a message to the owner of the target mailbox. The message may be an
+     * {@link nl.coenvl.sam.messages.Envelope}, which must reach the receiver as a whole or as the messages in it, in
+     * their original order.
+     *
+     * @param target The mailbox of the receiver
+     * @param m The message to deliver
+     * @return true if the message was accepted for delivery, false if this transport can not reach the receiver
+     */
+    public boolean deliver(Mailbox target, Message m);
+
+}
@@ -0,0 +1,42 @@
+/**
+ * File Assignment.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+/**
+ * Assignment
+ *
+ * A (partial) assignment of values to variables, as used to compute the cost that constraints would have if the
+ * variables were set to these values.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public interface Assignment<V> {
+
+    public V setAssignment(Variable<V> var, V value);
+
+    public boolean containsAssignment(Variable<V> var);
+
+    public V getAssignment(Variable<V> var);
+
+    public V removeAssignment(Variable<V> var);
+
+}
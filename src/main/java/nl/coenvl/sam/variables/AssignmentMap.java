@@ -28,25 +28,29 @@ import java.util.UUID;
  * @version 0.1
  * @since 11 mrt. 2016
  */
-public class AssignmentMap<V> extends PublishableMap<UUID, V> {
+public class AssignmentMap<V> extends PublishableMap<UUID, V> implements Assignment<V> {
 
     /**
      *
      */
     private static final long serialVersionUID = -6627005216007138557L;
 
+    @Override
     public V setAssignment(Variable<V> var, V value) {
         return super.put(var.getID(), value);
     }
 
+    @Override
     public boolean containsAssignment(Variable<V> var) {
         return super.containsKey(var.getID());
     }
 
+    @Override
     public V getAssignment(Variable<V> var) {
         return super.get(var.getID());
     }
 
+    @Override
     public V removeAssignment(Variable<V> var) {
         return super.remove(var.getID());
     }
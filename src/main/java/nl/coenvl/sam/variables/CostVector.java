@@ -0,0 +1,172 @@
+/**
+ * File CostVector.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * CostVector
+ *
+ * The costs of all values of a discrete variable, indexed by the position of the value in the domain of the variable
+ * (see {@link DiscreteVariable#valueAt(int)}). This replaces a {@link CostMap} wherever both sides know the variable,
+ * so the costs can be summed and compared without boxing or hashing the values. The operations work in place.
+ *
+ * A vector that is put in a message belongs to the message, the receivers must not modify it.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class CostVector implements Serializable {
+
+    private static final long serialVersionUID = 4522103528409245313L;
+
+    private final double[] costs;
+
+    /**
+     * Creates a vector of zero costs
+     */
+    public CostVector(final int size) {
+        this.costs = new double[size];
+    }
+
+    /**
+     * Creates a vector that takes ownership of the array
+     */
+    public CostVector(final double[] costs) {
+        this.costs = costs;
+    }
+
+    public int size() {
+        return this.costs.length;
+    }
+
+    public double get(final int index) {
+        return this.costs[index];
+    }
+
+    public void set(final int index, final double cost) {
+        this.costs[index] = cost;
+    }
+
+    public void add(final int index, final double cost) {
+        this.costs[index] += cost;
+    }
+
+    /**
+     * Adds the other vector element-wise to this one
+     *
+     * @throws IllegalArgumentException if the vectors are not of the same size
+     */
+    public CostVector add(final CostVector other) {
+        if (other.costs.length != this.costs.length) {
+            throw new IllegalArgumentException("Cannot add a vector of size " + other.costs.length + " to one of size "
+                    + this.costs.length);
+        }
+        for (int i = 0; i < this.costs.length; i++) {
+            this.costs[i] += other.costs[i];
+        }
+        return this;
+    }
+
+    public CostVector fill(final double cost) {
+        Arrays.fill(this.costs, cost);
+        return this;
+    }
+
+    /**
+     * @return the lowest cost, or positive infinity if the vector is empty
+     */
+    public double min() {
+        double min = Double.POSITIVE_INFINITY;
+        for (final double c : this.costs) {
+            if (c < min) {
+                min = c;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @return the first index with the lowest cost, or -1 if the vector is empty
+     */
+    public int argmin() {
+        int best = -1;
+        for (int i = 0; i < this.costs.length; i++) {
+            if ((best < 0) || (this.costs[i] < this.costs[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Subtracts the lowest cost from all costs, so that the lowest cost becomes zero. This keeps costs that are summed
+     * over and over again, like the Max-Sum messages, from growing without bounds.
+     */
+    public CostVector normalize() {
+        if (this.costs.length > 0) {
+            final double min = this.min();
+            for (int i = 0; i < this.costs.length; i++) {
+                this.costs[i] -= min;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return a copy of the costs
+     */
+    public double[] toArray() {
+        return this.costs.clone();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return (obj instanceof CostVector) && Arrays.equals(this.costs, ((CostVector) obj).costs);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.costs);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(this.costs);
+    }
+
+}
@@ -0,0 +1,362 @@
+/**
+ * File DenseAssignment.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DenseAssignment
+ *
+ * An assignment to a fixed set of variables, typically an agent's own variable and those of its neighbors, that are
+ * numbered into dense slots when it is created. The values are kept in an array indexed by slot, so that setting and
+ * getting a value is a single array access once the slot is known. Solvers that evaluate many alternatives can keep
+ * one instance, and use {@link #mark()} and {@link #rollback(int)} to undo their changes instead of copying the
+ * assignment for every alternative.
+ *
+ * Looking up the slot of a variable by its id takes a hash lookup. Code that evaluates the same constraints many times
+ * resolves the slots of their variables once with {@link #bind(UUID[][])}, and evaluates each constraint on its own
+ * bound view, which finds its slots by comparing references.
+ *
+ * Variables that have no slot are never assigned, which is fine for evaluating the constraints of the agent, because
+ * those only involve the variables in the slots.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class DenseAssignment<V> implements Assignment<V> {
+
+    private static final Object UNASSIGNED = new Object();
+
+    private final Map<UUID, Integer> slots;
+    private final UUID[] ids;
+    private final Object[] values;
+
+    private int[] logSlots;
+    private Object[] logValues;
+    private int logSize;
+    private int marks;
+
+    private UUID[][] boundIds;
+    private Assignment<V>[] boundViews;
+
+    /**
+     * Creates an assignment with one slot for every id, numbered in the iteration order of the collection. Duplicate
+     * ids share a slot.
+     */
+    public DenseAssignment(final Collection<UUID> variableIds) {
+        this.slots = new HashMap<>();
+        for (final UUID id : variableIds) {
+            this.slots.putIfAbsent(id, this.slots.size());
+        }
+        this.ids = new UUID[this.slots.size()];
+        for (final Map.Entry<UUID, Integer> e : this.slots.entrySet()) {
+            this.ids[e.getValue()] = e.getKey();
+        }
+        this.values = new Object[this.ids.length];
+        Arrays.fill(this.values, DenseAssignment.UNASSIGNED);
+        this.logSlots = new int[8];
+        this.logValues = new Object[8];
+    }
+
+    /**
+     * Creates a copy that shares the slots of the original
+     */
+    private DenseAssignment(final DenseAssignment<V> original) {
+        this.slots = original.slots;
+        this.ids = original.ids;
+        this.values = original.values.clone();
+        this.logSlots = new int[8];
+        this.logValues = new Object[8];
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * @return the slot of the variable with the given id, or -1 if it has none
+     */
+    public int slotOf(final UUID id) {
+        final Integer slot = this.slots.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    public UUID idAt(final int slot) {
+        return this.ids[slot];
+    }
+
+    public boolean isAssigned(final int slot) {
+        return this.values[slot] != DenseAssignment.UNASSIGNED;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final int slot) {
+        final Object value = this.values[slot];
+        return value == DenseAssignment.UNASSIGNED ? null : (V) value;
+    }
+
+    /**
+     * Sets the value in the slot, and remembers the old one if there are open marks
+     */
+    public void set(final int slot, final V value) {
+        this.write(slot, value);
+    }
+
+    /**
+     * Removes the value from the slot, and remembers the old one if there are open marks
+     */
+    public void unset(final int slot) {
+        this.write(slot, DenseAssignment.UNASSIGNED);
+    }
+
+    private void write(final int slot, final Object value) {
+        if (this.marks > 0) {
+            if (this.logSize == this.logSlots.length) {
+                this.logSlots = Arrays.copyOf(this.logSlots, 2 * this.logSize);
+                this.logValues = Arrays.copyOf(this.logValues, 2 * this.logSize);
+            }
+            this.logSlots[this.logSize] = slot;
+            this.logValues[this.logSize] = this.values[slot];
+            this.logSize++;
+        }
+        this.values[slot] = value;
+    }
+
+    /**
+     * Starts logging the changes to this assignment, so that they can be undone with {@link #rollback(int)}. Marks can
+     * be nested, as long as every mark is rolled back in reverse order.
+     *
+     * @return the mark to roll back to
+     */
+    public int mark() {
+        this.marks++;
+        return this.logSize;
+    }
+
+    /**
+     * Undoes all changes since the mark was taken, and closes the mark
+     */
+    public void rollback(final int mark) {
+        if ((this.marks == 0) || (mark > this.logSize)) {
+            throw new IllegalStateException("Rollback to a mark that is not open");
+        }
+        while (this.logSize > mark) {
+            this.logSize--;
+            this.values[this.logSlots[this.logSize]] = this.logValues[this.logSize];
+            this.logValues[this.logSize] = null;
+        }
+        this.marks--;
+    }
+
+    /**
+     * Replaces all values with the ones in the map, for the variables that have a slot. Also discards any open marks.
+     */
+    public void load(final Map<UUID, ? extends V> map) {
+        this.discardLog();
+        for (int i = 0; i < this.ids.length; i++) {
+            final UUID id = this.ids[i];
+            if (map.containsKey(id)) {
+                this.values[i] = map.get(id);
+            } else {
+                this.values[i] = DenseAssignment.UNASSIGNED;
+            }
+        }
+    }
+
+    /**
+     * Removes all values, and discards any open marks
+     */
+    public void clear() {
+        this.discardLog();
+        Arrays.fill(this.values, DenseAssignment.UNASSIGNED);
+    }
+
+    private void discardLog() {
+        Arrays.fill(this.logValues, 0, this.logSize, null);
+        this.logSize = 0;
+        this.marks = 0;
+    }
+
+    /**
+     * Returns a view of this assignment for every group of ids, typically the ids of the variables of one constraint,
+     * in which the slots of those ids are resolved. The views are kept as long as the same array is passed, so callers
+     * should pass the same array for as long as their groups do not change. The ids are first matched by reference, so
+     * they should be the same instances as the ids of the variables that are looked up in the view.
+     *
+     * @param variableIds The ids of the variables per group
+     * @return One view per group, which reads and writes the values of this assignment
+     */
+    @SuppressWarnings("unchecked")
+    public Assignment<V>[] bind(final UUID[][] variableIds) {
+        if (this.boundIds != variableIds) {
+            final Assignment<V>[] views = new Assignment[variableIds.length];
+            for (int i = 0; i < views.length; i++) {
+                views[i] = new BoundView(variableIds[i]);
+            }
+            this.boundViews = views;
+            this.boundIds = variableIds;
+        }
+        return this.boundViews;
+    }
+
+    /**
+     * @return an independent copy of the current values, which shares the slots with this assignment
+     */
+    public DenseAssignment<V> snapshot() {
+        return new DenseAssignment<>(this);
+    }
+
+    /**
+     * @return the assigned values as an AssignmentMap, e.g. to send them in a message
+     */
+    public AssignmentMap<V> toAssignmentMap() {
+        final AssignmentMap<V> map = new AssignmentMap<>();
+        for (int i = 0; i < this.ids.length; i++) {
+            if (this.isAssigned(i)) {
+                map.put(this.ids[i], this.get(i));
+            }
+        }
+        return map;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.Assignment#setAssignment(nl.coenvl.sam.variables.Variable, java.lang.Object)
+     */
+    @Override
+    public V setAssignment(final Variable<V> var, final V value) {
+        final int slot = this.slotOf(var.getID());
+        if (slot < 0) {
+            throw new IllegalArgumentException("Variable " + var.getID() + " has no slot in this assignment");
+        }
+        final V old = this.get(slot);
+        this.set(slot, value);
+        return old;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.Assignment#containsAssignment(nl.coenvl.sam.variables.Variable)
+     */
+    @Override
+    public boolean containsAssignment(final Variable<V> var) {
+        final int slot = this.slotOf(var.getID());
+        return (slot >= 0) && this.isAssigned(slot);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.Assignment#getAssignment(nl.coenvl.sam.variables.Variable)
+     */
+    @Override
+    public V getAssignment(final Variable<V> var) {
+        final int slot = this.slotOf(var.getID());
+        return slot < 0 ? null : this.get(slot);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.Assignment#removeAssignment(nl.coenvl.sam.variables.Variable)
+     */
+    @Override
+    public V removeAssignment(final Variable<V> var) {
+        final int slot = this.slotOf(var.getID());
+        if (slot < 0) {
+            return null;
+        }
+        final V old = this.get(slot);
+        this.unset(slot);
+        return old;
+    }
+
+    /**
+     * A view on a few slots of the assignment, which it resolved when it was created
+     */
+    private final class BoundView implements Assignment<V> {
+
+        private final UUID[] ids;
+        private final int[] slots;
+
+        BoundView(final UUID[] ids) {
+            this.ids = ids;
+            this.slots = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                this.slots[i] = DenseAssignment.this.slotOf(ids[i]);
+            }
+        }
+
+        private int slotOf(final Variable<V> var) {
+            final UUID id = var.getID();
+            for (int i = 0; i < this.ids.length; i++) {
+                if (this.ids[i] == id) {
+                    return this.slots[i];
+                }
+            }
+            return DenseAssignment.this.slotOf(id);
+        }
+
+        @Override
+        public V setAssignment(final Variable<V> var, final V value) {
+            final int slot = this.slotOf(var);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Variable " + var.getID() + " has no slot in this assignment");
+            }
+            final V old = DenseAssignment.this.get(slot);
+            DenseAssignment.this.set(slot, value);
+            return old;
+        }
+
+        @Override
+        public boolean containsAssignment(final Variable<V> var) {
+            final int slot = this.slotOf(var);
+            return (slot >= 0) && DenseAssignment.this.isAssigned(slot);
+        }
+
+        @Override
+        public V getAssignment(final Variable<V> var) {
+            final int slot = this.slotOf(var);
+            return slot < 0 ? null : DenseAssignment.this.get(slot);
+        }
+
+        @Override
+        public V removeAssignment(final Variable<V> var) {
+            final int slot = this.slotOf(var);
+            if (slot < 0) {
+                return null;
+            }
+            final V old = DenseAssignment.this.get(slot);
+            DenseAssignment.this.unset(slot);
+            return old;
+        }
+    }
+
+}
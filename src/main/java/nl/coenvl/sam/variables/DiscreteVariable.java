@@ -23,9 +23,17 @@ package nl.coenvl.sam.variables;
 import java.util.Collection;
 import java.util.Iterator;
 
+import nl.coenvl.sam.exceptions.InvalidValueException;
+import nl.coenvl.sam.exceptions.VariableNotSetException;
+
 /**
  * DiscreteVariable
  *
+ * Besides by value, the values of a discrete variable can be addressed by their index in the domain, from 0 up to the
+ * range of the variable, in the order of {@link #iterator()}. Solvers and cost tables can use the indices to avoid
+ * boxing and equality scans. The default implementations walk the domain, implementations should override them with
+ * constant time versions.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 6 feb. 2014
@@ -59,4 +67,55 @@ public interface DiscreteVariable<V> extends Variable<V>, Iterable<V> {
 
     public Collection<V> getDomain();
 
+    /**
+     * @param index The index of a value in the domain
+     * @return The value at the given index
+     * @throws InvalidValueException If the index is not within the range of the variable
+     */
+    public default V valueAt(final int index) throws InvalidValueException {
+        if ((index >= 0) && (index < this.getRange())) {
+            int i = 0;
+            for (final V value : this) {
+                if (i++ == index) {
+                    return value;
+                }
+            }
+        }
+        throw new InvalidValueException(index);
+    }
+
+    /**
+     * @param value A value of the variable
+     * @return The index of the value in the domain, or -1 if it is not in the domain
+     */
+    public default int indexOf(final V value) {
+        int i = 0;
+        for (final V possible : this) {
+            if (possible.equals(value)) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the current value in the domain
+     * @throws VariableNotSetException If the variable is not set
+     */
+    public default int getValueIndex() throws VariableNotSetException {
+        return this.indexOf(this.getValue());
+    }
+
+    /**
+     * Sets the variable to the value at the given index in the domain.
+     *
+     * @param index The index of the value
+     * @return The variable itself
+     * @throws InvalidValueException If the index is not within the range of the variable
+     */
+    public default Variable<V> setValueIndex(final int index) throws InvalidValueException {
+        return this.setValue(this.valueAt(index));
+    }
+
 }
@@ -0,0 +1,119 @@
+/**
+ * File DoubleRange.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+/**
+ * DoubleRange
+ *
+ * The values from a lower bound up to an upper bound, at a fixed step. The value at index i is computed as
+ * {@code lowerBound + i * step}, so the values do not accumulate rounding errors.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class DoubleRange extends ValueRange<Double> {
+
+    private static final long serialVersionUID = -2915329218930531587L;
+
+    /**
+     * The relative margin within which the upper bound is still included, when the step does not divide the range
+     * exactly in floating point
+     */
+    private static final double MARGIN = 1e-9;
+
+    private final double lowerBound;
+    private final double step;
+
+    /**
+     * @param lowerBound The first value of the range
+     * @param upperBound The highest value that may be in the range
+     * @param step The distance between two values, which must be positive
+     */
+    public DoubleRange(final double lowerBound, final double upperBound, final double step) {
+        super(DoubleRange.count(lowerBound, upperBound, step));
+        this.lowerBound = lowerBound;
+        this.step = step;
+    }
+
+    private static int count(final double lowerBound, final double upperBound, final double step) {
+        if (!(step > 0) || !(upperBound >= lowerBound)) {
+            throw new IllegalArgumentException("A range needs a positive step and an upper bound above its lower bound");
+        }
+        return Math.toIntExact((long) Math.floor(((upperBound - lowerBound) / step) + DoubleRange.MARGIN) + 1);
+    }
+
+    public double getStep() {
+        return this.step;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#get(int)
+     */
+    @Override
+    public Double get(final int index) {
+        this.checkIndex(index);
+        return this.lowerBound + (index * this.step);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#indexOf(java.lang.Object)
+     */
+    @Override
+    public int indexOf(final Object o) {
+        if (!(o instanceof Double)) {
+            return -1;
+        }
+
+        final int index = this.nearestIndex((Double) o);
+        return this.get(index).equals(o) ? index : -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.ValueRange#nearestIndex(double)
+     */
+    @Override
+    public int nearestIndex(final double value) {
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+
+        // Rounding may be off by one, so pick the nearest of the neighbors, preferring the lower one
+        final double guess = Math.rint((value - this.lowerBound) / this.step);
+        final int center = (int) Math.max(0, Math.min(this.size() - 1, guess));
+        int best = center;
+        double mindiff = Double.MAX_VALUE;
+        for (int i = Math.max(0, center - 1); i <= Math.min(this.size() - 1, center + 1); i++) {
+            final double diff = Math.abs(this.get(i) - value);
+            if (diff < mindiff) {
+                mindiff = diff;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+}
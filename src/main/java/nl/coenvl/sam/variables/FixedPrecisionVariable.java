@@ -5,10 +5,6 @@
  */
 package nl.coenvl.sam.variables;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-
 import nl.coenvl.sam.exceptions.InvalidDomainException;
 import nl.coenvl.sam.exceptions.InvalidValueException;
 
@@ -75,34 +71,20 @@ public class FixedPrecisionVariable extends ListVariable<Double> {
     public Variable<Double> setValue(final Double value) throws InvalidValueException {
         if ((value < this.getLowerBound()) || (value > this.getUpperBound())) {
             throw new InvalidValueException(value);
-        } else if (!this.getDomain().contains(value)) {
-            Double best = this.getLowerBound();
-            double mindiff = Double.MAX_VALUE;
-            for (final Double possible : this) {
-                final double diff = Math.abs(possible - value);
-                if (diff < mindiff) {
-                    mindiff = diff;
-                    best = possible;
-                }
-            }
-            super.setValue(best);
         } else {
-            super.setValue(value);
+            // Snap to the nearest value in the domain
+            super.setValueIndex(((DoubleRange) this.getDomain()).nearestIndex(value));
         }
         return this;
     }
 
-    private static List<Double> generateDomain(final double lowerBound, final double upperBound, final double step)
+    private static DoubleRange generateDomain(final double lowerBound, final double upperBound, final double step)
             throws InvalidDomainException {
         if ((lowerBound > upperBound) || (step <= 0) || (step > (upperBound - lowerBound))) {
             throw new InvalidDomainException();
         }
 
-        final List<Double> domain = new LinkedList<>();
-        for (double d = lowerBound; d <= upperBound; d += step) {
-            domain.add(Double.valueOf(d));
-        }
-        return Collections.unmodifiableList(domain);
+        return new DoubleRange(lowerBound, upperBound, step);
     }
 
 }
@@ -0,0 +1,83 @@
+/**
+ * File IntegerRange.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+/**
+ * IntegerRange
+ *
+ * All integers from a lower bound up to and including an upper bound.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public final class IntegerRange extends ValueRange<Integer> {
+
+    private static final long serialVersionUID = 5286364620718373096L;
+
+    private final int lowerBound;
+
+    /**
+     * @param lowerBound The first value of the range
+     * @param upperBound The last value of the range, which must not be lower than the first
+     */
+    public IntegerRange(final int lowerBound, final int upperBound) {
+        super(Math.toIntExact(((long) upperBound - lowerBound) + 1));
+        this.lowerBound = lowerBound;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#get(int)
+     */
+    @Override
+    public Integer get(final int index) {
+        this.checkIndex(index);
+        return this.lowerBound + index;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#indexOf(java.lang.Object)
+     */
+    @Override
+    public int indexOf(final Object o) {
+        if (!(o instanceof Integer)) {
+            return -1;
+        }
+
+        final long index = (long) (Integer) o - this.lowerBound;
+        return (index >= 0) && (index < this.size()) ? (int) index : -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.ValueRange#nearestIndex(double)
+     */
+    @Override
+    public int nearestIndex(final double value) {
+        final double index = Math.ceil((value - this.lowerBound) - 0.5);
+        return (int) Math.max(0, Math.min(this.size() - 1, index));
+    }
+
+}
@@ -20,9 +20,8 @@
  */
 package nl.coenvl.sam.variables;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import nl.coenvl.sam.exceptions.InvalidDomainException;
 
@@ -78,15 +77,33 @@ public final class IntegerVariable extends ListVariable<Integer> {
         super(IntegerVariable.generateDomain(lowerBound, upperBound), name);
     }
 
+    /**
+     * Creates a named variable with the given bounds and a given ID.
+     *
+     * @param lowerBound
+     *            the lower bound of the variable domain
+     * @param upperBound
+     *            the upper bound of the variable domain
+     * @param name
+     *            The name of the variable
+     * @param id
+     *            The ID of the variable, which must be unique in the experiment
+     *
+     * @throws InvalidDomainException
+     *             exception is the lower bound is higher than the upper bound
+     *
+     * @see ListVariable#ListVariable(List, String, UUID)
+     */
+    public IntegerVariable(final int lowerBound, final int upperBound, final String name, final UUID id)
+            throws InvalidDomainException {
+        super(IntegerVariable.generateDomain(lowerBound, upperBound), name, id);
+    }
+
     private static List<Integer> generateDomain(final int lowerBound, final int upperBound) {
         if (lowerBound > upperBound) {
             throw new InvalidDomainException();
         }
-        final List<Integer> ret = new ArrayList<>();
-        for (int i = lowerBound; i <= upperBound; i++) {
-            ret.add(i);
-        }
-        return Collections.unmodifiableList(ret);
+        return new IntegerRange(lowerBound, upperBound);
     }
 
 }
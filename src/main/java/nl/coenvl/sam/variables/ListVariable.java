@@ -5,12 +5,19 @@
  */
 package nl.coenvl.sam.variables;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+import nl.coenvl.sam.Identifiers;
 import nl.coenvl.sam.agents.AbstractPropertyOwner;
 import nl.coenvl.sam.exceptions.InvalidValueException;
 import nl.coenvl.sam.exceptions.VariableNotSetException;
@@ -18,6 +25,10 @@ import nl.coenvl.sam.exceptions.VariableNotSetException;
 /**
  * ListVariable
  *
+ * A variable with a domain that is given as a list. The variable keeps the index of every value in a map, so that
+ * setting the variable, by value or by index, takes constant time regardless of the size of the domain. A
+ * {@link ValueRange} computes the indices of its values itself, so then no map is needed.
+ *
  * @author coenvl
  * @version 0.1
  * @since Jul 3, 2019
@@ -30,22 +41,42 @@ public class ListVariable<T> extends AbstractPropertyOwner implements DiscreteVa
     private final String name;
 
     private final List<T> domain;
+    private final Map<T, Integer> indices;
     private boolean set = false;
     private T value;
+    private int index;
 
     public ListVariable(final List<T> domain) {
         this(domain, "MyListVariable" + ListVariable.unnamedVariableSequence++);
     }
 
     public ListVariable(final List<T> domain, final String name) {
-        this.domain = domain;
+        this(domain, name, Identifiers.next());
+    }
+
+    /**
+     * Creates a variable with a given ID instead of a new one, e.g. to rebuild the variables of an experiment that
+     * was traced, so that the recorded messages can be replayed.
+     */
+    public ListVariable(final List<T> domain, final String name, final UUID id) {
+        this.domain = (domain instanceof RandomAccess) ? domain : Collections.unmodifiableList(new ArrayList<>(domain));
+        if (this.domain instanceof ValueRange) {
+            this.indices = null;
+        } else {
+            this.indices = new HashMap<>();
+            for (int i = 0; i < this.domain.size(); i++) {
+                this.indices.putIfAbsent(this.domain.get(i), i);
+            }
+        }
         this.name = name;
-        this.id = UUID.randomUUID();
+        this.id = id;
+        this.index = -1;
     }
 
     @Override
     public void clear() {
         this.value = null;
+        this.index = -1;
         this.set = false;
     }
 
@@ -66,7 +97,12 @@ public class ListVariable<T> extends AbstractPropertyOwner implements DiscreteVa
 
     @Override
     public T getRandomValue() {
-        return this.domain.get((new Random()).nextInt(this.domain.size()));
+        return this.domain.get(ThreadLocalRandom.current().nextInt(this.domain.size()));
+    }
+
+    @Override
+    public T getRandomValue(final SplittableRandom random) {
+        return this.domain.get(random.nextInt(this.domain.size()));
     }
 
     @Override
@@ -90,14 +126,72 @@ public class ListVariable<T> extends AbstractPropertyOwner implements DiscreteVa
 
     @Override
     public Variable<T> setValue(final T value) throws InvalidValueException {
-        if (!this.domain.contains(value)) {
+        final int i = this.indexOf(value);
+        if (i < 0) {
             throw new InvalidValueException(value);
         }
         this.set = true;
         this.value = value;
+        this.index = i;
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.DiscreteVariable#setValueIndex(int)
+     */
+    @Override
+    public Variable<T> setValueIndex(final int index) throws InvalidValueException {
+        this.value = this.valueAt(index);
+        this.index = index;
+        this.set = true;
         return this;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.DiscreteVariable#getValueIndex()
+     */
+    @Override
+    public int getValueIndex() throws VariableNotSetException {
+        if (!this.set) {
+            throw new VariableNotSetException();
+        }
+
+        return this.index;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.DiscreteVariable#valueAt(int)
+     */
+    @Override
+    public T valueAt(final int index) throws InvalidValueException {
+        if ((index < 0) || (index >= this.domain.size())) {
+            throw new InvalidValueException(index);
+        }
+
+        return this.domain.get(index);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see nl.coenvl.sam.variables.DiscreteVariable#indexOf(java.lang.Object)
+     */
+    @Override
+    public int indexOf(final T value) {
+        if (this.indices == null) {
+            return this.domain.indexOf(value);
+        }
+
+        final Integer i = this.indices.get(value);
+        return i == null ? -1 : i;
+    }
+
     @Override
     public UUID getID() {
         return this.id;
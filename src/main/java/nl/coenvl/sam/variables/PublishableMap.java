@@ -24,12 +24,23 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * PublishableMap
  *
+ * A map that can be sent along with a message. Once it is {@link #freeze() frozen} it no longer accepts changes, so
+ * that it can be shared by all receivers of the message. Copies, either by {@link #clone()} or by deserialization, are
+ * never frozen.
+ *
  * @author leeuwencjv
  * @version 0.1
  * @since 11 mrt. 2016
@@ -41,8 +52,139 @@ public class PublishableMap<K, V> extends HashMap<K, V> {
      */
     private static final long serialVersionUID = -995047423361340426L;
 
+    private transient boolean frozen;
+
     public PublishableMap() {
         super();
+        this.frozen = false;
+    }
+
+    /**
+     * Makes this map immutable, after which every modification throws an {@link UnsupportedOperationException}.
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException(this.getClass().getSimpleName() + " is frozen");
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        this.checkNotFrozen();
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        this.checkNotFrozen();
+        super.putAll(m);
+    }
+
+    @Override
+    public V remove(Object key) {
+        this.checkNotFrozen();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        this.checkNotFrozen();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        this.checkNotFrozen();
+        super.clear();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        this.checkNotFrozen();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        this.checkNotFrozen();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        this.checkNotFrozen();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        this.checkNotFrozen();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        this.checkNotFrozen();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        this.checkNotFrozen();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        this.checkNotFrozen();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        this.checkNotFrozen();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return this.frozen ? Collections.unmodifiableSet(super.keySet()) : super.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return this.frozen ? Collections.unmodifiableCollection(super.values()) : super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (!this.frozen) {
+            return super.entrySet();
+        }
+
+        // Wrap a view on the plain entries, so that also Entry.setValue is refused
+        return Collections.unmodifiableMap(new AbstractMap<K, V>() {
+
+            @Override
+            public Set<Map.Entry<K, V>> entrySet() {
+                return PublishableMap.super.entrySet();
+            }
+        }).entrySet();
+    }
+
+    @Override
+    public Object clone() {
+        final PublishableMap<?, ?> clone = (PublishableMap<?, ?>) super.clone();
+        clone.frozen = false;
+        return clone;
     }
 
     public String serialize() {
@@ -19,8 +19,9 @@
  */
 package nl.coenvl.sam.variables;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Vector;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * RandomAccessVector
@@ -41,8 +42,19 @@ public class RandomAccessVector<V> extends Vector<V> {
             return this.firstElement();
         }
 
-        int i = (new Random()).nextInt(this.size());
+        int i = ThreadLocalRandom.current().nextInt(this.size());
         return this.elementAt(i);
     }
 
+    /**
+     * Returns a random element, drawn from the given random stream, so that the choice is reproducible.
+     */
+    public V randomElement(final SplittableRandom random) {
+        if (this.size() <= 1) {
+            return this.firstElement();
+        }
+
+        return this.elementAt(random.nextInt(this.size()));
+    }
+
 }
@@ -0,0 +1,124 @@
+/**
+ * File ValueRange.java
+ *
+ * This file is part of the jSAM project.
+ *
+ * Copyright 2016 TNO
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nl.coenvl.sam.variables;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * ValueRange
+ *
+ * A domain of evenly spaced values, of which only the first value, the step and the number of values are stored.
+ * Every value is computed from its index when it is needed, and the index of a value is computed from the value, so
+ * the domain takes a few bytes and constant time per operation, however many values it has.
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public abstract class ValueRange<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = -4237162880466197562L;
+
+    private final int count;
+
+    protected ValueRange(final int count) {
+        this.count = count;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns an iterator over the values in the range, which can not remove values.
+     *
+     * @see java.util.AbstractList#iterator()
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < ValueRange.this.count;
+            }
+
+            @Override
+            public T next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ValueRange.this.get(this.next++);
+            }
+        };
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractCollection#contains(java.lang.Object)
+     */
+    @Override
+    public boolean contains(final Object o) {
+        return this.indexOf(o) >= 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#lastIndexOf(java.lang.Object)
+     */
+    @Override
+    public int lastIndexOf(final Object o) {
+        return this.indexOf(o);
+    }
+
+    /**
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If there is no value at the index
+     */
+    protected void checkIndex(final int index) {
+        if ((index < 0) || (index >= this.count)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.count);
+        }
+    }
+
+    /**
+     * Returns the index of the value that is nearest to the given value. If the value is halfway between two values,
+     * the lower index is returned.
+     *
+     * @param value A value, which may be outside of the range
+     * @return The index of the nearest value in the range
+     */
+    public abstract int nearestIndex(double value);
+
+}
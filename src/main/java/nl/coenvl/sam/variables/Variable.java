@@ -20,6 +20,7 @@
  */
 package nl.coenvl.sam.variables;
 
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 import nl.coenvl.sam.agents.PropertyOwner;
@@ -79,6 +80,14 @@ public interface Variable<T> extends PropertyOwner {
      */
     public T getRandomValue();
 
+    /**
+     * Return a random value that the variable may attain, drawn from the given random stream
+     *
+     * @param random The stream to draw from, typically the stream of the solver of the variable
+     * @return
+     */
+    public T getRandomValue(SplittableRandom random);
+
     /**
      * <p>
      * Return the upper bound of the variable
@@ -5,9 +5,8 @@
  */
 package nl.coenvl.sam.wpt;
 
-import nl.coenvl.sam.constraints.CompareCounter;
 import nl.coenvl.sam.constraints.HigherOrderConstraint;
-import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.Variable;
 
 /**
@@ -49,7 +48,7 @@ public class WPTSensorConstraint<T extends Variable<V>, V extends Number> extend
      */
     @Override
     public double getCost(final T targetVariable) {
-        CompareCounter.compare();
+        this.compareCounter.increment();
         return this.getExternalCost();
     }
 
@@ -57,11 +56,11 @@ public class WPTSensorConstraint<T extends Variable<V>, V extends Number> extend
      * (non-Javadoc)
      *
      * @see nl.coenvl.sam.constraints.Constraint#getCostIf(nl.coenvl.sam.variables.Variable,
-     * nl.coenvl.sam.variables.AssignmentMap)
+     * nl.coenvl.sam.variables.Assignment)
      */
     @Override
-    public double getCostIf(final T variable, final AssignmentMap<V> valueMap) {
-        CompareCounter.compare();
+    public double getCostIf(final T variable, final Assignment<V> valueMap) {
+        this.compareCounter.increment();
         double receivedEnergy = 0.0;
         for (final T var : this.constrainedVariables.values()) {
             if (valueMap.containsAssignment(var)) {
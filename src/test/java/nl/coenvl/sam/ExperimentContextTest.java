@@ -0,0 +1,207 @@
+/**
+ * File ExperimentContextTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.constraints.RandomConstraint;
+import nl.coenvl.sam.engine.BulkSynchronousEngine;
+import nl.coenvl.sam.solvers.CoCoASolver;
+import nl.coenvl.sam.solvers.CoCoSolver;
+import nl.coenvl.sam.solvers.DSASolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * ExperimentContextTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class ExperimentContextTest {
+
+    private static List<VariableAgent<DiscreteVariable<Integer>, Integer>> buildRing(final ExperimentContext context,
+            final int size) {
+        return ExperimentContextTest.buildRing(context, size, SolverAgent.SINGLE_THREADED);
+    }
+
+    private static List<VariableAgent<DiscreteVariable<Integer>, Integer>> buildRing(final ExperimentContext context,
+            final int size,
+            final boolean singleThreaded) {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3),
+                    "Agent " + i,
+                    singleThreaded,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new CoCoASolver<>(agent));
+            agents.add(agent);
+        }
+
+        for (int i = 0; i < size; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents.get((i + 1) % size);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+        }
+
+        return agents;
+    }
+
+    @Test
+    public void testIndependentContexts() throws Exception {
+        final ExperimentContext first = new ExperimentContext();
+        final ExperimentContext second = new ExperimentContext();
+
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = ExperimentContextTest.buildRing(first,
+                6);
+        ExperimentContextTest.buildRing(second, 4);
+
+        Assertions.assertSame(first, agents.get(0).getContext());
+
+        agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+        agents.get(0).init();
+
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            Assertions.assertTrue(a.getVariable().isSet());
+        }
+
+        // Only the first experiment ran
+        Assertions.assertTrue(first.getMessageBus().getTotalSentMessages() > 0);
+        Assertions.assertTrue(first.getCompareCounter().getCount() > 0);
+        Assertions.assertEquals(0, second.getMessageBus().getTotalSentMessages());
+        Assertions.assertEquals(0, second.getCompareCounter().getCount());
+
+        // The solvers multicast to their neighbors, which are all in the ring
+        final MessageStatistics.Snapshot stats = first.getMessageBus().getStatistics().snapshot();
+        Assertions.assertTrue(stats.getTotalMulticasts() > 0);
+        Assertions.assertEquals(2.0, stats.getAverageFanOut());
+
+        first.reset();
+        Assertions.assertEquals(0, first.getMessageBus().getTotalSentMessages());
+        Assertions.assertEquals(0, first.getCompareCounter().getCount());
+        Assertions.assertFalse(agents.get(0).getVariable().isSet());
+    }
+
+    /**
+     * @return The threads of solver runners that are alive, except for those in the given set
+     */
+    private static Set<Thread> runnerThreads(final Set<Thread> except) {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .filter(t -> t.getName().startsWith("SolverRunnerThread-") && !except.contains(t))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testRearm() throws Exception {
+        final Set<Thread> others = ExperimentContextTest.runnerThreads(Collections.emptySet());
+        final ExperimentContext context = new ExperimentContext();
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = ExperimentContextTest.buildRing(context,
+                20,
+                SolverAgent.MULTI_THREADED);
+        agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+
+        Set<Thread> threads = null;
+        for (int run = 0; run < 3; run++) {
+            agents.get(0).init();
+            Assertions.assertTrue(context.getMessageBus().awaitQuiescence(10, TimeUnit.SECONDS));
+            for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+                Assertions.assertTrue(a.isFinished());
+            }
+
+            // Every run uses the same threads
+            if (threads == null) {
+                threads = ExperimentContextTest.runnerThreads(others);
+                Assertions.assertFalse(threads.isEmpty());
+            } else {
+                Assertions.assertEquals(threads, ExperimentContextTest.runnerThreads(others));
+            }
+
+            context.rearm();
+            Assertions.assertEquals(0, context.getMessageBus().getTotalSentMessages());
+            Assertions.assertEquals(0, context.getCompareCounter().getCount());
+            Assertions.assertFalse(agents.get(0).getVariable().isSet());
+        }
+
+        // A reset stops the threads
+        context.reset();
+        for (final Thread t : threads) {
+            Assertions.assertFalse(t.isAlive());
+        }
+    }
+
+    /**
+     * Runs DSA on a ring with random costs, and returns the final values of the variables
+     */
+    private static List<Integer> runSeededDSA(final long seed) throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        context.setSeed(seed);
+
+        final int size = 20;
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 5),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new DSASolver<>(agent));
+            agents.add(agent);
+        }
+
+        for (int i = 0; i < size; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents.get((i + 1) % size);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new RandomConstraint<>(a.getVariable(),
+                    b.getVariable(),
+                    context.newRandom());
+            a.addConstraint(c);
+            b.addConstraint(c);
+        }
+
+        final BulkSynchronousEngine engine = new BulkSynchronousEngine(context, agents);
+        engine.init();
+        engine.run(40);
+
+        final List<Integer> values = new ArrayList<>();
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            values.add(a.getVariable().getValue());
+        }
+        return values;
+    }
+
+    @Test
+    public void testSeed() throws InterruptedException {
+        // The same seed gives the same problem, and the same random choices of the solvers
+        Assertions.assertEquals(ExperimentContextTest.runSeededDSA(42), ExperimentContextTest.runSeededDSA(42));
+
+        final ExperimentContext first = new ExperimentContext();
+        final ExperimentContext second = new ExperimentContext();
+        first.setSeed(7);
+        second.setSeed(7);
+        Assertions.assertEquals(first.newRandom().nextLong(), second.newRandom().nextLong());
+        Assertions.assertNotEquals(first.newRandom().nextLong(), first.newRandom().nextLong());
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * File ExperimentControlTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentControl.BatchResult;
+import nl.coenvl.sam.ExperimentControl.RunStatistics;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.engine.ExperimentRunner;
+import nl.coenvl.sam.solvers.DSASolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * ExperimentControlTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class ExperimentControlTest {
+
+    private static final int RING_SIZE = 40;
+    private static final int ITERATIONS = 25;
+
+    private static final ExperimentControl.ProblemFactory DSA_RING = (context, pool) -> {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < ExperimentControlTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new DSASolver<>(agent));
+            agents.add(agent);
+        }
+
+        final List<Constraint<DiscreteVariable<Integer>, Integer>> constraints = new ArrayList<>();
+        for (int i = 0; i < ExperimentControlTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents
+                    .get((i + 1) % ExperimentControlTest.RING_SIZE);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+            constraints.add(c);
+        }
+
+        final ExperimentRunner runner = new ExperimentRunner(context, agents, constraints, pool);
+        runner.setMaxIterations(ExperimentControlTest.ITERATIONS);
+        return runner;
+    };
+
+    @Test
+    public void testBatch() throws InterruptedException, ExecutionException {
+        final long[] seeds = { 1, 2, 3, 4, 5, 1 };
+        final BatchResult batch = ExperimentControl.runBatch(ExperimentControlTest.DSA_RING, seeds, 3);
+
+        Assertions.assertEquals(seeds.length, batch.getRuns().size());
+        for (int i = 0; i < seeds.length; i++) {
+            final RunStatistics run = batch.getRuns().get(i);
+            Assertions.assertEquals(seeds[i], run.getSeed());
+            Assertions.assertEquals(ExperimentControlTest.ITERATIONS, run.getIterations());
+            Assertions.assertTrue(run.getMessages() > 0);
+            Assertions.assertTrue(run.getEvaluations() > 0);
+            Assertions.assertTrue(run.getTime() > 0);
+        }
+
+        // The runs are isolated, so the same seed gives the same run, even when other runs are running concurrently
+        final RunStatistics first = batch.getRuns().get(0);
+        final RunStatistics last = batch.getRuns().get(seeds.length - 1);
+        Assertions.assertArrayEquals(first.getResult().getCosts(), last.getResult().getCosts());
+        Assertions.assertEquals(first.getMessages(), last.getMessages());
+        Assertions.assertEquals(first.getEvaluations(), last.getEvaluations());
+
+        Assertions.assertEquals(seeds.length, batch.getFinalCosts().getCount());
+        Assertions.assertTrue(batch.getFinalCosts().getMin() >= 0);
+    }
+
+    @Test
+    public void testFailedRun() {
+        final ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> ExperimentControl.runBatch((context, pool) -> {
+                    throw new IllegalStateException("No problem");
+                }, new long[] { 1 }, 1));
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * File IdentifiersTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IdentifiersTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class IdentifiersTest {
+
+    @Test
+    public void testUniqueAndOrdered() {
+        final Set<UUID> ids = new HashSet<>();
+        UUID previous = Identifiers.next();
+        for (int i = 0; i < 10000; i++) {
+            final UUID id = Identifiers.next();
+            Assertions.assertTrue(previous.compareTo(id) < 0);
+            Assertions.assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testVersionAndVariant() {
+        for (int i = 0; i < 100; i++) {
+            final UUID id = Identifiers.next();
+            Assertions.assertEquals(4, id.version());
+            Assertions.assertEquals(2, id.variant());
+            Assertions.assertEquals(id, UUID.fromString(id.toString()));
+        }
+    }
+
+}
@@ -7,16 +7,20 @@ package nl.coenvl.sam;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.agents.SolverAgent;
 import nl.coenvl.sam.agents.VariableAgent;
 import nl.coenvl.sam.constraints.Constraint;
 import nl.coenvl.sam.constraints.InequalityConstraint;
 import nl.coenvl.sam.exceptions.InvalidPropertyException;
 import nl.coenvl.sam.solvers.CoCoASolver;
 import nl.coenvl.sam.solvers.CoCoSolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.IntegerVariable;
 import nl.coenvl.sam.variables.Variable;
 
@@ -52,14 +56,51 @@ public class IntegrationTest {
 
         agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
         agents.get(0).init();
-        
-        while(!agents.stream().allMatch(Agent::isFinished)) {
-        	Thread.sleep(10);
-        }
+
+        Assertions.assertTrue(MailMan.awaitQuiescence(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(agents.stream().allMatch(Agent::isFinished));
 
         for (final Variable v : variables) {
             System.out.println(v.getValue());
         }
     }
 
+    @Test
+    public void testMixedDomains() throws InvalidPropertyException {
+        final ExperimentContext context = new ExperimentContext();
+        final int[] ranges = {3, 5, 2, 4};
+        for (final boolean anytime : new boolean[] {false, true}) {
+            final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+            for (int v = 0; v < ranges.length; v++) {
+                final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                        new IntegerVariable(1, ranges[v]),
+                        String.format("Agent %d", v),
+                        SolverAgent.SINGLE_THREADED,
+                        SolverAgent.SIMULTANEOUS_ACTIVATION);
+                agent.setSolver(anytime ? new CoCoASolver<>(agent) : new CoCoSolver<>(agent));
+                agents.add(agent);
+            }
+
+            // The costs that neighbors send have to match the domain of the receiver
+            for (int v = 1; v < ranges.length; v++) {
+                final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(
+                        agents.get(v - 1).getVariable(),
+                        agents.get(v).getVariable());
+                agents.get(v - 1).addConstraint(c);
+                agents.get(v).addConstraint(c);
+            }
+
+            agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+            agents.get(0).init();
+
+            for (int v = 1; v < ranges.length; v++) {
+                final DiscreteVariable<Integer> a = agents.get(v - 1).getVariable();
+                final DiscreteVariable<Integer> b = agents.get(v).getVariable();
+                Assertions.assertTrue(a.isSet() && b.isSet());
+                Assertions.assertNotEquals(a.getValue(), b.getValue());
+            }
+            context.reset();
+        }
+    }
+
 }
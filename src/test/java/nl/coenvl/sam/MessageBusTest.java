@@ -0,0 +1,112 @@
+/**
+ * File MessageBusTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.solvers.MGMSolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * MessageBusTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class MessageBusTest {
+
+    private static final int RING_SIZE = 6;
+
+    @Test
+    public void testEnvelopeMode() {
+        final ExperimentContext context = new ExperimentContext();
+        final MessageBus bus = context.getMessageBus();
+        bus.setEnvelopeMode(true);
+
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < MessageBusTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new MGMSolver<>(agent));
+            agents.add(agent);
+        }
+
+        for (int i = 0; i < MessageBusTest.RING_SIZE; i++) {
+            final DiscreteVariable<Integer> a = agents.get(i).getVariable();
+            final DiscreteVariable<Integer> b = agents.get((i + 1) % MessageBusTest.RING_SIZE).getVariable();
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a, b);
+            agents.get(i).addConstraint(c);
+            agents.get((i + 1) % MessageBusTest.RING_SIZE).addConstraint(c);
+        }
+
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            a.init();
+        }
+
+        // MGM sends its value and its gain to both neighbors, which receive one envelope each on the flush, and then
+        // picks a new value without sending anything
+        int sendingTicks = 0;
+        for (int tick = 0; tick < 9; tick++) {
+            for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+                a.tick();
+            }
+
+            if ((tick % 3) == 2) {
+                Assertions.assertFalse(bus.hasHeldMessages());
+                Assertions.assertEquals(0, bus.flush());
+            } else {
+                sendingTicks++;
+                Assertions.assertTrue(bus.hasHeldMessages());
+                Assertions.assertEquals(MessageBusTest.RING_SIZE, bus.flush());
+                Assertions.assertFalse(bus.hasHeldMessages());
+            }
+
+            final MessageStatistics.Snapshot stats = bus.getStatistics().snapshot();
+            Assertions.assertEquals(sendingTicks * 2 * MessageBusTest.RING_SIZE, stats.getTotalDelivered());
+            Assertions.assertEquals(sendingTicks * MessageBusTest.RING_SIZE, stats.getTotalEnvelopes());
+        }
+
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            Assertions.assertTrue(a.getVariable().isSet());
+        }
+    }
+
+    @Test
+    public void testMailboxIndices() {
+        final ExperimentContext context = new ExperimentContext();
+        final MessageBus bus = context.getMessageBus();
+        final List<UUID> addresses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            addresses.add(Identifiers.next());
+        }
+
+        // Indices are handed out densely in the order in which the mailboxes are created
+        for (int i = 0; i < addresses.size(); i++) {
+            final Mailbox box = bus.mailbox(addresses.get(i));
+            Assertions.assertEquals(i, box.getIndex());
+        }
+        Assertions.assertEquals(7, bus.mailbox(addresses.get(7)).getIndex());
+
+        bus.reset();
+        Assertions.assertEquals(0, bus.mailbox(addresses.get(7)).getIndex());
+        Assertions.assertEquals(1, bus.mailbox(addresses.get(0)).getIndex());
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * File MessageStatisticsTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * MessageStatisticsTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class MessageStatisticsTest {
+
+    private static final int THREADS = 8;
+    private static final int MESSAGES = 100000;
+
+    @Test
+    public void testConcurrentCounts() throws InterruptedException {
+        final MessageStatistics stats = new MessageStatistics();
+        final Mailbox receiver = new MessageBus().mailbox(UUID.randomUUID());
+
+        final List<Thread> threads = new ArrayList<>();
+        final List<UUID> senders = new ArrayList<>();
+        for (int t = 0; t < MessageStatisticsTest.THREADS; t++) {
+            final UUID sender = UUID.randomUUID();
+            senders.add(sender);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < MessageStatisticsTest.MESSAGES; i++) {
+                    stats.recordSent((i % 2) == 0 ? "EVEN" : "ODD", sender);
+                    stats.recordDelivered(receiver, 3);
+                }
+            }));
+        }
+
+        for (final Thread t : threads) {
+            t.start();
+        }
+        for (final Thread t : threads) {
+            t.join();
+        }
+
+        final long total = (long) MessageStatisticsTest.THREADS * MessageStatisticsTest.MESSAGES;
+        final MessageStatistics.Snapshot snapshot = stats.snapshot();
+        Assertions.assertEquals(total, snapshot.getTotalDelivered());
+        Assertions.assertEquals(3 * total, snapshot.getTotalBytes());
+        Assertions.assertEquals(total / 2, snapshot.getSentPerType().get("EVEN").longValue());
+        Assertions.assertEquals(total / 2, snapshot.getSentPerType().get("ODD").longValue());
+        Assertions.assertEquals(total, snapshot.getDeliveredPerReceiver().get(receiver.getAddress()).longValue());
+        for (final UUID sender : senders) {
+            Assertions.assertEquals(MessageStatisticsTest.MESSAGES,
+                    snapshot.getSentPerSender().get(sender).longValue());
+        }
+
+        // The snapshot is immutable and does not change with the counters
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.getSentPerType().clear());
+        stats.reset();
+        Assertions.assertEquals(total, snapshot.getTotalDelivered());
+        Assertions.assertEquals(0, stats.snapshot().getTotalDelivered());
+        Assertions.assertTrue(stats.snapshot().getSentPerType().isEmpty());
+    }
+
+    @Test
+    public void testCountsPerReceiver() throws InterruptedException {
+        final MessageStatistics stats = new MessageStatistics();
+        final MessageBus bus = new MessageBus();
+        final List<Mailbox> receivers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            receivers.add(bus.mailbox(UUID.randomUUID()));
+        }
+
+        // Every thread delivers to the receivers in a different order, so that the counters are created concurrently
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < MessageStatisticsTest.THREADS; t++) {
+            final int offset = t * 127;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < receivers.size(); i++) {
+                    final Mailbox receiver = receivers.get((i + offset) % receivers.size());
+                    for (int j = 0; j <= receiver.getIndex() % 5; j++) {
+                        stats.recordDelivered(receiver, 0);
+                    }
+                }
+            }));
+        }
+        for (final Thread t : threads) {
+            t.start();
+        }
+        for (final Thread t : threads) {
+            t.join();
+        }
+
+        final Map<UUID, Long> perReceiver = stats.snapshot().getDeliveredPerReceiver();
+        Assertions.assertEquals(receivers.size(), perReceiver.size());
+        for (final Mailbox receiver : receivers) {
+            Assertions.assertEquals(MessageStatisticsTest.THREADS * (1 + (receiver.getIndex() % 5)),
+                    perReceiver.get(receiver.getAddress()).longValue());
+        }
+
+        stats.reset();
+        Assertions.assertTrue(stats.snapshot().getDeliveredPerReceiver().isEmpty());
+    }
+
+    @Test
+    public void testMulticastCounts() {
+        final MessageStatistics stats = new MessageStatistics();
+        final UUID sender = UUID.randomUUID();
+
+        stats.recordMulticast("TEST", sender, 5);
+        stats.recordMulticast("TEST", sender, 3);
+        stats.recordSent("TEST", sender);
+
+        final MessageStatistics.Snapshot snapshot = stats.snapshot();
+        Assertions.assertEquals(2, snapshot.getTotalMulticasts());
+        Assertions.assertEquals(8, snapshot.getTotalMulticastFanOut());
+        Assertions.assertEquals(4.0, snapshot.getAverageFanOut());
+        Assertions.assertEquals(9, snapshot.getSentPerType().get("TEST").longValue());
+        Assertions.assertEquals(9, snapshot.getSentPerSender().get(sender).longValue());
+
+        stats.reset();
+        Assertions.assertEquals(0, stats.getTotalMulticasts());
+        Assertions.assertEquals(0.0, stats.snapshot().getAverageFanOut());
+    }
+
+}
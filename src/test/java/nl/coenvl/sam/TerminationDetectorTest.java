@@ -0,0 +1,101 @@
+/**
+ * File TerminationDetectorTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.exceptions.InvalidPropertyException;
+import nl.coenvl.sam.solvers.CoCoASolver;
+import nl.coenvl.sam.solvers.CoCoSolver;
+import nl.coenvl.sam.solvers.SolverRunner;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * TerminationDetectorTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class TerminationDetectorTest {
+
+    private static final int RING_SIZE = 10;
+    private static final int REPETITIONS = 200;
+
+    @Test
+    public void testCounts() throws InterruptedException {
+        final TerminationDetector detector = new TerminationDetector();
+        Assertions.assertTrue(detector.isQuiescent());
+
+        detector.begin();
+        detector.begin();
+        detector.end();
+        Assertions.assertEquals(1, detector.getOutstanding());
+        Assertions.assertFalse(detector.awaitQuiescence(10, TimeUnit.MILLISECONDS));
+
+        final Thread worker = new Thread(detector::end);
+        worker.start();
+        Assertions.assertTrue(detector.awaitQuiescence(10, TimeUnit.SECONDS));
+        worker.join();
+
+        detector.begin();
+        detector.reset();
+        Assertions.assertTrue(detector.isQuiescent());
+    }
+
+    @Test
+    public void testRepeatedRuns() throws InterruptedException, InvalidPropertyException {
+        final ExecutorService pool = SolverRunner.newWorkStealingPool();
+        for (int run = 0; run < TerminationDetectorTest.REPETITIONS; run++) {
+            final ExperimentContext context = new ExperimentContext();
+            context.setExecutor(pool);
+
+            final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+            for (int i = 0; i < TerminationDetectorTest.RING_SIZE; i++) {
+                final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                        new IntegerVariable(1, 3),
+                        "Agent " + i,
+                        SolverAgent.MULTI_THREADED,
+                        SolverAgent.SIMULTANEOUS_ACTIVATION);
+                agent.setSolver(new CoCoASolver<>(agent));
+                agents.add(agent);
+            }
+
+            for (int i = 0; i < TerminationDetectorTest.RING_SIZE; i++) {
+                final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+                final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents
+                        .get((i + 1) % TerminationDetectorTest.RING_SIZE);
+                final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                        b.getVariable());
+                a.addConstraint(c);
+                b.addConstraint(c);
+            }
+
+            agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+            agents.get(0).init();
+
+            // Quiescent means that every message is handled, so all agents are done without polling
+            Assertions.assertTrue(context.getMessageBus().awaitQuiescence(10, TimeUnit.SECONDS));
+            for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+                Assertions.assertTrue(a.isFinished());
+            }
+            context.reset();
+        }
+        pool.shutdown();
+    }
+
+}
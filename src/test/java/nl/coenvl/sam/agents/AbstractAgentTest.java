@@ -6,6 +6,8 @@
 package nl.coenvl.sam.agents;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
 
@@ -13,13 +15,18 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.MessageBus;
 import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.HigherOrderConstraint;
 import nl.coenvl.sam.constraints.InequalityConstraint;
 import nl.coenvl.sam.constraints.LessThanConstraint;
 import nl.coenvl.sam.constraints.RandomConstraint;
 import nl.coenvl.sam.exceptions.VariableNotInvolvedException;
 import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.variables.Assignment;
 import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.DenseAssignment;
 import nl.coenvl.sam.variables.DiscreteVariable;
 import nl.coenvl.sam.variables.FixedPrecisionVariable;
 import nl.coenvl.sam.variables.Variable;
@@ -238,6 +245,77 @@ public class AbstractAgentTest {
         Assertions.assertTrue(this.agent.getConstrainedVariableIds().isEmpty());
     }
 
+    @Test
+    public void getNeighborMailboxes() {
+        Assertions.assertEquals(0, this.agent.getNeighborMailboxes().length);
+
+        this.agent.addConstraint(this.constraint);
+        final Mailbox[] mailboxes = this.agent.getNeighborMailboxes();
+        Assertions.assertEquals(1, mailboxes.length);
+        Assertions.assertEquals(this.otherVariable.getID(), mailboxes[0].getAddress());
+
+        // The mailbox is the one of the bus, even though nobody registered for it yet
+        final MessageBus bus = this.agent.getContext().getMessageBus();
+        Assertions.assertSame(bus.mailbox(this.otherVariable.getID()), mailboxes[0]);
+        Assertions.assertSame(this.agent, bus.mailbox(this.ownedVariable.getID()).getOwner());
+
+        this.agent.removeConstraint(this.constraint);
+        Assertions.assertEquals(0, this.agent.getNeighborMailboxes().length);
+    }
+
+    @Test
+    public void testVariableAddedToConstraint() {
+        // Costs the sum of the values of the variables in the constraint
+        final HigherOrderConstraint<DiscreteVariable<Double>, Double> sum;
+        sum = new HigherOrderConstraint<DiscreteVariable<Double>, Double>() {
+
+            @Override
+            public double getCost(final DiscreteVariable<Double> targetVariable) {
+                return this.getExternalCost();
+            }
+
+            @Override
+            public double getCostIf(final DiscreteVariable<Double> variable, final Assignment<Double> valueMap) {
+                double cost = 0;
+                for (final DiscreteVariable<Double> v : this.constrainedVariables.values()) {
+                    cost += valueMap.getAssignment(v);
+                }
+                return cost;
+            }
+
+            @Override
+            public double getExternalCost() {
+                double cost = 0;
+                for (final DiscreteVariable<Double> v : this.constrainedVariables.values()) {
+                    cost += v.getValue();
+                }
+                return cost;
+            }
+        };
+        sum.addVariable(this.ownedVariable);
+        this.agent.addConstraint(sum);
+        Assertions.assertTrue(this.agent.getConstrainedVariableIds().isEmpty());
+        Assertions.assertEquals(0, this.agent.getNeighborMailboxes().length);
+
+        final DenseAssignment<Double> values = new DenseAssignment<>(
+                Arrays.asList(this.ownedVariable.getID(), this.otherVariable.getID()));
+        values.setAssignment(this.ownedVariable, 1.0);
+        values.setAssignment(this.otherVariable, 2.0);
+        Assertions.assertEquals(1.0, this.agent.getLocalCostIf(values));
+
+        // The variable is picked up even though the constraint was already given to the agent
+        sum.addVariable(this.otherVariable);
+        Assertions.assertEquals(Collections.singleton(this.otherVariable.getID()),
+                this.agent.getConstrainedVariableIds());
+        Assertions.assertEquals(this.otherVariable.getID(), this.agent.getNeighborMailboxes()[0].getAddress());
+        Assertions.assertEquals(3.0, this.agent.getLocalCostIf(values));
+
+        sum.removeVariable(this.otherVariable);
+        Assertions.assertTrue(this.agent.getConstrainedVariableIds().isEmpty());
+        Assertions.assertEquals(0, this.agent.getNeighborMailboxes().length);
+        Assertions.assertEquals(1.0, this.agent.getLocalCostIf(values));
+    }
+
     @Test
     public void getConstraintForAgent() throws IllegalAccessException {
         Assertions.assertNull(this.agent.getConstraintForAgent(UUID.randomUUID()));
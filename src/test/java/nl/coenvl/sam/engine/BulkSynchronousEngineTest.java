@@ -0,0 +1,153 @@
+/**
+ * File BulkSynchronousEngineTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.agents.Agent;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.solvers.AbstractSolver;
+import nl.coenvl.sam.solvers.IterativeSolver;
+import nl.coenvl.sam.solvers.MGMSolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * BulkSynchronousEngineTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class BulkSynchronousEngineTest {
+
+    private static final int RING_SIZE = 50;
+    private static final int ROUNDS = 30;
+
+    /**
+     * Sends the number of its tick to its neighbors, and checks that it receives the ticks of its neighbors after its
+     * own tick in the same round, and before its next tick
+     */
+    private static class RoundSolver extends AbstractSolver<DiscreteVariable<Integer>, Integer>
+            implements IterativeSolver {
+
+        private int ticks;
+        private int received;
+        private int errors;
+
+        RoundSolver(final Agent<DiscreteVariable<Integer>, Integer> agent) {
+            super(agent);
+        }
+
+        @Override
+        public void init() {
+            this.myVariable.setValue(1);
+        }
+
+        @Override
+        public void push(final Message m) {
+            if (m.getInteger("tick") != this.ticks) {
+                this.errors++;
+            }
+            this.received++;
+        }
+
+        @Override
+        public void tick() {
+            this.ticks++;
+            final TypedMessage m = new TypedMessage(this.myVariable.getID(), "TICK");
+            m.put("tick", this.ticks);
+            this.sendToNeighbors(m);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+        }
+    }
+
+    private static List<VariableAgent<DiscreteVariable<Integer>, Integer>> buildRing(final ExperimentContext context) {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < BulkSynchronousEngineTest.RING_SIZE; i++) {
+            agents.add(new VariableAgent<>(context,
+                    new IntegerVariable(1, 3),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION));
+        }
+
+        for (int i = 0; i < BulkSynchronousEngineTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents
+                    .get((i + 1) % BulkSynchronousEngineTest.RING_SIZE);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+        }
+        return agents;
+    }
+
+    @Test
+    public void testBarrier() throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = BulkSynchronousEngineTest
+                .buildRing(context);
+        final List<RoundSolver> solvers = new ArrayList<>();
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            final RoundSolver solver = new RoundSolver(a);
+            a.setIterativeSolver(solver);
+            solvers.add(solver);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final BulkSynchronousEngine engine = new BulkSynchronousEngine(context, agents, pool);
+        engine.init();
+        engine.run(BulkSynchronousEngineTest.ROUNDS);
+        pool.shutdown();
+
+        Assertions.assertEquals(BulkSynchronousEngineTest.ROUNDS, engine.getRound());
+        Assertions.assertFalse(context.getMessageBus().hasHeldMessages());
+        for (final RoundSolver s : solvers) {
+            Assertions.assertEquals(BulkSynchronousEngineTest.ROUNDS, s.ticks);
+            Assertions.assertEquals(2 * BulkSynchronousEngineTest.ROUNDS, s.received);
+            Assertions.assertEquals(0, s.errors);
+        }
+    }
+
+    @Test
+    public void testMGM() throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = BulkSynchronousEngineTest
+                .buildRing(context);
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            a.setSolver(new MGMSolver<>(a));
+        }
+
+        final BulkSynchronousEngine engine = new BulkSynchronousEngine(context, agents);
+        engine.init();
+        engine.run(BulkSynchronousEngineTest.ROUNDS);
+
+        // MGM sends in two out of every three rounds, to both neighbors of every agent
+        Assertions.assertEquals((2 * BulkSynchronousEngineTest.ROUNDS / 3) * 2 * BulkSynchronousEngineTest.RING_SIZE,
+                context.getMessageBus().getTotalSentMessages());
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            Assertions.assertTrue(a.getVariable().isSet());
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * File DiscreteEventSimulatorTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Mailbox;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.exceptions.InvalidPropertyException;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.solvers.CoCoASolver;
+import nl.coenvl.sam.solvers.CoCoSolver;
+import nl.coenvl.sam.solvers.Solver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * DiscreteEventSimulatorTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class DiscreteEventSimulatorTest {
+
+    private static final int RING_SIZE = 2000;
+
+    private static List<VariableAgent<DiscreteVariable<Integer>, Integer>> buildRing(final ExperimentContext context) {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < DiscreteEventSimulatorTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3, "Variable " + i, new UUID(0, i)),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new CoCoASolver<>(agent));
+            agents.add(agent);
+        }
+
+        for (int i = 0; i < DiscreteEventSimulatorTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents
+                    .get((i + 1) % DiscreteEventSimulatorTest.RING_SIZE);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+        }
+        return agents;
+    }
+
+    /**
+     * Runs CoCoA on a ring with fixed addresses in the simulator, since the order in which neighbors are visited
+     * depends on them. Returns the completion time followed by the values of the variables
+     */
+    private static List<Object> simulate(final long seed) throws InvalidPropertyException {
+        final ExperimentContext context = new ExperimentContext();
+        context.setSeed(seed);
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = DiscreteEventSimulatorTest
+                .buildRing(context);
+        final DiscreteEventSimulator simulator = new DiscreteEventSimulator(context.getMessageBus(),
+                LatencyModel.uniform(1, 10, context.newRandom()));
+        context.getMessageBus().setTransport(simulator);
+
+        // Nothing is delivered before the simulator runs
+        agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+        agents.get(0).init();
+        Assertions.assertEquals(0, simulator.getDeliveredMessages());
+        Assertions.assertTrue(simulator.getPendingMessages() > 0);
+
+        final double completion = simulator.run();
+        Assertions.assertEquals(context.getMessageBus().getTotalSentMessages(), simulator.getDeliveredMessages());
+        Assertions.assertTrue(context.getMessageBus().getTerminationDetector().isQuiescent());
+
+        final List<Object> result = new ArrayList<>();
+        result.add(completion);
+        for (final VariableAgent<DiscreteVariable<Integer>, Integer> a : agents) {
+            Assertions.assertTrue(a.isFinished());
+            result.add(a.getVariable().getValue());
+        }
+        return result;
+    }
+
+    @Test
+    public void testReproducible() throws InvalidPropertyException {
+        final List<Object> first = DiscreteEventSimulatorTest.simulate(42);
+        final List<Object> second = DiscreteEventSimulatorTest.simulate(42);
+        Assertions.assertTrue((Double) first.get(0) > 0);
+        Assertions.assertEquals(first, second);
+    }
+
+    @Test
+    public void testFifoLinks() {
+        final ExperimentContext context = new ExperimentContext();
+        final List<Double> times = new ArrayList<>();
+        final List<Integer> order = new ArrayList<>();
+        final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                new IntegerVariable(1, 3),
+                "Receiver",
+                SolverAgent.SINGLE_THREADED,
+                SolverAgent.SIMULTANEOUS_ACTIVATION);
+
+        // The first message is slow and the second one fast
+        final DiscreteEventSimulator simulator = new DiscreteEventSimulator(context.getMessageBus(),
+                (source, target, m) -> m.getInteger("i") == 0 ? 5 : 1);
+        context.getMessageBus().setTransport(simulator);
+        agent.setSolver(new Solver() {
+
+            @Override
+            public void init() {
+                // Nothing to do
+            }
+
+            @Override
+            public void push(final Message m) {
+                times.add(simulator.getTime());
+                order.add(m.getInteger("i"));
+            }
+
+            @Override
+            public void reset() {
+                // Nothing to do
+            }
+        });
+
+        final Mailbox target = context.getMessageBus().mailbox(agent.getVariable().getID());
+        final UUID source = UUID.randomUUID();
+        for (int i = 0; i < 2; i++) {
+            final TypedMessage m = new TypedMessage(source, "TEST");
+            m.put("i", i);
+            context.getMessageBus().send(target, m);
+        }
+        Assertions.assertEquals(5.0, simulator.run());
+        Assertions.assertEquals(List.of(0, 1), order);
+        Assertions.assertEquals(List.of(5.0, 5.0), times);
+
+        // Without FIFO links the fast message overtakes the slow one
+        times.clear();
+        order.clear();
+        simulator.close();
+        simulator.setFifoLinks(false);
+        for (int i = 0; i < 2; i++) {
+            final TypedMessage m = new TypedMessage(source, "TEST");
+            m.put("i", i);
+            context.getMessageBus().send(target, m);
+        }
+        simulator.run();
+        Assertions.assertEquals(List.of(1, 0), order);
+        Assertions.assertEquals(List.of(1.0, 5.0), times);
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * File ExperimentRunnerTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.solvers.DSASolver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * ExperimentRunnerTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class ExperimentRunnerTest {
+
+    private static final int RING_SIZE = 30;
+
+    private static ExperimentRunner buildRunner(final ExperimentContext context) {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < ExperimentRunnerTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new DSASolver<>(agent));
+            agents.add(agent);
+        }
+
+        final List<Constraint<DiscreteVariable<Integer>, Integer>> constraints = new ArrayList<>();
+        for (int i = 0; i < ExperimentRunnerTest.RING_SIZE; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents
+                    .get((i + 1) % ExperimentRunnerTest.RING_SIZE);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+            constraints.add(c);
+        }
+
+        return new ExperimentRunner(context, agents, constraints);
+    }
+
+    @Test
+    public void testIterationBudget() throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        final ExperimentRunner runner = ExperimentRunnerTest.buildRunner(context);
+        runner.setMaxIterations(53);
+        runner.setSampleInterval(5);
+
+        final ExperimentRunner.Result result = runner.run();
+
+        // The initial state, every fifth iteration, and the final iteration
+        Assertions.assertEquals(12, result.size());
+        Assertions.assertEquals(0, result.getIterations()[0]);
+        Assertions.assertEquals(50, result.getIterations()[10]);
+        Assertions.assertEquals(53, result.getIterations()[11]);
+        Assertions.assertEquals(12, result.getCosts().length);
+
+        for (int i = 1; i < result.size(); i++) {
+            Assertions.assertTrue(result.getMessages()[i] >= result.getMessages()[i - 1]);
+            Assertions.assertTrue(result.getEvaluations()[i] >= result.getEvaluations()[i - 1]);
+            Assertions.assertTrue(result.getTimes()[i] >= result.getTimes()[i - 1]);
+        }
+        Assertions.assertEquals(context.getMessageBus().getTotalSentMessages(), result.getMessages()[11]);
+        Assertions.assertTrue(result.getEvaluations()[11] > 0);
+        Assertions.assertEquals(result.getCosts()[11], result.getFinalCost());
+    }
+
+    @Test
+    public void testConvergenceListener() throws InterruptedException {
+        final ExperimentRunner runner = ExperimentRunnerTest.buildRunner(new ExperimentContext());
+        runner.setMaxIterations(1000);
+
+        // Stop as soon as there are no conflicts, or after 10 samples
+        final int[] samples = new int[1];
+        runner.setConvergenceListener((iteration, cost, messages, evaluations) -> {
+            samples[0]++;
+            return (cost > 0) && (samples[0] < 10);
+        });
+
+        final ExperimentRunner.Result result = runner.run();
+        Assertions.assertEquals(samples[0], result.size());
+        Assertions.assertTrue(result.size() <= 10);
+    }
+
+    @Test
+    public void testTimeLimit() throws InterruptedException {
+        final ExperimentRunner runner = ExperimentRunnerTest.buildRunner(new ExperimentContext());
+        runner.setTimeLimit(100, TimeUnit.MILLISECONDS);
+
+        final ExperimentRunner.Result result = runner.run();
+        Assertions.assertTrue(result.size() > 1);
+        Assertions.assertEquals(result.size(), result.getIterations().length);
+        Assertions.assertEquals(result.size() - 1, result.getIterations()[result.size() - 1]);
+    }
+
+}
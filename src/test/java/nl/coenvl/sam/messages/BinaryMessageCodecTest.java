@@ -0,0 +1,137 @@
+/**
+ * File BinaryMessageCodecTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.messages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.CostVector;
+import nl.coenvl.sam.variables.PublishableMap;
+
+/**
+ * BinaryMessageCodecTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class BinaryMessageCodecTest {
+
+    private BinaryMessageCodec sender;
+    private BinaryMessageCodec receiver;
+    private UUID source;
+
+    @BeforeEach
+    public void init() {
+        this.sender = new BinaryMessageCodec();
+        this.receiver = new BinaryMessageCodec();
+        this.source = UUID.randomUUID();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final AssignmentMap<Integer> cpa = new AssignmentMap<>();
+        cpa.put(UUID.randomUUID(), 1);
+        cpa.put(UUID.randomUUID(), -3);
+
+        final CostMap<Integer> costMap = new CostMap<>();
+        costMap.put(0, 1.5);
+        costMap.put(1, Double.MAX_VALUE);
+
+        final CostVector costs = new CostVector(new double[] { 0, -2.5, Double.MAX_VALUE });
+
+        final PublishableMap<String, Integer> offers = new PublishableMap<>();
+        offers.put("{\"offer\":1}", 1);
+
+        final Message msg = new TypedMessage(this.source, "TEST");
+        msg.put("cpa", cpa);
+        msg.put("costMap", costMap);
+        msg.put("costs", costs);
+        msg.put("offers", offers);
+        msg.put("domain", Arrays.asList(true, false));
+        msg.put("gain", 0.125);
+        msg.put("count", -42);
+        msg.put("state", "DONE");
+        msg.put("long", (Object) Long.MIN_VALUE);
+        msg.put("other", this.source);
+        msg.put("serialized", new StringBuilder("fallback").toString().toCharArray());
+
+        final Message copy = this.receiver.decode(this.sender.encode(msg));
+        Assertions.assertEquals("TEST", copy.getType());
+        Assertions.assertEquals(this.source, copy.getSource());
+        Assertions.assertEquals(msg.keySet(), copy.keySet());
+        Assertions.assertEquals(cpa, copy.getAssignmentMap("cpa"));
+        Assertions.assertEquals(costMap, copy.getCostMap("costMap"));
+        Assertions.assertEquals(costs, copy.getCostVector("costs"));
+        Assertions.assertEquals(offers, copy.get("offers"));
+        Assertions.assertEquals(Arrays.asList(true, false), copy.get("domain"));
+        Assertions.assertEquals(0.125, copy.getDouble("gain"));
+        Assertions.assertEquals(-42, copy.getInteger("count"));
+        Assertions.assertEquals("DONE", copy.get("state"));
+        Assertions.assertEquals(Long.MIN_VALUE, copy.get("long"));
+        Assertions.assertEquals(this.source, copy.get("other"));
+        Assertions.assertArrayEquals("fallback".toCharArray(), (char[]) copy.get("serialized"));
+    }
+
+    @Test
+    public void testSteadyState() {
+        final List<byte[]> frames = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Message msg = new TypedMessage(this.source, "UPDATE");
+            msg.put("value", i);
+            frames.add(this.sender.encode(msg));
+        }
+
+        // The first message defines the schema and the source, the others only refer to them
+        Assertions.assertTrue(frames.get(0).length > frames.get(1).length);
+        Assertions.assertEquals(frames.get(1).length, frames.get(2).length);
+
+        // Type ref, source ref, tag and value
+        Assertions.assertEquals(4, frames.get(1).length);
+
+        // A fresh codec reports the steady state size as well
+        final Message msg = new TypedMessage(this.source, "UPDATE");
+        msg.put("value", 2);
+        Assertions.assertEquals(frames.get(2).length, new BinaryMessageCodec().sizeOf(msg));
+        Assertions.assertEquals(frames.get(2).length, msg.messageSize());
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(i, this.receiver.decode(frames.get(i)).getInteger("value"));
+        }
+    }
+
+    @Test
+    public void testOptionalKeys() {
+        final Message withKey = new TypedMessage(this.source, "CPA");
+        withKey.put("pa", new AssignmentMap<Integer>());
+        final Message withoutKey = new TypedMessage(this.source, "CPA");
+
+        final byte[] first = this.sender.encode(withKey);
+        final byte[] second = this.sender.encode(withoutKey);
+
+        Assertions.assertTrue(this.receiver.decode(first).containsKey("pa"));
+        Assertions.assertFalse(this.receiver.decode(second).containsKey("pa"));
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        final Message msg = new TypedMessage(this.source, "UPDATE");
+        msg.put("value", 1);
+        this.sender.encode(msg);
+
+        // The receiver never saw the definition
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.receiver.decode(this.sender.encode(msg)));
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * File TypedMessageTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.messages;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.exceptions.MessageKeyNotSetException;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * TypedMessageTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class TypedMessageTest {
+
+    private TypedMessage msg;
+
+    @BeforeEach
+    public void init() {
+        this.msg = new TypedMessage(UUID.randomUUID(), "TEST");
+    }
+
+    @Test
+    public void testPrimitives() {
+        this.msg.put("double", 0.25);
+        this.msg.put("int", 42);
+
+        Assertions.assertEquals(0.25, this.msg.getDouble("double"));
+        Assertions.assertEquals(42, this.msg.getInteger("int"));
+
+        // The boxed getter should still work for legacy readers
+        Assertions.assertEquals(Double.valueOf(0.25), this.msg.get("double"));
+        Assertions.assertEquals(Integer.valueOf(42), this.msg.get("int"));
+
+        // Overwriting a key should not add a new one
+        this.msg.put("int", 7);
+        Assertions.assertEquals(7, this.msg.getInteger("int"));
+        Assertions.assertThrows(MessageKeyNotSetException.class, () -> this.msg.getDouble("missing"));
+    }
+
+    @Test
+    public void testByReference() {
+        final AssignmentMap<Integer> cpa = new AssignmentMap<>();
+        cpa.setAssignment(new IntegerVariable(0, 2), 1);
+
+        this.msg.put("cpa", cpa);
+        Assertions.assertSame(cpa, this.msg.getAssignmentMap("cpa"));
+        Assertions.assertTrue(this.msg.containsKey("cpa"));
+        Assertions.assertFalse(this.msg.containsKey("pa"));
+
+        // Putting null is ignored, like the HashMessage does
+        this.msg.put("pa", (Object) null);
+        Assertions.assertFalse(this.msg.containsKey("pa"));
+    }
+
+    @Test
+    public void testGrowAndClone() {
+        for (int i = 0; i < 10; i++) {
+            this.msg.put("key" + i, i);
+        }
+
+        final TypedMessage clone = this.msg.clone();
+        clone.put("key0", 100);
+
+        Assertions.assertEquals(0, this.msg.getInteger("key0"));
+        Assertions.assertEquals(100, clone.getInteger("key0"));
+        Assertions.assertEquals(9, clone.getInteger("key9"));
+        Assertions.assertEquals(this.msg.getType(), clone.getType());
+        Assertions.assertEquals(this.msg.getSource(), clone.getSource());
+    }
+
+    @Test
+    public void testFreeze() {
+        final IntegerVariable var = new IntegerVariable(0, 2);
+        final AssignmentMap<Integer> cpa = new AssignmentMap<>();
+        cpa.setAssignment(var, 1);
+        this.msg.put("cpa", cpa);
+        this.msg.put("int", 1);
+
+        this.msg.freeze();
+        Assertions.assertTrue(this.msg.isFrozen());
+        Assertions.assertTrue(cpa.isFrozen());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> this.msg.put("int", 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> this.msg.put("key", "value"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cpa.setAssignment(var, 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cpa.keySet().clear());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> cpa.entrySet().iterator().next().setValue(2));
+        Assertions.assertEquals(1, this.msg.getInteger("int"));
+        Assertions.assertEquals(Integer.valueOf(1), cpa.getAssignment(var));
+
+        // Copies can be modified again
+        final TypedMessage clone = this.msg.clone();
+        Assertions.assertFalse(clone.isFrozen());
+        clone.put("int", 2);
+        final AssignmentMap<Integer> copy = cpa.clone();
+        copy.setAssignment(var, 2);
+        Assertions.assertEquals(Integer.valueOf(1), cpa.getAssignment(var));
+    }
+
+}
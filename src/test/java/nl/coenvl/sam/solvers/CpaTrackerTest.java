@@ -0,0 +1,143 @@
+/**
+ * File CpaTrackerTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * CpaTrackerTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class CpaTrackerTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID x = UUID.randomUUID();
+    private final UUID y = UUID.randomUUID();
+
+    @Test
+    public void testDeltas() {
+        final AssignmentMap<Integer> context = new AssignmentMap<>();
+        final CpaTracker<Integer> tracker = new CpaTracker<>(context);
+
+        tracker.set(this.x, 1);
+        Assertions.assertEquals(1, context.get(this.x));
+        Assertions.assertEquals(1, tracker.deltaFor(this.a).get(this.x));
+        Assertions.assertTrue(tracker.deltaFor(this.a).isEmpty());
+
+        // Setting the same value again is not a change
+        tracker.set(this.x, 1);
+        Assertions.assertTrue(tracker.deltaFor(this.a).isEmpty());
+
+        final AssignmentMap<Integer> received = new AssignmentMap<>();
+        received.put(this.x, 2);
+        received.put(this.y, 3);
+        tracker.merge(received);
+        Assertions.assertEquals(received, tracker.deltaFor(this.a));
+
+        // A neighbor that was never sent anything gets everything
+        Assertions.assertEquals(context, tracker.deltaFor(this.b));
+
+        // Only the latest value of a variable that changed several times is sent
+        for (int i = 0; i < 10; i++) {
+            tracker.set(this.x, i);
+        }
+        final AssignmentMap<Integer> delta = tracker.deltaFor(this.a);
+        Assertions.assertEquals(1, delta.size());
+        Assertions.assertEquals(9, delta.get(this.x));
+        tracker.set(this.y, 4);
+        Assertions.assertEquals(context, tracker.deltaFor(this.b));
+    }
+
+    private static VariableAgent<DiscreteVariable<Integer>, Integer> logging(final ExperimentContext context,
+            final List<AssignmentMap<Integer>> log) {
+        final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                new IntegerVariable(1, 3),
+                "Agent",
+                SolverAgent.SINGLE_THREADED,
+                SolverAgent.SIMULTANEOUS_ACTIVATION);
+        agent.setSolver(new Solver() {
+
+            @Override
+            public void init() {
+                // Nothing to do
+            }
+
+            @Override
+            public void push(final Message m) {
+                log.add(m.getAssignmentMap("cpa"));
+            }
+
+            @Override
+            public void reset() {
+                log.clear();
+            }
+        });
+        return agent;
+    }
+
+    @Test
+    public void testMulticast() {
+        final ExperimentContext context = new ExperimentContext();
+        final List<AssignmentMap<Integer>> logB = new ArrayList<>();
+        final List<AssignmentMap<Integer>> logC = new ArrayList<>();
+        final VariableAgent<DiscreteVariable<Integer>, Integer> a = CpaTrackerTest.logging(context, new ArrayList<>());
+        final VariableAgent<DiscreteVariable<Integer>, Integer> b = CpaTrackerTest.logging(context, logB);
+        final VariableAgent<DiscreteVariable<Integer>, Integer> c = CpaTrackerTest.logging(context, logC);
+        a.addConstraint(new InequalityConstraint<>(a.getVariable(), b.getVariable()));
+        a.addConstraint(new InequalityConstraint<>(a.getVariable(), c.getVariable()));
+
+        final AssignmentMap<Integer> cpa = new AssignmentMap<>();
+        final CpaTracker<Integer> tracker = new CpaTracker<>(cpa);
+        tracker.set(this.x, 1);
+        tracker.deltaFor(b.getVariable().getID());
+        tracker.set(this.y, 2);
+
+        // The multicast carries what the neighbor that is furthest behind is missing
+        tracker.multicast(context.getMessageBus(), a, new TypedMessage(a.getVariable().getID(), "TEST"));
+        Assertions.assertEquals(cpa, logB.get(0));
+        Assertions.assertEquals(cpa, logC.get(0));
+        Assertions.assertTrue(tracker.deltaFor(b.getVariable().getID()).isEmpty());
+        Assertions.assertTrue(tracker.deltaFor(c.getVariable().getID()).isEmpty());
+
+        tracker.set(this.x, 3);
+        tracker.multicast(context.getMessageBus(), a, new TypedMessage(a.getVariable().getID(), "TEST"));
+        Assertions.assertEquals(1, logB.get(1).size());
+        Assertions.assertEquals(3, logC.get(1).get(this.x));
+    }
+
+    @Test
+    public void testClear() {
+        final AssignmentMap<Integer> context = new AssignmentMap<>();
+        final CpaTracker<Integer> tracker = new CpaTracker<>(context);
+        tracker.set(this.x, 1);
+        tracker.deltaFor(this.a);
+
+        tracker.clear();
+        Assertions.assertTrue(context.isEmpty());
+        tracker.set(this.x, 1);
+        Assertions.assertEquals(context, tracker.deltaFor(this.a));
+    }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * File MaxSumSolverTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.Identifiers;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.agents.BinaryConstraintAgent;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.CostMatrixConstraint;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.variables.CostVector;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * MaxSumSolverTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class MaxSumSolverTest {
+
+    private static final int CHAIN_LENGTH = 60;
+    private static final int DOMAIN_SIZE = 3;
+    private static final int ITERATIONS = 2 * MaxSumSolverTest.CHAIN_LENGTH;
+
+    /**
+     * Counts how many of its pushes ever overlapped
+     */
+    private static class OverlapSolver extends MaxSumVariableSolver<DiscreteVariable<Integer>, Integer> {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger overlaps = new AtomicInteger();
+
+        OverlapSolver(final VariableAgent<DiscreteVariable<Integer>, Integer> agent) {
+            super(agent);
+        }
+
+        @Override
+        public void push(final Message m) {
+            if (this.active.incrementAndGet() > 1) {
+                this.overlaps.incrementAndGet();
+            }
+            super.push(m);
+            this.active.decrementAndGet();
+        }
+    }
+
+    @Test
+    public void testConcurrentPush() throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                new IntegerVariable(1, MaxSumSolverTest.DOMAIN_SIZE),
+                "Variable",
+                SolverAgent.SINGLE_THREADED,
+                SolverAgent.SIMULTANEOUS_ACTIVATION);
+        final OverlapSolver solver = new OverlapSolver(agent);
+        agent.setSolver(solver);
+
+        // Like the runners of several constraint agents, which all push to the same variable
+        final Thread[] functions = new Thread[4];
+        for (int t = 0; t < functions.length; t++) {
+            final UUID source = Identifiers.next();
+            functions[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    final Message m = new TypedMessage(source, "FUN2VAR");
+                    m.put("costs", new CostVector(MaxSumSolverTest.DOMAIN_SIZE));
+                    agent.push(m);
+                }
+            });
+            functions[t].start();
+        }
+        for (final Thread t : functions) {
+            t.join();
+        }
+
+        Assertions.assertEquals(0, solver.overlaps.get());
+    }
+
+    @Test
+    public void testFactorGraph() throws InterruptedException {
+        final ExperimentContext context = new ExperimentContext();
+        context.setSeed(42);
+        final MessageBus bus = context.getMessageBus();
+
+        // Single threaded variables, which receive from the runner threads of all their constraint agents at once
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> variables = new ArrayList<>();
+        for (int i = 0; i < MaxSumSolverTest.CHAIN_LENGTH; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, MaxSumSolverTest.DOMAIN_SIZE),
+                    "Variable " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            agent.setSolver(new MaxSumVariableSolver<>(agent));
+            variables.add(agent);
+        }
+
+        // A chain is a tree, on which Max-Sum finds the optimal solution
+        final SplittableRandom random = new SplittableRandom(42);
+        final double[][][] costs = new double[MaxSumSolverTest.CHAIN_LENGTH - 1][][];
+        final List<BinaryConstraintAgent<DiscreteVariable<Integer>, Integer>> functions = new ArrayList<>();
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = MaxSumSolverTest.symmetricCosts(random);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = variables.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = variables.get(i + 1);
+            final BinaryConstraintAgent<DiscreteVariable<Integer>, Integer> function = new BinaryConstraintAgent<>(
+                    context,
+                    "Function " + i,
+                    new CostMatrixConstraint<>(a.getVariable(), b.getVariable(), costs[i]),
+                    a.getVariable(),
+                    b.getVariable());
+            function.setSolver(new MaxSumFunctionSolver<>(function));
+            a.addFunctionAddress(function.getID());
+            b.addFunctionAddress(function.getID());
+            functions.add(function);
+        }
+
+        try {
+            for (int i = 0; i < MaxSumSolverTest.ITERATIONS; i++) {
+                for (final VariableAgent<DiscreteVariable<Integer>, Integer> v : variables) {
+                    v.tick();
+                }
+                Assertions.assertTrue(bus.awaitQuiescence(10, TimeUnit.SECONDS));
+                for (final BinaryConstraintAgent<DiscreteVariable<Integer>, Integer> f : functions) {
+                    f.tick();
+                }
+                Assertions.assertTrue(bus.awaitQuiescence(10, TimeUnit.SECONDS));
+            }
+
+            // Every function sends to and receives from both its variables in every iteration
+            Assertions.assertEquals(4 * MaxSumSolverTest.ITERATIONS * costs.length, bus.getTotalSentMessages());
+
+            double cost = 0;
+            for (int i = 0; i < costs.length; i++) {
+                final int a = variables.get(i).getVariable().getValueIndex();
+                final int b = variables.get(i + 1).getVariable().getValueIndex();
+                cost += costs[i][a][b];
+            }
+            Assertions.assertEquals(MaxSumSolverTest.optimalCost(costs), cost, 1e-9);
+        } finally {
+            context.reset();
+        }
+    }
+
+    private static double[][] symmetricCosts(final SplittableRandom random) {
+        final double[][] costs = new double[MaxSumSolverTest.DOMAIN_SIZE][MaxSumSolverTest.DOMAIN_SIZE];
+        for (int x = 0; x < MaxSumSolverTest.DOMAIN_SIZE; x++) {
+            for (int y = x; y < MaxSumSolverTest.DOMAIN_SIZE; y++) {
+                costs[x][y] = random.nextDouble();
+                costs[y][x] = costs[x][y];
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Solves the chain exactly by dynamic programming from left to right
+     */
+    private static double optimalCost(final double[][][] costs) {
+        double[] best = new double[MaxSumSolverTest.DOMAIN_SIZE];
+        for (final double[][] c : costs) {
+            final double[] next = new double[MaxSumSolverTest.DOMAIN_SIZE];
+            Arrays.fill(next, Double.MAX_VALUE);
+            for (int x = 0; x < MaxSumSolverTest.DOMAIN_SIZE; x++) {
+                for (int y = 0; y < MaxSumSolverTest.DOMAIN_SIZE; y++) {
+                    next[y] = Math.min(next[y], best[x] + c[x][y]);
+                }
+            }
+            best = next;
+        }
+        return Arrays.stream(best).min().getAsDouble();
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * File MpscMessageQueueTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+
+/**
+ * MpscMessageQueueTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class MpscMessageQueueTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int MESSAGES = 50000;
+
+    @Test
+    public void testSingleThreaded() throws InterruptedException {
+        final MpscMessageQueue queue = new MpscMessageQueue();
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertNull(queue.poll());
+
+        final Message a = new TypedMessage(null, "A");
+        final Message b = new TypedMessage(null, "B");
+        Assertions.assertEquals(1, queue.offer(a));
+        Assertions.assertEquals(2, queue.offer(b));
+        Assertions.assertEquals(2, queue.size());
+        Assertions.assertSame(a, queue.take());
+        Assertions.assertSame(b, queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+
+        queue.offer(a);
+        queue.offer(b);
+        Assertions.assertEquals(2, queue.clear());
+        Assertions.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testProducers() throws InterruptedException {
+        final MpscMessageQueue queue = new MpscMessageQueue();
+        final UUID[] sources = new UUID[MpscMessageQueueTest.PRODUCERS];
+        final Thread[] producers = new Thread[MpscMessageQueueTest.PRODUCERS];
+        for (int p = 0; p < producers.length; p++) {
+            final UUID source = UUID.randomUUID();
+            sources[p] = source;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < MpscMessageQueueTest.MESSAGES; i++) {
+                    final TypedMessage m = new TypedMessage(source, "TEST");
+                    m.put("i", i);
+                    queue.offer(m);
+                }
+            });
+            producers[p].start();
+        }
+
+        // The consumer waits for messages, and gets those of every producer in order
+        final int[] next = new int[MpscMessageQueueTest.PRODUCERS];
+        for (int n = 0; n < (MpscMessageQueueTest.PRODUCERS * MpscMessageQueueTest.MESSAGES); n++) {
+            final Message m = queue.take();
+            int p = 0;
+            while (!sources[p].equals(m.getSource())) {
+                p++;
+            }
+            Assertions.assertEquals(next[p]++, m.getInteger("i"));
+        }
+
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testInterruptedTake() {
+        final MpscMessageQueue queue = new MpscMessageQueue();
+        Thread.currentThread().interrupt();
+        Assertions.assertThrows(InterruptedException.class, queue::take);
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * File SolverRunnerTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+
+/**
+ * SolverRunnerTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class SolverRunnerTest {
+
+    private static final int RUNNERS = 200;
+    private static final int SENDERS = 4;
+    private static final int MESSAGES = 500;
+
+    /**
+     * Counts the messages it receives, and how many of its pushes ever overlapped
+     */
+    private static class CountingSolver implements Solver {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger overlaps = new AtomicInteger();
+        private final List<Message> messages = new ArrayList<>();
+        private int received;
+
+        @Override
+        public void init() {
+            // Nothing to do
+        }
+
+        @Override
+        public void push(final Message m) {
+            if (this.active.incrementAndGet() > 1) {
+                this.overlaps.incrementAndGet();
+            }
+            this.received++;
+            this.messages.add(m);
+            this.active.decrementAndGet();
+        }
+
+        @Override
+        public void reset() {
+            this.received = 0;
+        }
+    }
+
+    @Test
+    public void testSharedPool() throws Exception {
+        final ExecutorService pool = SolverRunner.newWorkStealingPool();
+        final List<CountingSolver> solvers = new ArrayList<>();
+        final List<SolverRunner> runners = new ArrayList<>();
+        for (int i = 0; i < SolverRunnerTest.RUNNERS; i++) {
+            final CountingSolver solver = new CountingSolver();
+            solvers.add(solver);
+            runners.add(new SolverRunner(solver, pool));
+        }
+
+        // Many runners on a few threads, pushed to from several threads at once
+        final Thread[] senders = new Thread[SolverRunnerTest.SENDERS];
+        for (int t = 0; t < senders.length; t++) {
+            senders[t] = new Thread(() -> {
+                for (int i = 0; i < SolverRunnerTest.MESSAGES; i++) {
+                    for (final SolverRunner runner : runners) {
+                        runner.push(new TypedMessage(null, "TEST"));
+                    }
+                }
+            });
+            senders[t].start();
+        }
+        for (final Thread sender : senders) {
+            sender.join();
+        }
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        for (final SolverRunner runner : runners) {
+            while (!runner.emptyQueue()) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(1);
+            }
+        }
+
+        for (final CountingSolver solver : solvers) {
+            Assertions.assertEquals(SolverRunnerTest.SENDERS * SolverRunnerTest.MESSAGES, solver.received);
+            Assertions.assertEquals(0, solver.overlaps.get());
+        }
+
+        pool.shutdown();
+        Assertions.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static Message numbered(final UUID source, final int i) {
+        final TypedMessage m = new TypedMessage(source, "TEST");
+        m.put("i", i);
+        return m;
+    }
+
+    @Test
+    public void testDropOldest() {
+        // Activations are only run when the test says so, to let the queue fill up
+        final List<Runnable> activations = new ArrayList<>();
+        final CountingSolver solver = new CountingSolver();
+        final SolverRunner runner = new SolverRunner(solver,
+                activations::add,
+                null,
+                3,
+                SolverRunner.OverflowPolicy.DROP_OLDEST);
+
+        final UUID a = UUID.randomUUID();
+        final UUID b = UUID.randomUUID();
+        runner.push(SolverRunnerTest.numbered(a, 0));
+        runner.push(SolverRunnerTest.numbered(b, 1));
+        runner.push(SolverRunnerTest.numbered(a, 2));
+        runner.push(SolverRunnerTest.numbered(b, 3));
+        runner.push(SolverRunnerTest.numbered(a, 4));
+
+        Assertions.assertEquals(3, runner.getHighWaterMark());
+        Assertions.assertEquals(2, runner.getDroppedMessages());
+        Assertions.assertEquals(1, activations.size());
+
+        // The oldest message of the same source was dropped each time
+        activations.get(0).run();
+        Assertions.assertEquals(3, solver.received);
+        Assertions.assertEquals(2, solver.messages.get(0).getInteger("i"));
+        Assertions.assertEquals(3, solver.messages.get(1).getInteger("i"));
+        Assertions.assertEquals(4, solver.messages.get(2).getInteger("i"));
+    }
+
+    @Test
+    public void testCoalesce() {
+        final List<Runnable> activations = new ArrayList<>();
+        final CountingSolver solver = new CountingSolver();
+        final SolverRunner runner = new SolverRunner(solver,
+                activations::add,
+                null,
+                10,
+                SolverRunner.OverflowPolicy.COALESCE);
+
+        final UUID a = UUID.randomUUID();
+        final UUID b = UUID.randomUUID();
+        for (int i = 0; i < 20; i++) {
+            runner.push(SolverRunnerTest.numbered((i % 2) == 0 ? a : b, i));
+        }
+
+        Assertions.assertEquals(2, runner.getHighWaterMark());
+        Assertions.assertEquals(18, runner.getCoalescedMessages());
+        Assertions.assertEquals(0, runner.getDroppedMessages());
+
+        // Only the latest message of every source is left
+        activations.get(0).run();
+        Assertions.assertEquals(2, solver.received);
+        Assertions.assertEquals(18, solver.messages.get(0).getInteger("i"));
+        Assertions.assertEquals(19, solver.messages.get(1).getInteger("i"));
+    }
+
+    @Test
+    public void testReliableDelivery() {
+        final Solver solver = new CountingSolver() {
+
+            @Override
+            public boolean requiresReliableDelivery() {
+                return true;
+            }
+        };
+
+        // Only the policies that may lose messages are refused
+        for (final SolverRunner.OverflowPolicy policy : SolverRunner.OverflowPolicy.values()) {
+            if (policy == SolverRunner.OverflowPolicy.BLOCK) {
+                Assertions.assertNotNull(new SolverRunner(solver, Runnable::run, null, 3, policy));
+            } else {
+                Assertions.assertThrows(IllegalArgumentException.class,
+                        () -> new SolverRunner(solver, Runnable::run, null, 3, policy));
+            }
+            Assertions.assertNotNull(new SolverRunner(solver, Runnable::run, null, SolverRunner.UNBOUNDED, policy));
+        }
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws Exception {
+        final ExecutorService executor = SolverRunner.newVirtualThreadExecutor();
+        final CountingSolver solver = new CountingSolver();
+        final SolverRunner runner = new SolverRunner(solver, executor);
+        Assertions.assertTrue(runner.started());
+
+        for (int i = 0; i < SolverRunnerTest.MESSAGES; i++) {
+            runner.push(new TypedMessage(null, "TEST"));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(runner.emptyQueue());
+        Assertions.assertEquals(SolverRunnerTest.MESSAGES, solver.received);
+    }
+
+}
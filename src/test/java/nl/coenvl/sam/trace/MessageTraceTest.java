@@ -0,0 +1,167 @@
+/**
+ * File MessageTraceTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.trace;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.constraints.Constraint;
+import nl.coenvl.sam.constraints.InequalityConstraint;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.solvers.CoCoASolver;
+import nl.coenvl.sam.solvers.CoCoSolver;
+import nl.coenvl.sam.solvers.Solver;
+import nl.coenvl.sam.variables.DiscreteVariable;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * MessageTraceTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class MessageTraceTest {
+
+    private static final int RING_SIZE = 5;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Builds a ring of agents with the given IDs, which log every message they receive. If solve is true, the agents
+     * also run CoCoA.
+     */
+    private static List<VariableAgent<DiscreteVariable<Integer>, Integer>> buildRing(final ExperimentContext context,
+            final UUID[] ids,
+            final List<List<String>> logs,
+            final boolean solve) {
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> agent = new VariableAgent<>(context,
+                    new IntegerVariable(1, 3, "Variable " + i, ids[i]),
+                    "Agent " + i,
+                    SolverAgent.SINGLE_THREADED,
+                    SolverAgent.SIMULTANEOUS_ACTIVATION);
+            final Solver solver = solve ? new CoCoASolver<>(agent) : null;
+
+            final List<String> log = new ArrayList<>();
+            logs.add(log);
+            agent.setSolver(new Solver() {
+
+                @Override
+                public void init() {
+                    if (solver != null) {
+                        solver.init();
+                    }
+                }
+
+                @Override
+                public void push(final Message m) {
+                    // Log before the solver reacts, and possibly sends messages itself
+                    log.add(m.getType() + " from " + m.getSource());
+                    if (solver != null) {
+                        solver.push(m);
+                    }
+                }
+
+                @Override
+                public void reset() {
+                    log.clear();
+                }
+            });
+            agents.add(agent);
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            final VariableAgent<DiscreteVariable<Integer>, Integer> a = agents.get(i);
+            final VariableAgent<DiscreteVariable<Integer>, Integer> b = agents.get((i + 1) % ids.length);
+            final Constraint<DiscreteVariable<Integer>, Integer> c = new InequalityConstraint<>(a.getVariable(),
+                    b.getVariable());
+            a.addConstraint(c);
+            b.addConstraint(c);
+        }
+        return agents;
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        final UUID[] ids = new UUID[MessageTraceTest.RING_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        final Path file = this.tempDir.resolve("cocoa.trace");
+
+        // Record a CoCoA run
+        final ExperimentContext original = new ExperimentContext();
+        final List<List<String>> originalLogs = new ArrayList<>();
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = MessageTraceTest.buildRing(original,
+                ids,
+                originalLogs,
+                true);
+        try (MessageTraceRecorder recorder = new MessageTraceRecorder(file, 1 << 20)) {
+            original.getMessageBus().setRecorder(recorder);
+            agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+            agents.get(0).init();
+            original.getMessageBus().setRecorder(null);
+            Assertions.assertEquals(0, recorder.getDroppedRecords());
+        }
+
+        int records = 0;
+        final MessageTraceReplayer reader = new MessageTraceReplayer(file);
+        while (reader.hasNext()) {
+            reader.next();
+            records++;
+        }
+        Assertions.assertEquals(original.getMessageBus().getTotalSentMessages(), records);
+
+        // Replaying into agents with the same addresses gives them the same messages in the same order
+        final ExperimentContext replay = new ExperimentContext();
+        final List<List<String>> replayLogs = new ArrayList<>();
+        MessageTraceTest.buildRing(replay, ids, replayLogs, false);
+        Assertions.assertEquals(records, new MessageTraceReplayer(file).replay(replay.getMessageBus()));
+        Assertions.assertEquals(originalLogs, replayLogs);
+    }
+
+    @Test
+    public void testFullTrace() throws Exception {
+        final UUID[] ids = new UUID[MessageTraceTest.RING_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        final Path file = this.tempDir.resolve("full.trace");
+
+        final ExperimentContext context = new ExperimentContext();
+        final List<VariableAgent<DiscreteVariable<Integer>, Integer>> agents = MessageTraceTest.buildRing(context,
+                ids,
+                new ArrayList<>(),
+                true);
+        try (MessageTraceRecorder recorder = new MessageTraceRecorder(file, 256)) {
+            context.getMessageBus().setRecorder(recorder);
+            agents.get(0).set(CoCoSolver.ROOTNAME_PROPERTY, true);
+            agents.get(0).init();
+            Assertions.assertTrue(recorder.getDroppedRecords() > 0);
+            Assertions.assertTrue(recorder.getRecordedBytes() <= 256);
+        }
+
+        // The records that did fit can still be read
+        final MessageTraceReplayer reader = new MessageTraceReplayer(file);
+        Assertions.assertTrue(reader.hasNext());
+        while (reader.hasNext()) {
+            Assertions.assertNotNull(reader.next().getMessage());
+        }
+    }
+
+}
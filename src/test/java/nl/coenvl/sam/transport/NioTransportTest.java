@@ -0,0 +1,117 @@
+/**
+ * File NioTransportTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.transport;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nl.coenvl.sam.ExperimentContext;
+import nl.coenvl.sam.MessageBus;
+import nl.coenvl.sam.agents.SolverAgent;
+import nl.coenvl.sam.agents.VariableAgent;
+import nl.coenvl.sam.messages.Message;
+import nl.coenvl.sam.messages.TypedMessage;
+import nl.coenvl.sam.solvers.Solver;
+import nl.coenvl.sam.variables.AssignmentMap;
+import nl.coenvl.sam.variables.CostMap;
+import nl.coenvl.sam.variables.IntegerVariable;
+
+/**
+ * NioTransportTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class NioTransportTest {
+
+    private static final int MESSAGES = 1000;
+
+    @Test
+    public void testLoopback() throws Exception {
+        final ExperimentContext local = new ExperimentContext();
+        final ExperimentContext remote = new ExperimentContext();
+
+        // The receiver lives in the "remote" context, and is only reachable over the socket
+        final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+        final VariableAgent<IntegerVariable, Integer> receiver = new VariableAgent<>(remote,
+                new IntegerVariable(0, 2),
+                "Receiver",
+                SolverAgent.SINGLE_THREADED,
+                SolverAgent.SIMULTANEOUS_ACTIVATION);
+        receiver.setSolver(new Solver() {
+
+            @Override
+            public void init() {
+                // Nothing to do
+            }
+
+            @Override
+            public void push(final Message m) {
+                received.add(m);
+            }
+
+            @Override
+            public void reset() {
+                received.clear();
+            }
+        });
+        final UUID address = receiver.getVariable().getID();
+
+        final MessageBus bus = local.getMessageBus();
+        try (NioTransport sending = new NioTransport(bus);
+                NioTransport receiving = new NioTransport(remote.getMessageBus())) {
+            bus.setTransport(sending);
+            remote.getMessageBus().setTransport(receiving);
+
+            // Unrouted addresses are not reachable
+            Assertions.assertFalse(sending.deliver(bus.mailbox(UUID.randomUUID()), new TypedMessage(null, "TEST")));
+
+            sending.connect(receiving.getLocalAddress());
+            sending.route(address, receiving.getLocalAddress());
+
+            final UUID source = UUID.randomUUID();
+            final AssignmentMap<Integer> cpa = new AssignmentMap<>();
+            cpa.setAssignment(receiver.getVariable(), 1);
+            for (int i = 0; i < NioTransportTest.MESSAGES; i++) {
+                final TypedMessage m = new TypedMessage(source, "TEST");
+                m.put("i", i);
+                m.put("cpa", cpa);
+                bus.sendMessage(address, m);
+            }
+
+            // A message that is larger than the read buffer of the receiver
+            final CostMap<Integer> costMap = new CostMap<>();
+            for (int i = 0; i < 20000; i++) {
+                costMap.put(i, i / 2.);
+            }
+            final TypedMessage large = new TypedMessage(source, "LARGE");
+            large.put("costMap", costMap);
+            bus.sendMessage(address, large);
+
+            for (int i = 0; i < NioTransportTest.MESSAGES; i++) {
+                final Message m = received.poll(10, TimeUnit.SECONDS);
+                Assertions.assertNotNull(m);
+                Assertions.assertEquals("TEST", m.getType());
+                Assertions.assertEquals(source, m.getSource());
+                Assertions.assertEquals(i, m.getInteger("i"));
+                Assertions.assertEquals(cpa, m.getAssignmentMap("cpa"));
+            }
+
+            final Message m = received.poll(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(m);
+            Assertions.assertEquals(costMap, m.getCostMap("costMap"));
+
+            Assertions.assertEquals(NioTransportTest.MESSAGES + 1, bus.getTotalSentMessages());
+        }
+    }
+
+}
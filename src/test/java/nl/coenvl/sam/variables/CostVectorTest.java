@@ -0,0 +1,58 @@
+/**
+ * File CostVectorTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.variables;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CostVectorTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class CostVectorTest {
+
+    @Test
+    public void testArithmetic() {
+        final CostVector costs = new CostVector(new double[] { 3, 1, 4 });
+        costs.add(new CostVector(new double[] { 1, 5, 0 }));
+        Assertions.assertArrayEquals(new double[] { 4, 6, 4 }, costs.toArray());
+
+        // The first of equal costs is the minimum
+        Assertions.assertEquals(4, costs.min());
+        Assertions.assertEquals(0, costs.argmin());
+
+        costs.add(0, 0.5);
+        Assertions.assertEquals(2, costs.argmin());
+
+        costs.normalize();
+        Assertions.assertArrayEquals(new double[] { 0.5, 2, 0 }, costs.toArray());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> costs.add(new CostVector(2)));
+    }
+
+    @Test
+    public void testEmpty() {
+        final CostVector costs = new CostVector(0);
+        Assertions.assertEquals(-1, costs.argmin());
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, costs.min());
+        Assertions.assertEquals(0, costs.normalize().size());
+    }
+
+    @Test
+    public void testIndexedByDomain() {
+        final IntegerVariable var = new IntegerVariable(5, 9);
+        final CostVector costs = new CostVector(var.getRange());
+        for (final Integer value : var) {
+            costs.set(var.indexOf(value), Math.abs(value - 7));
+        }
+        var.setValueIndex(costs.argmin());
+        Assertions.assertEquals(7, var.getValue());
+    }
+
+}
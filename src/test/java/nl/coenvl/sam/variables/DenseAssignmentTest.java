@@ -0,0 +1,125 @@
+/**
+ * File DenseAssignmentTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.variables;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DenseAssignmentTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class DenseAssignmentTest {
+
+    private final Variable<Integer> a = new IntegerVariable(0, 2);
+    private final Variable<Integer> b = new IntegerVariable(0, 2);
+    private final Variable<Integer> other = new IntegerVariable(0, 2);
+
+    @Test
+    public void testSlots() {
+        final DenseAssignment<Integer> assignment = new DenseAssignment<>(
+                Arrays.asList(this.a.getID(), this.b.getID(), this.a.getID()));
+        Assertions.assertEquals(2, assignment.size());
+        Assertions.assertEquals(0, assignment.slotOf(this.a.getID()));
+        Assertions.assertEquals(1, assignment.slotOf(this.b.getID()));
+        Assertions.assertEquals(-1, assignment.slotOf(this.other.getID()));
+        Assertions.assertEquals(this.b.getID(), assignment.idAt(1));
+
+        Assertions.assertNull(assignment.setAssignment(this.a, 1));
+        Assertions.assertEquals(1, assignment.setAssignment(this.a, null));
+        Assertions.assertTrue(assignment.containsAssignment(this.a));
+        Assertions.assertNull(assignment.getAssignment(this.a));
+        Assertions.assertNull(assignment.removeAssignment(this.a));
+        Assertions.assertFalse(assignment.containsAssignment(this.a));
+
+        // Variables without a slot are never assigned
+        Assertions.assertFalse(assignment.containsAssignment(this.other));
+        Assertions.assertNull(assignment.getAssignment(this.other));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> assignment.setAssignment(this.other, 1));
+    }
+
+    @Test
+    public void testLoad() {
+        final AssignmentMap<Integer> map = new AssignmentMap<>();
+        map.setAssignment(this.b, 2);
+        map.setAssignment(this.other, 1);
+
+        final DenseAssignment<Integer> assignment = new DenseAssignment<>(
+                Arrays.asList(this.a.getID(), this.b.getID()));
+        assignment.setAssignment(this.a, 0);
+        assignment.load(map);
+        Assertions.assertFalse(assignment.containsAssignment(this.a));
+        Assertions.assertEquals(2, assignment.getAssignment(this.b));
+
+        final AssignmentMap<Integer> back = assignment.toAssignmentMap();
+        Assertions.assertEquals(1, back.size());
+        Assertions.assertEquals(2, back.getAssignment(this.b));
+    }
+
+    @Test
+    public void testBind() {
+        final DenseAssignment<Integer> assignment = new DenseAssignment<>(
+                Arrays.asList(this.a.getID(), this.b.getID()));
+        final UUID[][] groups = {{this.a.getID(), this.b.getID()}, {this.b.getID(), this.other.getID()}};
+        final Assignment<Integer>[] views = assignment.bind(groups);
+        Assertions.assertEquals(2, views.length);
+        Assertions.assertSame(views, assignment.bind(groups));
+
+        // The views share the values of the assignment
+        assignment.set(1, 2);
+        Assertions.assertEquals(2, views[0].getAssignment(this.b));
+        Assertions.assertEquals(2, views[1].getAssignment(this.b));
+        Assertions.assertNull(views[0].setAssignment(this.a, 1));
+        Assertions.assertEquals(1, assignment.get(0));
+
+        // Variables outside the group are still found, those without a slot are not
+        Assertions.assertEquals(1, views[1].getAssignment(this.a));
+        Assertions.assertFalse(views[1].containsAssignment(this.other));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> views[1].setAssignment(this.other, 1));
+
+        final int mark = assignment.mark();
+        Assertions.assertEquals(2, views[1].removeAssignment(this.b));
+        assignment.rollback(mark);
+        Assertions.assertTrue(views[0].containsAssignment(this.b));
+    }
+
+    @Test
+    public void testRollback() {
+        final DenseAssignment<Integer> assignment = new DenseAssignment<>(
+                Arrays.asList(this.a.getID(), this.b.getID()));
+        assignment.set(0, 1);
+
+        final int outer = assignment.mark();
+        assignment.set(0, 2);
+        assignment.set(1, 2);
+
+        final int inner = assignment.mark();
+        for (int i = 0; i < 100; i++) {
+            assignment.set(1, i);
+        }
+        assignment.unset(0);
+        assignment.rollback(inner);
+        Assertions.assertEquals(2, assignment.get(0));
+        Assertions.assertEquals(2, assignment.get(1));
+
+        final DenseAssignment<Integer> snapshot = assignment.snapshot();
+        assignment.rollback(outer);
+        Assertions.assertEquals(1, assignment.get(0));
+        Assertions.assertFalse(assignment.isAssigned(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> assignment.rollback(0));
+
+        // The snapshot is not affected by the rollback
+        Assertions.assertEquals(2, snapshot.get(0));
+        Assertions.assertEquals(2, snapshot.get(1));
+    }
+
+}
@@ -140,4 +140,27 @@ public class FixedPrecisionVariableTest {
         this.var.setValue(0.875);
         Assertions.assertEquals(this.var.getValue(), 0.875);
     }
+
+    @Test
+    public void testNearestValue() throws InvalidValueException, VariableNotSetException {
+        this.var.setValue(0.3);
+        Assertions.assertEquals(0.25, this.var.getValue());
+        Assertions.assertEquals(2, this.var.getValueIndex());
+
+        this.var.setValue(0.99);
+        Assertions.assertEquals(1.0, this.var.getValue());
+        Assertions.assertEquals(8, this.var.getValueIndex());
+
+        // Halfway between two values the lower one is taken
+        this.var.setValue(0.0625);
+        Assertions.assertEquals(0.0, this.var.getValue());
+
+        // Steps that do not divide the range exactly
+        final FixedPrecisionVariable thirds = new FixedPrecisionVariable(0, 1, .33);
+        thirds.setValue(0.5);
+        Assertions.assertEquals(0.66, thirds.getValue(), 1e-9);
+        thirds.setValue(0.9);
+        Assertions.assertEquals(0.99, thirds.getValue(), 1e-9);
+        Assertions.assertThrows(InvalidValueException.class, () -> thirds.setValue(1.0));
+    }
 }
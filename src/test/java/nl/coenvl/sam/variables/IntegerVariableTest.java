@@ -144,6 +144,27 @@ public class IntegerVariableTest {
         Assertions.assertEquals(Integer.valueOf(9), this.var.getValue());
     }
 
+    @Test
+    public void testValueIndex() {
+        final IntegerVariable shifted = new IntegerVariable(100, 110);
+        Assertions.assertThrows(VariableNotSetException.class, shifted::getValueIndex);
+
+        shifted.setValueIndex(3);
+        Assertions.assertEquals(Integer.valueOf(103), shifted.getValue());
+        Assertions.assertEquals(3, shifted.getValueIndex());
+
+        shifted.setValue(107);
+        Assertions.assertEquals(7, shifted.getValueIndex());
+        Assertions.assertEquals(Integer.valueOf(110), shifted.valueAt(10));
+        Assertions.assertEquals(5, shifted.indexOf(105));
+        Assertions.assertEquals(-1, shifted.indexOf(99));
+        Assertions.assertThrows(InvalidValueException.class, () -> shifted.setValueIndex(11));
+        Assertions.assertThrows(InvalidValueException.class, () -> shifted.valueAt(-1));
+
+        shifted.clear();
+        Assertions.assertThrows(VariableNotSetException.class, shifted::getValueIndex);
+    }
+
     @Test
     public void testProblemContext() {
         final AssignmentMap<Integer> pc = new AssignmentMap<>();
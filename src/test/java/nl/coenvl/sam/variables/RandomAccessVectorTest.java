@@ -8,6 +8,7 @@ package nl.coenvl.sam.variables;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -74,4 +75,17 @@ public class RandomAccessVectorTest {
         Assertions.assertEquals(10, observed.size());
         Assertions.assertNotEquals(MAX_DRAWS, draw);
     }
+
+    @Test
+    public void testSeededElement() {
+        for (int i = 0; i < 10; i++) {
+            this.candidates.add(i);
+        }
+
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(this.candidates.randomElement(first), this.candidates.randomElement(second));
+        }
+    }
 }
@@ -0,0 +1,81 @@
+/**
+ * File ValueRangeTest.java
+ *
+ * Copyright 2016 TNO
+ */
+package nl.coenvl.sam.variables;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ValueRangeTest
+ *
+ * @author leeuwencjv
+ * @version 0.1
+ * @since 18 okt. 2026
+ */
+public class ValueRangeTest {
+
+    @Test
+    public void testIntegerRange() {
+        final IntegerRange range = new IntegerRange(-2, 3);
+        Assertions.assertEquals(Arrays.asList(-2, -1, 0, 1, 2, 3), range);
+        Assertions.assertEquals(6, range.size());
+        Assertions.assertEquals(Integer.valueOf(1), range.get(3));
+        Assertions.assertEquals(4, range.indexOf(2));
+        Assertions.assertEquals(-1, range.indexOf(4));
+        Assertions.assertEquals(-1, range.indexOf("2"));
+        Assertions.assertFalse(range.contains(-3));
+
+        Assertions.assertEquals(0, range.nearestIndex(-10));
+        Assertions.assertEquals(2, range.nearestIndex(0.4));
+        Assertions.assertEquals(2, range.nearestIndex(0.5));
+        Assertions.assertEquals(5, range.nearestIndex(10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> range.get(6));
+    }
+
+    @Test
+    public void testDoubleRange() {
+        final DoubleRange range = new DoubleRange(0, 1, 0.125);
+        Assertions.assertEquals(9, range.size());
+        Assertions.assertEquals(0.375, range.get(3));
+        Assertions.assertEquals(8, range.indexOf(1.0));
+        Assertions.assertEquals(-1, range.indexOf(0.3));
+        Assertions.assertEquals(2, range.nearestIndex(0.3));
+        Assertions.assertEquals(0, range.nearestIndex(0.0625));
+
+        // The upper bound is included even if the step does not add up to it exactly
+        Assertions.assertEquals(31, new DoubleRange(0, 10, 1.0 / 3).size());
+        Assertions.assertEquals(4, new DoubleRange(0, 1, 0.33).size());
+    }
+
+    @Test
+    public void testManyLevels() {
+        // A power variable with 10,000 levels, of which no value is ever stored
+        final FixedPrecisionVariable power = new FixedPrecisionVariable(0, 999.9, 0.1);
+        Assertions.assertEquals(10000, power.getRange());
+        Assertions.assertEquals(999.9, power.getUpperBound(), 1e-9);
+
+        power.setValue(512.34);
+        Assertions.assertEquals(5123, power.getValueIndex());
+        Assertions.assertEquals(512.3, power.getValue(), 1e-9);
+
+        final SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            final Double value = power.getRandomValue(random);
+            Assertions.assertEquals(value, power.valueAt(power.indexOf(value)));
+        }
+
+        int count = 0;
+        for (@SuppressWarnings("unused")
+        final Double value : power) {
+            count++;
+        }
+        Assertions.assertEquals(10000, count);
+    }
+
+}